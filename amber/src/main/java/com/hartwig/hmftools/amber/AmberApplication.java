@@ -8,7 +8,9 @@ import static com.hartwig.hmftools.common.utils.collection.Multimaps.filterEntri
 import java.io.File;
 import java.io.IOException;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
@@ -32,9 +34,10 @@ import com.hartwig.hmftools.common.amber.NormalHomozygousFilter;
 import com.hartwig.hmftools.common.amber.TumorBAF;
 import com.hartwig.hmftools.common.amber.TumorBAFEvidence;
 import com.hartwig.hmftools.common.amber.TumorContamination;
-import com.hartwig.hmftools.common.amber.TumorContaminationEvidence;
+import com.hartwig.hmftools.common.amber.TumorEvidence;
 import com.hartwig.hmftools.common.genome.chromosome.Chromosome;
 import com.hartwig.hmftools.common.genome.chromosome.HumanChromosome;
+import com.hartwig.hmftools.common.genome.position.GenomePosition;
 import com.hartwig.hmftools.common.utils.Doubles;
 import com.hartwig.hmftools.common.utils.version.VersionInfo;
 
@@ -94,7 +97,7 @@ public class AmberApplication implements AutoCloseable {
         }
 
         if (!new File(config.bafLociPath()).exists()) {
-            throw new IOException("Unable to locate vcf file " + config.bafLociPath());
+            throw new IOException("Unable to locate loci file " + config.bafLociPath());
         }
 
         if (!new File(config.tumorBamPath()).exists()) {
@@ -112,7 +115,7 @@ public class AmberApplication implements AutoCloseable {
         final ThreadFactory namedThreadFactory = new ThreadFactoryBuilder().setNameFormat("-%d").build();
         executorService = Executors.newFixedThreadPool(config.threadCount(), namedThreadFactory);
 
-        LOGGER.info("Loading vcf file {}", config.bafLociPath());
+        LOGGER.info("Loading loci file {}", config.bafLociPath());
         sites = AmberSiteFactory.sites(config.bafLociPath());
         snpCheckFilter = new SnpCheckFilter(sites);
     }
@@ -137,24 +140,35 @@ public class AmberApplication implements AutoCloseable {
         final ListMultimap<Chromosome, BaseDepth> hetNormal = filterEntries(unfilteredNormal, depthFilter.and(heterozygousFilter));
         hetNormalEvidence.add(config.primaryReference(), hetNormal.values());
 
-        // Additional Reference Data
+        // Additional Reference Data, sliced concurrently at the primary heterozygous sites then intersected in reference order
+        final ListMultimap<Chromosome, AmberSite> primaryHetSites = hetNormalEvidence.intersection();
+        final List<List<Future<BaseDepthEvidence>>> additionalFutures = Lists.newArrayList();
+        for (int i = 1; i < config.reference().size(); i++) {
+            additionalFutures.add(submitNormalDepth(readerFactory, config.referenceBamPath().get(i), primaryHetSites));
+        }
+
         for (int i = 1; i < config.reference().size(); i++) {
             final String sample = config.reference().get(i);
-            final String sampleBam = config.referenceBamPath().get(i);
-            final Collection<BaseDepth> additional = normalDepth(readerFactory, sampleBam, hetNormalEvidence.intersection()).values();
+            final Collection<BaseDepth> additional = normalDepth(additionalFutures.get(i - 1)).values()
+                    .stream()
+                    .filter(hetNormalEvidence.intersectionFilter())
+                    .collect(toList());
             final Predicate<BaseDepth> filter = new BaseDepthFilter(config.minDepthPercent(), config.maxDepthPercent(), additional);
             final Collection<BaseDepth> additionalHetNormal = additional.stream().filter(filter.and(heterozygousFilter)).collect(toList());
             hetNormalEvidence.add(sample, additionalHetNormal);
         }
 
         final Predicate<BaseDepth> intersectionFilter = hetNormalEvidence.intersectionFilter();
-        final ListMultimap<Chromosome, TumorBAF> tumorBAFMap = tumorBAF(readerFactory, filterEntries(hetNormal, intersectionFilter));
-        final List<TumorBAF> tumorBAFList = tumorBAFMap.values().stream().sorted().collect(toList());
+        final List<TumorEvidence> tumorEvidence = tumorEvidence(readerFactory, filterEntries(hetNormal, intersectionFilter), homNormal);
+        final List<TumorBAF> tumorBAFList = Lists.newArrayList();
+        final List<TumorContamination> contaminationList = Lists.newArrayList();
+        for (TumorEvidence evidence : tumorEvidence) {
+            tumorBAFList.addAll(evidence.bafEvidence());
+            contaminationList.addAll(evidence.contaminationEvidence());
+        }
+        Collections.sort(tumorBAFList);
         final List<AmberBAF> amberBAFList = tumorBAFList.stream().map(AmberBAF::create).filter(AmberApplication::isValid).collect(toList());
 
-        final ListMultimap<Chromosome, TumorContamination> tumorContamination = contamination(readerFactory, homNormal);
-        final List<TumorContamination> contaminationList = Lists.newArrayList(tumorContamination.values());
-
         persistence.persisQC(amberBAFList, contaminationList);
         persistence.persistVersionInfo(versionInfo);
         persistence.persistBafVcf(tumorBAFList, hetNormalEvidence);
@@ -189,26 +203,35 @@ public class AmberApplication implements AutoCloseable {
     @NotNull
     private ListMultimap<Chromosome, BaseDepth> normalDepth(final SamReaderFactory readerFactory, final String bamPath,
             final ListMultimap<Chromosome, AmberSite> bedRegionsSortedSet) throws InterruptedException, ExecutionException {
+        return normalDepth(submitNormalDepth(readerFactory, bamPath, bedRegionsSortedSet));
+    }
 
-        final int partitionSize = Math.max(config.minPartition(), bedRegionsSortedSet.size() / config.threadCount());
-
-        LOGGER.info("Processing {} potential sites in reference bam {}", bedRegionsSortedSet.values().size(), bamPath);
-        final AmberTaskCompletion completion = new AmberTaskCompletion();
-
-        final List<Future<BaseDepthEvidence>> futures = Lists.newArrayList();
-        for (final Chromosome contig : bedRegionsSortedSet.keySet()) {
-            for (final List<AmberSite> inner : Lists.partition(Lists.newArrayList(bedRegionsSortedSet.get(contig)), partitionSize)) {
-                final BaseDepthEvidence evidence = new BaseDepthEvidence(config.typicalReadDepth(),
-                        config.minMappingQuality(),
-                        config.minBaseQuality(),
-                        inner.get(0).chromosome(),
-                        bamPath,
-                        readerFactory,
-                        inner);
-                futures.add(executorService.submit(completion.task(evidence)));
-            }
+    @NotNull
+    private List<Future<BaseDepthEvidence>> submitNormalDepth(final SamReaderFactory readerFactory, final String bamPath,
+            final ListMultimap<Chromosome, AmberSite> bedRegionsSortedSet) {
+        final List<AmberPartition> partitions = partition(bedRegionsSortedSet);
+        LOGGER.info("Processing {} potential sites in {} partitions of reference bam {}",
+                bedRegionsSortedSet.values().size(),
+                partitions.size(),
+                bamPath);
+
+        final List<Callable<BaseDepthEvidence>> tasks = Lists.newArrayList();
+        for (final List<AmberSite> inner : AmberPartition.sites(partitions, bedRegionsSortedSet)) {
+            tasks.add(new BaseDepthEvidence(config.typicalReadDepth(),
+                    config.minMappingQuality(),
+                    config.minBaseQuality(),
+                    inner.get(0).chromosome(),
+                    bamPath,
+                    readerFactory,
+                    inner));
         }
 
+        return submitLongestFirst(partitions, tasks);
+    }
+
+    @NotNull
+    private static ListMultimap<Chromosome, BaseDepth> normalDepth(@NotNull final List<Future<BaseDepthEvidence>> futures)
+            throws InterruptedException, ExecutionException {
         final ListMultimap<Chromosome, BaseDepth> normalEvidence = ArrayListMultimap.create();
         getFuture(futures).forEach(x -> normalEvidence.putAll(HumanChromosome.fromString(x.contig()), x.evidence()));
         return normalEvidence;
@@ -227,63 +250,76 @@ public class AmberApplication implements AutoCloseable {
     @NotNull
     private ListMultimap<Chromosome, TumorBAF> tumorBAF(@NotNull final SamReaderFactory readerFactory,
             @NotNull final ListMultimap<Chromosome, BaseDepth> normalHetSites) throws ExecutionException, InterruptedException {
-        final int partitionSize = Math.max(config.minPartition(), normalHetSites.values().size() / config.threadCount());
-
-        LOGGER.info("Processing {} heterozygous sites in tumor bam {}", normalHetSites.values().size(), config.tumorBamPath());
-        final AmberTaskCompletion completion = new AmberTaskCompletion();
-
-        final List<Future<TumorBAFEvidence>> futures = Lists.newArrayList();
-        for (final Chromosome chromosome : normalHetSites.keySet()) {
-            for (final List<BaseDepth> chromosomeBafPoints : Lists.partition(normalHetSites.get(chromosome), partitionSize)) {
-                if (!chromosomeBafPoints.isEmpty()) {
-                    final String contig = chromosomeBafPoints.get(0).chromosome();
-                    final TumorBAFEvidence evidence = new TumorBAFEvidence(config.typicalReadDepth(),
-                            config.minMappingQuality(),
-                            config.minBaseQuality(),
-                            contig,
-                            config.tumorBamPath(),
-                            readerFactory,
-                            chromosomeBafPoints);
-                    futures.add(executorService.submit(completion.task(evidence)));
-                }
-            }
+        final List<AmberPartition> partitions = partition(normalHetSites);
+        LOGGER.info("Processing {} heterozygous sites in {} partitions of tumor bam {}",
+                normalHetSites.values().size(),
+                partitions.size(),
+                config.tumorBamPath());
+
+        final List<Callable<TumorBAFEvidence>> tasks = Lists.newArrayList();
+        for (final List<BaseDepth> chromosomeBafPoints : AmberPartition.sites(partitions, normalHetSites)) {
+            tasks.add(new TumorBAFEvidence(config.typicalReadDepth(),
+                    config.minMappingQuality(),
+                    config.minBaseQuality(),
+                    chromosomeBafPoints.get(0).chromosome(),
+                    config.tumorBamPath(),
+                    readerFactory,
+                    chromosomeBafPoints));
         }
 
         final ListMultimap<Chromosome, TumorBAF> result = ArrayListMultimap.create();
-        getFuture(futures).forEach(x -> result.putAll(HumanChromosome.fromString(x.contig()), x.evidence()));
+        getFuture(submitLongestFirst(partitions, tasks)).forEach(x -> result.putAll(HumanChromosome.fromString(x.contig()), x.evidence()));
 
         return result;
     }
 
     @NotNull
-    private ListMultimap<Chromosome, TumorContamination> contamination(@NotNull final SamReaderFactory readerFactory,
+    private List<TumorEvidence> tumorEvidence(@NotNull final SamReaderFactory readerFactory,
+            @NotNull final ListMultimap<Chromosome, BaseDepth> normalHetSites,
             @NotNull final ListMultimap<Chromosome, BaseDepth> normalHomSites) throws ExecutionException, InterruptedException {
-        final int partitionSize = Math.max(config.minPartition(), normalHomSites.values().size() / config.threadCount());
+        // Partition the heterozygous and homozygous sites together so that each part of the tumor is only read once
+        final List<AmberPartition> partitions = partition(normalHetSites, normalHomSites);
+        LOGGER.info("Processing {} heterozygous and {} homozygous sites in {} partitions of tumor bam {}",
+                normalHetSites.size(),
+                normalHomSites.size(),
+                partitions.size(),
+                config.tumorBamPath());
+
+        final List<List<BaseDepth>> hetSites = AmberPartition.sites(partitions, normalHetSites);
+        final List<List<BaseDepth>> homSites = AmberPartition.sites(partitions, normalHomSites);
+        final List<Callable<TumorEvidence>> tasks = Lists.newArrayList();
+        for (int i = 0; i < partitions.size(); i++) {
+            tasks.add(new TumorEvidence(config.typicalReadDepth(),
+                    config.minMappingQuality(),
+                    config.minBaseQuality(),
+                    partitions.get(i).contig(),
+                    config.tumorBamPath(),
+                    readerFactory,
+                    hetSites.get(i),
+                    homSites.get(i)));
+        }
+
+        return getFuture(submitLongestFirst(partitions, tasks));
+    }
 
-        LOGGER.info("Processing {} homozygous sites in tumor bam {} for contamination", normalHomSites.size(), config.tumorBamPath());
+    @NotNull
+    @SafeVarargs
+    private final List<AmberPartition> partition(@NotNull final ListMultimap<Chromosome, ? extends GenomePosition>... sites) {
+        return AmberPartition.partition(config.typicalReadDepth(), config.threadCount(), config.minPartition(), sites);
+    }
+
+    // Most expensive partitions are submitted first but the futures are returned in genomic order
+    @NotNull
+    private <T> List<Future<T>> submitLongestFirst(@NotNull final List<AmberPartition> partitions, @NotNull final List<Callable<T>> tasks) {
         final AmberTaskCompletion completion = new AmberTaskCompletion();
+        final List<Callable<T>> completionTasks = tasks.stream().map(completion::task).collect(toList());
 
-        final List<Future<TumorContaminationEvidence>> futures = Lists.newArrayList();
-        for (final Chromosome chromosome : normalHomSites.keySet()) {
-            for (final List<BaseDepth> chromosomeBafPoints : Lists.partition(normalHomSites.get(chromosome), partitionSize)) {
-                if (!chromosomeBafPoints.isEmpty()) {
-                    final String contig = chromosomeBafPoints.get(0).chromosome();
-                    final TumorContaminationEvidence evidence = new TumorContaminationEvidence(config.typicalReadDepth(),
-                            config.minMappingQuality(),
-                            config.minBaseQuality(),
-                            contig,
-                            config.tumorBamPath(),
-                            readerFactory,
-                            chromosomeBafPoints);
-                    futures.add(executorService.submit(completion.task(evidence)));
-                }
-            }
+        final List<Future<T>> futures = Lists.newArrayList(Collections.nCopies(tasks.size(), null));
+        for (int i : AmberPartition.longestFirst(partitions)) {
+            futures.set(i, executorService.submit(completionTasks.get(i)));
         }
 
-        final ListMultimap<Chromosome, TumorContamination> result = ArrayListMultimap.create();
-        getFuture(futures).forEach(x -> result.putAll(HumanChromosome.fromString(x.contig()), x.evidence()));
-
-        return result;
+        return futures;
     }
 
     @NotNull
@@ -0,0 +1,157 @@
+package com.hartwig.hmftools.amber;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.ListMultimap;
+import com.hartwig.hmftools.common.genome.chromosome.Chromosome;
+import com.hartwig.hmftools.common.genome.chromosome.HumanChromosome;
+import com.hartwig.hmftools.common.genome.position.GenomePosition;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * A range of sites on one contig that is sliced as a single task. Partitions are sized by the expected work rather than the number
+ * of sites. Work is measured in bases of read coverage. Each site adds the bases since the previous site, up to the span of reads
+ * overlapping it, plus a read length for its pileup. A site that starts a new slice region also pays for an index query.
+ */
+class AmberPartition {
+
+    static final int TASKS_PER_THREAD = 4;
+    static final int QUERY_COST = 1000;
+
+    private final String contig;
+    private final long start;
+    private final long end;
+    private final long cost;
+
+    private AmberPartition(@NotNull final String contig, long start, long end, long cost) {
+        this.contig = contig;
+        this.start = start;
+        this.end = end;
+        this.cost = cost;
+    }
+
+    @NotNull
+    String contig() {
+        return contig;
+    }
+
+    long start() {
+        return start;
+    }
+
+    long end() {
+        return end;
+    }
+
+    long cost() {
+        return cost;
+    }
+
+    /**
+     * Partitions the union of the sites in genomic order. Each contig is cut once its partition reaches an even share of the total
+     * cost over TASKS_PER_THREAD tasks per thread, but no partition is cheaper than minPartition sites of average cost.
+     */
+    @NotNull
+    @SafeVarargs
+    static List<AmberPartition> partition(int readLength, int threadCount, int minPartition,
+            @NotNull final ListMultimap<Chromosome, ? extends GenomePosition>... sites) {
+        final List<String> contigs = Lists.newArrayList();
+        final List<long[]> contigPositions = Lists.newArrayList();
+        final List<long[]> contigCosts = Lists.newArrayList();
+
+        long totalCost = 0;
+        int totalSites = 0;
+        for (HumanChromosome chromosome : HumanChromosome.values()) {
+            final List<GenomePosition> contigSites = Lists.newArrayList();
+            for (ListMultimap<Chromosome, ? extends GenomePosition> siteMap : sites) {
+                contigSites.addAll(siteMap.get(chromosome));
+            }
+            if (contigSites.isEmpty()) {
+                continue;
+            }
+
+            final long[] positions = contigSites.stream().mapToLong(GenomePosition::position).sorted().toArray();
+            final long[] costs = new long[positions.length];
+            for (int i = 0; i < positions.length; i++) {
+                final long gap = i == 0 ? Long.MAX_VALUE : positions[i] - positions[i - 1];
+                costs[i] = Math.min(gap, 2L * readLength) + readLength + (gap > readLength ? QUERY_COST : 0);
+                totalCost += costs[i];
+            }
+
+            contigs.add(contigSites.get(0).chromosome());
+            contigPositions.add(positions);
+            contigCosts.add(costs);
+            totalSites += positions.length;
+        }
+
+        if (totalSites == 0) {
+            return Lists.newArrayList();
+        }
+
+        final long targetCost = Math.max(totalCost / ((long) threadCount * TASKS_PER_THREAD), totalCost * minPartition / totalSites);
+
+        final List<AmberPartition> result = Lists.newArrayList();
+        for (int i = 0; i < contigs.size(); i++) {
+            final long[] positions = contigPositions.get(i);
+            final long[] costs = contigCosts.get(i);
+
+            int partitionStart = 0;
+            long partitionCost = 0;
+            for (int j = 0; j < positions.length; j++) {
+                partitionCost += costs[j];
+                final boolean last = j == positions.length - 1;
+                if (last || partitionCost >= targetCost && positions[j + 1] != positions[j]) {
+                    result.add(new AmberPartition(contigs.get(i), positions[partitionStart], positions[j], partitionCost));
+                    partitionStart = j + 1;
+                    partitionCost = 0;
+                }
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Indices of the partitions from the most to the least expensive, the order to submit them in so no long task starts last.
+     */
+    @NotNull
+    static int[] longestFirst(@NotNull final List<AmberPartition> partitions) {
+        return IntStream.range(0, partitions.size())
+                .boxed()
+                .sorted(Comparator.comparingLong((Integer i) -> partitions.get(i).cost()).reversed())
+                .mapToInt(Integer::intValue)
+                .toArray();
+    }
+
+    /**
+     * Splits sorted sites into the partitions, some of which may be empty when the partitions were built from other sites as well.
+     */
+    @NotNull
+    static <T extends GenomePosition> List<List<T>> sites(@NotNull final List<AmberPartition> partitions,
+            @NotNull final ListMultimap<Chromosome, T> sites) {
+        final List<List<T>> result = Lists.newArrayListWithCapacity(partitions.size());
+
+        List<T> contigSites = null;
+        String contig = null;
+        int index = 0;
+        for (AmberPartition partition : partitions) {
+            if (!partition.contig().equals(contig)) {
+                contig = partition.contig();
+                contigSites = sites.get(HumanChromosome.fromString(contig));
+                index = 0;
+            }
+
+            final int fromIndex = index;
+            while (index < contigSites.size() && contigSites.get(index).position() <= partition.end()) {
+                index++;
+            }
+            result.add(contigSites.subList(fromIndex, index));
+        }
+
+        return result;
+    }
+}
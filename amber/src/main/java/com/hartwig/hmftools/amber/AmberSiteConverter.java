@@ -0,0 +1,56 @@
+package com.hartwig.hmftools.amber;
+
+import java.io.IOException;
+
+import com.google.common.collect.ListMultimap;
+import com.hartwig.hmftools.common.amber.AmberSite;
+import com.hartwig.hmftools.common.amber.AmberSiteFactory;
+import com.hartwig.hmftools.common.amber.AmberSiteFile;
+import com.hartwig.hmftools.common.genome.chromosome.Chromosome;
+
+import org.apache.commons.cli.CommandLine;
+import org.apache.commons.cli.DefaultParser;
+import org.apache.commons.cli.HelpFormatter;
+import org.apache.commons.cli.Options;
+import org.apache.commons.cli.ParseException;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Converts the BAF loci vcf into the binary site file that AMBER loads in place of the vcf.
+ */
+public class AmberSiteConverter {
+
+    private static final Logger LOGGER = LogManager.getLogger(AmberSiteConverter.class);
+
+    private static final String OUTPUT_FILE = "output_file";
+
+    public static void main(final String... args) throws IOException {
+        final Options options = new Options();
+        options.addOption(AmberConfig.BAF_LOCI, true, "Path to BAF loci vcf file");
+        options.addOption(OUTPUT_FILE, true, "Path to the site file, ending in " + AmberSiteFile.EXTENSION);
+
+        try {
+            final CommandLine cmd = new DefaultParser().parse(options, args);
+            if (!cmd.hasOption(AmberConfig.BAF_LOCI) || !cmd.hasOption(OUTPUT_FILE)) {
+                throw new ParseException(AmberConfig.BAF_LOCI + " and " + OUTPUT_FILE + " are mandatory arguments");
+            }
+
+            final String outputFile = cmd.getOptionValue(OUTPUT_FILE);
+            if (!AmberSiteFile.isSiteFile(outputFile)) {
+                throw new ParseException(OUTPUT_FILE + " must end in " + AmberSiteFile.EXTENSION);
+            }
+
+            LOGGER.info("Loading vcf file {}", cmd.getOptionValue(AmberConfig.BAF_LOCI));
+            final ListMultimap<Chromosome, AmberSite> sites = AmberSiteFactory.sites(cmd.getOptionValue(AmberConfig.BAF_LOCI));
+
+            LOGGER.info("Writing {} sites to {}", sites.size(), outputFile);
+            AmberSiteFile.write(outputFile, sites);
+        } catch (ParseException e) {
+            LOGGER.warn(e);
+            final HelpFormatter formatter = new HelpFormatter();
+            formatter.printHelp("AmberSiteConverter", options);
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package com.hartwig.hmftools.amber;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.ListMultimap;
+import com.google.common.collect.Lists;
+import com.hartwig.hmftools.common.genome.chromosome.Chromosome;
+import com.hartwig.hmftools.common.genome.chromosome.HumanChromosome;
+import com.hartwig.hmftools.common.genome.position.GenomePosition;
+import com.hartwig.hmftools.common.genome.position.GenomePositions;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.Test;
+
+public class AmberPartitionTest {
+
+    private static final int READ_LENGTH = 150;
+
+    @Test
+    public void testEverySiteInExactlyOnePartitionInOrder() {
+        final Random random = new Random(0);
+        final ListMultimap<Chromosome, GenomePosition> het = ArrayListMultimap.create();
+        final ListMultimap<Chromosome, GenomePosition> hom = ArrayListMultimap.create();
+        for (HumanChromosome chromosome : Arrays.asList(HumanChromosome._1, HumanChromosome._2, HumanChromosome._10)) {
+            long position = 0;
+            for (int i = 0; i < 1000; i++) {
+                position += 1 + random.nextInt(2000);
+                (random.nextBoolean() ? het : hom).put(chromosome, GenomePositions.create(chromosome.toString(), position));
+            }
+        }
+
+        final List<AmberPartition> partitions = AmberPartition.partition(READ_LENGTH, 4, 10, het, hom);
+        assertTrue(partitions.size() > 3);
+        for (int i = 1; i < partitions.size(); i++) {
+            final AmberPartition previous = partitions.get(i - 1);
+            final AmberPartition current = partitions.get(i);
+            assertTrue(current.start() <= current.end());
+            if (current.contig().equals(previous.contig())) {
+                assertTrue(current.start() > previous.end());
+            } else {
+                final HumanChromosome currentChromosome = HumanChromosome.fromString(current.contig());
+                assertTrue(currentChromosome.ordinal() > HumanChromosome.fromString(previous.contig()).ordinal());
+            }
+        }
+
+        assertPartitioned(partitions, het);
+        assertPartitioned(partitions, hom);
+    }
+
+    @Test
+    public void testNoCutBetweenEqualPositions() {
+        final ListMultimap<Chromosome, GenomePosition> het = ArrayListMultimap.create();
+        final ListMultimap<Chromosome, GenomePosition> hom = ArrayListMultimap.create();
+        for (int i = 1; i <= 100; i++) {
+            het.put(HumanChromosome._1, GenomePositions.create("1", i * 1000));
+            hom.put(HumanChromosome._1, GenomePositions.create("1", i * 1000));
+        }
+
+        // A target of a single site would cut between the het and hom site at each position if allowed
+        final List<AmberPartition> partitions = AmberPartition.partition(READ_LENGTH, 1000, 1, het, hom);
+        assertEquals(100, partitions.size());
+
+        final List<List<GenomePosition>> hetSites = AmberPartition.sites(partitions, het);
+        final List<List<GenomePosition>> homSites = AmberPartition.sites(partitions, hom);
+        for (int i = 0; i < partitions.size(); i++) {
+            assertEquals(partitions.get(i).start(), partitions.get(i).end());
+            assertEquals(1, hetSites.get(i).size());
+            assertEquals(1, homSites.get(i).size());
+            assertEquals(hetSites.get(i).get(0).position(), homSites.get(i).get(0).position());
+        }
+    }
+
+    @Test
+    public void testEmptySitesWhereMapHasNoneInPartition() {
+        final ListMultimap<Chromosome, GenomePosition> het = ArrayListMultimap.create();
+        final ListMultimap<Chromosome, GenomePosition> hom = ArrayListMultimap.create();
+        for (int i = 1; i <= 100; i++) {
+            het.put(HumanChromosome._1, GenomePositions.create("1", i * 1000));
+            hom.put(HumanChromosome._2, GenomePositions.create("2", i * 1000));
+        }
+        hom.put(HumanChromosome._3, GenomePositions.create("3", 1000));
+
+        final List<AmberPartition> partitions = AmberPartition.partition(READ_LENGTH, 2, 10, het, hom);
+        final List<List<GenomePosition>> hetSites = AmberPartition.sites(partitions, het);
+        final List<List<GenomePosition>> homSites = AmberPartition.sites(partitions, hom);
+        assertEquals(partitions.size(), hetSites.size());
+        assertEquals(partitions.size(), homSites.size());
+
+        for (int i = 0; i < partitions.size(); i++) {
+            final boolean first = partitions.get(i).contig().equals("1");
+            assertEquals(first, !hetSites.get(i).isEmpty());
+            assertEquals(first, homSites.get(i).isEmpty());
+        }
+
+        assertPartitioned(partitions, het);
+        assertPartitioned(partitions, hom);
+    }
+
+    @Test
+    public void testMinPartitionFloor() {
+        final ListMultimap<Chromosome, GenomePosition> sites = ArrayListMultimap.create();
+        for (int i = 1; i <= 500; i++) {
+            sites.put(HumanChromosome._1, GenomePositions.create("1", i * 1000));
+        }
+
+        // Evenly spaced sites all cost the same so the floor is an exact number of sites
+        final List<AmberPartition> unbounded = AmberPartition.partition(READ_LENGTH, 1000, 1, sites);
+        assertEquals(500, unbounded.size());
+
+        final List<AmberPartition> bounded = AmberPartition.partition(READ_LENGTH, 1000, 50, sites);
+        assertEquals(10, bounded.size());
+        for (List<GenomePosition> partition : AmberPartition.sites(bounded, sites)) {
+            assertEquals(50, partition.size());
+        }
+
+        // The floor does not apply when the thread target is already larger
+        final List<AmberPartition> threadBound = AmberPartition.partition(READ_LENGTH, 1, 50, sites);
+        assertEquals(AmberPartition.TASKS_PER_THREAD, threadBound.size());
+    }
+
+    @Test
+    public void testLongestFirst() {
+        final Random random = new Random(1);
+        final ListMultimap<Chromosome, GenomePosition> sites = ArrayListMultimap.create();
+        for (HumanChromosome chromosome : Arrays.asList(HumanChromosome._1, HumanChromosome._2, HumanChromosome._3)) {
+            final int count = 100 + random.nextInt(1000);
+            long position = 0;
+            for (int i = 0; i < count; i++) {
+                position += 1 + random.nextInt(random.nextBoolean() ? 100 : 5000);
+                sites.put(chromosome, GenomePositions.create(chromosome.toString(), position));
+            }
+        }
+
+        final List<AmberPartition> partitions = AmberPartition.partition(READ_LENGTH, 8, 10, sites);
+        final int[] order = AmberPartition.longestFirst(partitions);
+        assertEquals(partitions.size(), order.length);
+
+        final int[] sorted = order.clone();
+        Arrays.sort(sorted);
+        for (int i = 0; i < sorted.length; i++) {
+            assertEquals(i, sorted[i]);
+        }
+
+        for (int i = 1; i < order.length; i++) {
+            assertTrue(partitions.get(order[i - 1]).cost() >= partitions.get(order[i]).cost());
+        }
+    }
+
+    private static void assertPartitioned(@NotNull final List<AmberPartition> partitions,
+            @NotNull final ListMultimap<Chromosome, GenomePosition> sites) {
+        final List<List<GenomePosition>> partitionSites = AmberPartition.sites(partitions, sites);
+        assertEquals(partitions.size(), partitionSites.size());
+
+        final List<GenomePosition> joined = Lists.newArrayList();
+        for (int i = 0; i < partitions.size(); i++) {
+            final AmberPartition partition = partitions.get(i);
+            for (GenomePosition site : partitionSites.get(i)) {
+                assertEquals(partition.contig(), site.chromosome());
+                assertTrue(site.position() >= partition.start() && site.position() <= partition.end());
+                joined.add(site);
+            }
+        }
+
+        final List<GenomePosition> expected = Lists.newArrayList();
+        for (HumanChromosome chromosome : HumanChromosome.values()) {
+            expected.addAll(sites.get(chromosome));
+        }
+        assertEquals(expected, joined);
+    }
+}
@@ -0,0 +1,125 @@
+package com.hartwig.hmftools.common.amber;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.ListMultimap;
+import com.google.common.collect.Lists;
+import com.hartwig.hmftools.common.genome.chromosome.Chromosome;
+import com.hartwig.hmftools.common.genome.chromosome.HumanChromosome;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Compact binary form of the AMBER loci. A header of contig names and site counts is followed by 7 bytes per site: the position,
+ * the ref and alt bases and the SNPCHECK flag. The file is memory mapped on load and the ref, alt and contig strings are shared.
+ */
+public final class AmberSiteFile {
+
+    public static final String EXTENSION = ".amber.sites";
+
+    private static final int MAGIC = 0x414D4252;
+    private static final int VERSION = 1;
+    private static final String[] BASES = new String[128];
+
+    static {
+        for (char base : "ACGTN".toCharArray()) {
+            BASES[base] = String.valueOf(base);
+        }
+    }
+
+    private AmberSiteFile() {
+    }
+
+    public static boolean isSiteFile(@NotNull final String filename) {
+        return filename.endsWith(EXTENSION);
+    }
+
+    public static void write(@NotNull final String filename, @NotNull final ListMultimap<Chromosome, AmberSite> sites) throws IOException {
+        final List<List<AmberSite>> contigs = Lists.newArrayList();
+        for (HumanChromosome chromosome : HumanChromosome.values()) {
+            if (sites.containsKey(chromosome)) {
+                contigs.add(sites.get(chromosome));
+            }
+        }
+
+        try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(filename)))) {
+            output.writeInt(MAGIC);
+            output.writeInt(VERSION);
+            output.writeInt(contigs.size());
+            for (List<AmberSite> contig : contigs) {
+                output.writeUTF(contig.get(0).chromosome());
+                output.writeInt(contig.size());
+            }
+
+            for (List<AmberSite> contig : contigs) {
+                for (AmberSite site : contig) {
+                    if (site.position() > Integer.MAX_VALUE) {
+                        throw new IOException("Position of site " + site.chromosome() + ":" + site.position() + " is out of range");
+                    }
+                    output.writeInt((int) site.position());
+                    output.writeByte(base(site, site.ref()));
+                    output.writeByte(base(site, site.alt()));
+                    output.writeBoolean(site.snpCheck());
+                }
+            }
+        }
+    }
+
+    @NotNull
+    public static ListMultimap<Chromosome, AmberSite> read(@NotNull final String filename) throws IOException {
+        final ByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(Paths.get(filename), StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+
+        if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+            throw new IOException("File " + filename + " is not an AMBER site file");
+        }
+
+        final int contigCount = buffer.getInt();
+        final String[] contigs = new String[contigCount];
+        final int[] siteCounts = new int[contigCount];
+        for (int i = 0; i < contigCount; i++) {
+            final byte[] name = new byte[buffer.getShort() & 0xFFFF];
+            buffer.get(name);
+            contigs[i] = new String(name, StandardCharsets.UTF_8);
+            siteCounts[i] = buffer.getInt();
+        }
+
+        final ListMultimap<Chromosome, AmberSite> result = ArrayListMultimap.create();
+        for (int i = 0; i < contigCount; i++) {
+            final String contig = contigs[i];
+            final List<AmberSite> sites = Lists.newArrayListWithCapacity(siteCounts[i]);
+            for (int j = 0; j < siteCounts[i]; j++) {
+                sites.add(ImmutableAmberSite.builder()
+                        .chromosome(contig)
+                        .position(buffer.getInt())
+                        .ref(BASES[buffer.get()])
+                        .alt(BASES[buffer.get()])
+                        .snpCheck(buffer.get() != 0)
+                        .build());
+            }
+            result.putAll(HumanChromosome.fromString(contig), sites);
+        }
+
+        return result;
+    }
+
+    private static byte base(@NotNull final AmberSite site, @NotNull final String base) throws IOException {
+        final char value = base.isEmpty() ? 0 : base.charAt(0);
+        if (base.length() != 1 || value >= BASES.length || BASES[value] == null) {
+            throw new IOException("Site " + site.chromosome() + ":" + site.position() + " is not a single base substitution");
+        }
+        return (byte) value;
+    }
+}
@@ -6,12 +6,8 @@ import java.util.List;
 import java.util.concurrent.Callable;
 import java.util.stream.Collectors;
 
-import com.hartwig.hmftools.common.genome.position.GenomePositionSelector;
-import com.hartwig.hmftools.common.genome.position.GenomePositionSelectorFactory;
 import com.hartwig.hmftools.common.genome.region.GenomeRegion;
-import com.hartwig.hmftools.common.genome.region.GenomeRegions;
 import com.hartwig.hmftools.common.genome.region.GenomeRegionsBuilder;
-import com.hartwig.hmftools.common.utils.collection.Multimaps;
 import com.hartwig.hmftools.common.variant.hotspot.SAMSlicer;
 
 import org.jetbrains.annotations.NotNull;
@@ -26,13 +22,11 @@ public class BaseDepthEvidence implements Callable<BaseDepthEvidence> {
     private final String bamFile;
     private final SamReaderFactory samReaderFactory;
     private final List<ModifiableBaseDepth> evidence;
-    private final GenomePositionSelector<ModifiableBaseDepth> selector;
-    private final BaseDepthFactory bafFactory;
+    private final SitePileup pileup;
     private final SAMSlicer supplier;
 
     public BaseDepthEvidence(int typicalReadDepth, int minMappingQuality, int minBaseQuality, final String contig, final String bamFile,
             final SamReaderFactory samReaderFactory, final List<AmberSite> bafRegions) {
-        this.bafFactory = new BaseDepthFactory(minBaseQuality);
         this.contig = contig;
         this.bamFile = bamFile;
         this.samReaderFactory = samReaderFactory;
@@ -41,7 +35,7 @@ public class BaseDepthEvidence implements Callable<BaseDepthEvidence> {
         final List<GenomeRegion> bafRegions1 = builder.build();
 
         this.evidence = bafRegions.stream().map(BaseDepthFactory::fromAmberSite).collect(Collectors.toList());
-        this.selector = GenomePositionSelectorFactory.create(Multimaps.fromPositions(evidence));
+        this.pileup = new SitePileup(minBaseQuality, true, evidence);
         this.supplier = new SAMSlicer(minMappingQuality, bafRegions1);
     }
 
@@ -52,6 +46,13 @@ public class BaseDepthEvidence implements Callable<BaseDepthEvidence> {
 
     @NotNull
     public List<BaseDepth> evidence() {
+        for (int i = 0; i < evidence.size(); i++) {
+            evidence.get(i)
+                    .setReadDepth(pileup.readDepth[i])
+                    .setRefSupport(pileup.refSupport[i])
+                    .setAltSupport(pileup.altSupport[i])
+                    .setIndelCount(pileup.indelCount[i]);
+        }
         return new ArrayList<>(evidence);
     }
 
@@ -65,11 +66,6 @@ public class BaseDepthEvidence implements Callable<BaseDepthEvidence> {
     }
 
     private void record(@NotNull final SAMRecord record) {
-        selector.select(asRegion(record), bafEvidence -> bafFactory.addEvidence(bafEvidence, record));
-    }
-
-    @NotNull
-    private static GenomeRegion asRegion(@NotNull final SAMRecord record) {
-        return GenomeRegions.create(record.getContig(), record.getAlignmentStart(), record.getAlignmentEnd());
+        pileup.accept(record);
     }
 }
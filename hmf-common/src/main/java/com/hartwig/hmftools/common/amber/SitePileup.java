@@ -0,0 +1,113 @@
+package com.hartwig.hmftools.common.amber;
+
+import java.util.List;
+
+import org.jetbrains.annotations.NotNull;
+
+import htsjdk.samtools.SAMRecord;
+
+/**
+ * Pileup of reads over the sorted sites of a single contig into primitive counters. A pointer to the first site at or after the
+ * alignment start is carried from read to read so, with reads in alignment start order, each read only visits the sites it covers.
+ * The counting matches BaseDepthFactory and TumorBAFFactory without any allocation per read or site.
+ */
+class SitePileup {
+
+    private static final int PHRED_OFFSET = 33;
+
+    private final int minBaseQuality;
+    private final boolean upperCaseBases;
+    private final int[] positions;
+    private final byte[] refs;
+    private final byte[] alts;
+
+    final int[] readDepth;
+    final int[] refSupport;
+    final int[] altSupport;
+    final int[] altQuality;
+    final int[] indelCount;
+
+    private int startIndex = 0;
+
+    SitePileup(int minBaseQuality, boolean upperCaseBases, @NotNull final List<? extends BaseDepth> sites) {
+        this.minBaseQuality = minBaseQuality;
+        this.upperCaseBases = upperCaseBases;
+        this.positions = new int[sites.size()];
+        this.refs = new byte[sites.size()];
+        this.alts = new byte[sites.size()];
+        for (int i = 0; i < sites.size(); i++) {
+            final BaseDepth site = sites.get(i);
+            positions[i] = (int) site.position();
+            refs[i] = (byte) site.ref().name().charAt(0);
+            alts[i] = (byte) site.alt().name().charAt(0);
+        }
+
+        this.readDepth = new int[positions.length];
+        this.refSupport = new int[positions.length];
+        this.altSupport = new int[positions.length];
+        this.altQuality = new int[positions.length];
+        this.indelCount = new int[positions.length];
+    }
+
+    void accept(@NotNull final SAMRecord record) {
+        final int alignmentStart = record.getAlignmentStart();
+        final int alignmentEnd = record.getAlignmentEnd();
+
+        while (startIndex > 0 && positions[startIndex - 1] >= alignmentStart) {
+            startIndex--;
+        }
+
+        while (startIndex < positions.length && positions[startIndex] < alignmentStart) {
+            startIndex++;
+        }
+
+        for (int i = startIndex; i < positions.length && positions[i] <= alignmentEnd; i++) {
+            accept(i, record, alignmentEnd);
+        }
+    }
+
+    private void accept(int site, @NotNull final SAMRecord record, int alignmentEnd) {
+        final int position = positions[site];
+        final int quality = baseQuality(position, record, alignmentEnd);
+        if (quality < minBaseQuality) {
+            return;
+        }
+
+        readDepth[site]++;
+        final int readPosition = record.getReadPositionAtReferencePosition(position);
+        if (readPosition == 0) {
+            return;
+        }
+
+        if (BaseDepthFactory.indel(position, readPosition, record)) {
+            indelCount[site]++;
+            return;
+        }
+
+        final byte readBase = record.getReadBases()[readPosition - 1];
+        final byte base = upperCaseBases ? (byte) Character.toUpperCase(readBase) : readBase;
+        if (base == refs[site]) {
+            refSupport[site]++;
+        } else if (base == alts[site]) {
+            altSupport[site]++;
+            altQuality[site] += quality;
+        }
+    }
+
+    // Quality of the base at the position, or the first aligned base after it within a delete
+    private static int baseQuality(int position, @NotNull final SAMRecord record, int alignmentEnd) {
+        for (int pos = position; pos <= alignmentEnd; pos++) {
+            int readPosition = record.getReadPositionAtReferencePosition(pos);
+            if (readPosition != 0) {
+                final byte[] qualities = record.getBaseQualities();
+                if (qualities.length == 0) {
+                    // Missing qualities read as the single '*' character
+                    return readPosition == 1 ? '*' - PHRED_OFFSET : 0;
+                }
+                return readPosition <= qualities.length ? qualities[readPosition - 1] : 0;
+            }
+        }
+
+        return 0;
+    }
+}
@@ -5,12 +5,8 @@ import java.util.List;
 import java.util.concurrent.Callable;
 import java.util.stream.Collectors;
 
-import com.hartwig.hmftools.common.genome.position.GenomePositionSelector;
-import com.hartwig.hmftools.common.genome.position.GenomePositionSelectorFactory;
 import com.hartwig.hmftools.common.genome.region.GenomeRegion;
-import com.hartwig.hmftools.common.genome.region.GenomeRegions;
 import com.hartwig.hmftools.common.genome.region.GenomeRegionsBuilder;
-import com.hartwig.hmftools.common.utils.collection.Multimaps;
 import com.hartwig.hmftools.common.variant.hotspot.SAMSlicer;
 
 import org.jetbrains.annotations.NotNull;
@@ -23,15 +19,14 @@ public class TumorBAFEvidence implements Callable<TumorBAFEvidence> {
 
     private final String contig;
     private final String bamFile;
-    private final TumorBAFFactory bafFactory;
     private final List<ModifiableTumorBAF> evidence;
     private final SamReaderFactory samReaderFactory;
-    private final GenomePositionSelector<ModifiableTumorBAF> selector;
-    private final SAMSlicer supplier;
+    private final SitePileup pileup;
+    private final List<GenomeRegion> bafRegions;
+    private final int minMappingQuality;
 
     public TumorBAFEvidence(int typicalReadDepth, int minMappingQuality, int minBaseQuality, final String contig, final String bamFile,
             final SamReaderFactory samReaderFactory, final List<BaseDepth> baseDepths) {
-        this.bafFactory = new TumorBAFFactory(minBaseQuality);
         this.contig = contig;
         this.bamFile = bamFile;
         this.samReaderFactory = samReaderFactory;
@@ -41,10 +36,10 @@ public class TumorBAFEvidence implements Callable<TumorBAFEvidence> {
             builder.addPosition(bafRegion);
         }
 
-        final List<GenomeRegion> bafRegions = builder.build();
+        this.bafRegions = builder.build();
         this.evidence = baseDepths.stream().map(TumorBAFFactory::create).collect(Collectors.toList());
-        this.selector = GenomePositionSelectorFactory.create(Multimaps.fromPositions(evidence));
-        this.supplier = new SAMSlicer(minMappingQuality, bafRegions);
+        this.pileup = new SitePileup(minBaseQuality, false, baseDepths);
+        this.minMappingQuality = minMappingQuality;
     }
 
     @NotNull
@@ -54,24 +49,32 @@ public class TumorBAFEvidence implements Callable<TumorBAFEvidence> {
 
     @NotNull
     public List<TumorBAF> evidence() {
+        for (int i = 0; i < evidence.size(); i++) {
+            evidence.get(i)
+                    .setTumorReadDepth(pileup.readDepth[i])
+                    .setTumorRefSupport(pileup.refSupport[i])
+                    .setTumorAltSupport(pileup.altSupport[i])
+                    .setTumorAltQuality(pileup.altQuality[i])
+                    .setTumorIndelCount(pileup.indelCount[i]);
+        }
         return evidence.stream().filter(x -> x.tumorIndelCount() == 0).collect(Collectors.toList());
     }
 
     @Override
     public TumorBAFEvidence call() throws Exception {
         try (SamReader reader = samReaderFactory.open(new File(bamFile))) {
-            supplier.slice(reader, this::record);
+            new SAMSlicer(minMappingQuality, bafRegions).slice(reader, this::record);
         }
 
         return this;
     }
 
-    private void record(@NotNull final SAMRecord record) {
-        selector.select(asRegion(record), bafEvidence -> bafFactory.addEvidence(bafEvidence, record));
+    @NotNull
+    List<GenomeRegion> regions() {
+        return bafRegions;
     }
 
-    @NotNull
-    private static GenomeRegion asRegion(@NotNull final SAMRecord record) {
-        return GenomeRegions.create(record.getContig(), record.getAlignmentStart(), record.getAlignmentEnd());
+    void record(@NotNull final SAMRecord record) {
+        pileup.accept(record);
     }
 }
@@ -7,10 +7,7 @@ import java.util.concurrent.Callable;
 
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
-import com.hartwig.hmftools.common.genome.position.GenomePositionSelector;
-import com.hartwig.hmftools.common.genome.position.GenomePositionSelectorFactory;
 import com.hartwig.hmftools.common.genome.region.GenomeRegion;
-import com.hartwig.hmftools.common.genome.region.GenomeRegions;
 import com.hartwig.hmftools.common.genome.region.GenomeRegionsBuilder;
 import com.hartwig.hmftools.common.variant.hotspot.SAMSlicer;
 
@@ -26,29 +23,30 @@ public class TumorContaminationEvidence implements Callable<TumorContaminationEv
     private final String bamFile;
     private final SamReaderFactory samReaderFactory;
     private final Map<BaseDepth, ModifiableBaseDepth> evidenceMap;
-    private final GenomePositionSelector<ModifiableBaseDepth> selector;
-    private final BaseDepthFactory bafFactory;
-    private final SAMSlicer supplier;
+    private final List<ModifiableBaseDepth> tumorRecords;
+    private final SitePileup pileup;
+    private final List<GenomeRegion> regions;
+    private final int minMappingQuality;
 
     public TumorContaminationEvidence(int typicalReadDepth, int minMappingQuality, int minBaseQuality, final String contig,
             final String bamFile, final SamReaderFactory samReaderFactory, final List<BaseDepth> baseDepths) {
-        this.bafFactory = new BaseDepthFactory(minBaseQuality);
         this.contig = contig;
         this.bamFile = bamFile;
         this.samReaderFactory = samReaderFactory;
         this.evidenceMap = Maps.newHashMap();
 
-        final List<ModifiableBaseDepth> tumorRecords = Lists.newArrayList();
+        this.tumorRecords = Lists.newArrayList();
         for (BaseDepth baseDepth : baseDepths) {
             ModifiableBaseDepth modifiableBaseDepth = BaseDepthFactory.create(baseDepth);
             evidenceMap.put(baseDepth, modifiableBaseDepth);
             tumorRecords.add(modifiableBaseDepth);
         }
-        this.selector = GenomePositionSelectorFactory.create(tumorRecords);
+        this.pileup = new SitePileup(minBaseQuality, true, tumorRecords);
 
         final GenomeRegionsBuilder builder = new GenomeRegionsBuilder(typicalReadDepth);
         baseDepths.forEach(builder::addPosition);
-        this.supplier = new SAMSlicer(minMappingQuality, builder.build());
+        this.regions = builder.build();
+        this.minMappingQuality = minMappingQuality;
     }
 
     @NotNull
@@ -58,6 +56,14 @@ public class TumorContaminationEvidence implements Callable<TumorContaminationEv
 
     @NotNull
     public List<TumorContamination> evidence() {
+        for (int i = 0; i < tumorRecords.size(); i++) {
+            tumorRecords.get(i)
+                    .setReadDepth(pileup.readDepth[i])
+                    .setRefSupport(pileup.refSupport[i])
+                    .setAltSupport(pileup.altSupport[i])
+                    .setIndelCount(pileup.indelCount[i]);
+        }
+
         final List<TumorContamination> result = Lists.newArrayList();
         for (final Map.Entry<BaseDepth, ModifiableBaseDepth> entry : evidenceMap.entrySet()) {
             final BaseDepth normal = entry.getKey();
@@ -73,18 +79,18 @@ public class TumorContaminationEvidence implements Callable<TumorContaminationEv
     @Override
     public TumorContaminationEvidence call() throws Exception {
         try (SamReader reader = samReaderFactory.open(new File(bamFile))) {
-            supplier.slice(reader, this::record);
+            new SAMSlicer(minMappingQuality, regions).slice(reader, this::record);
         }
 
         return this;
     }
 
-    private void record(@NotNull final SAMRecord record) {
-        selector.select(asRegion(record), bafEvidence -> bafFactory.addEvidence(bafEvidence, record));
+    @NotNull
+    List<GenomeRegion> regions() {
+        return regions;
     }
 
-    @NotNull
-    private static GenomeRegion asRegion(@NotNull final SAMRecord record) {
-        return GenomeRegions.create(record.getContig(), record.getAlignmentStart(), record.getAlignmentEnd());
+    void record(@NotNull final SAMRecord record) {
+        pileup.accept(record);
     }
 }
@@ -0,0 +1,78 @@
+package com.hartwig.hmftools.common.amber;
+
+import java.io.File;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+import com.google.common.collect.Lists;
+import com.hartwig.hmftools.common.genome.region.GenomeRegion;
+import com.hartwig.hmftools.common.variant.hotspot.SAMSlicer;
+
+import org.jetbrains.annotations.NotNull;
+
+import htsjdk.samtools.SAMRecord;
+import htsjdk.samtools.SamReader;
+import htsjdk.samtools.SamReaderFactory;
+
+/**
+ * Collects the tumor BAF evidence at heterozygous sites and the contamination evidence at homozygous sites in one pass of the tumor bam.
+ * Each record is handed to both so the results are the same as slicing for each separately.
+ */
+public class TumorEvidence implements Callable<TumorEvidence> {
+
+    private final String contig;
+    private final String bamFile;
+    private final SamReaderFactory samReaderFactory;
+    private final TumorBAFEvidence bafEvidence;
+    private final TumorContaminationEvidence contaminationEvidence;
+    private final int minMappingQuality;
+
+    public TumorEvidence(int typicalReadDepth, int minMappingQuality, int minBaseQuality, final String contig, final String bamFile,
+            final SamReaderFactory samReaderFactory, final List<BaseDepth> hetSites, final List<BaseDepth> homSites) {
+        this.contig = contig;
+        this.bamFile = bamFile;
+        this.samReaderFactory = samReaderFactory;
+        this.minMappingQuality = minMappingQuality;
+        this.bafEvidence =
+                new TumorBAFEvidence(typicalReadDepth, minMappingQuality, minBaseQuality, contig, bamFile, samReaderFactory, hetSites);
+        this.contaminationEvidence = new TumorContaminationEvidence(typicalReadDepth,
+                minMappingQuality,
+                minBaseQuality,
+                contig,
+                bamFile,
+                samReaderFactory,
+                homSites);
+    }
+
+    @NotNull
+    public String contig() {
+        return contig;
+    }
+
+    @NotNull
+    public List<TumorBAF> bafEvidence() {
+        return bafEvidence.evidence();
+    }
+
+    @NotNull
+    public List<TumorContamination> contaminationEvidence() {
+        return contaminationEvidence.evidence();
+    }
+
+    @Override
+    public TumorEvidence call() throws Exception {
+        final List<GenomeRegion> regions = Lists.newArrayList(bafEvidence.regions());
+        regions.addAll(contaminationEvidence.regions());
+
+        try (SamReader reader = samReaderFactory.open(new File(bamFile))) {
+            new SAMSlicer(minMappingQuality, regions).slice(reader, this::record);
+        }
+
+        return this;
+    }
+
+    private void record(@NotNull final SAMRecord record) {
+        bafEvidence.record(record);
+        contaminationEvidence.record(record);
+    }
+}
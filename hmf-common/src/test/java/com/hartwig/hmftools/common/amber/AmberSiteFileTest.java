@@ -0,0 +1,63 @@
+package com.hartwig.hmftools.common.amber;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Random;
+
+import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.ListMultimap;
+import com.hartwig.hmftools.common.genome.chromosome.Chromosome;
+import com.hartwig.hmftools.common.genome.chromosome.HumanChromosome;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.Test;
+
+public class AmberSiteFileTest {
+
+    @Test
+    public void testReadWrite() throws IOException {
+        final Random random = new Random(0);
+        final ListMultimap<Chromosome, AmberSite> sites = ArrayListMultimap.create();
+        for (String contig : new String[] { "1", "10", "X" }) {
+            long position = 0;
+            for (int i = 0; i < 1000; i++) {
+                position += 1 + random.nextInt(1000);
+                sites.put(HumanChromosome.fromString(contig), site(contig, position, random));
+            }
+        }
+
+        final File file = File.createTempFile("loci", AmberSiteFile.EXTENSION);
+        file.deleteOnExit();
+        AmberSiteFile.write(file.getPath(), sites);
+
+        assertTrue(AmberSiteFile.isSiteFile(file.getPath()));
+        assertEquals(sites, AmberSiteFactory.sites(file.getPath()));
+    }
+
+    @Test(expected = IOException.class)
+    public void testRejectIndel() throws IOException {
+        final ListMultimap<Chromosome, AmberSite> sites = ArrayListMultimap.create();
+        sites.put(HumanChromosome._1,
+                ImmutableAmberSite.builder().chromosome("1").position(100).ref("AT").alt("A").snpCheck(false).build());
+
+        final File file = File.createTempFile("loci", AmberSiteFile.EXTENSION);
+        file.deleteOnExit();
+        AmberSiteFile.write(file.getPath(), sites);
+    }
+
+    @NotNull
+    private static AmberSite site(@NotNull final String contig, long position, @NotNull final Random random) {
+        final String ref = String.valueOf("ACGT".charAt(random.nextInt(4)));
+        final String alt = String.valueOf("ACGT".charAt(random.nextInt(4)));
+        return ImmutableAmberSite.builder()
+                .chromosome(contig)
+                .position(position)
+                .ref(ref)
+                .alt(alt)
+                .snpCheck(random.nextInt(10) == 0)
+                .build();
+    }
+}
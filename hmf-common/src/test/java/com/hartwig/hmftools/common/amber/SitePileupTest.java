@@ -0,0 +1,109 @@
+package com.hartwig.hmftools.common.amber;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.List;
+import java.util.Random;
+
+import com.google.common.collect.Lists;
+import com.hartwig.hmftools.common.utils.sam.SAMRecordsTest;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.Test;
+
+import htsjdk.samtools.SAMRecord;
+
+public class SitePileupTest {
+
+    private static final int MIN_BASE_QUALITY = 13;
+    private static final String BASES = "ACGTNacgt";
+
+    @Test
+    public void testMatchesFactories() {
+        final Random random = new Random(0);
+        final List<ModifiableBaseDepth> normal = Lists.newArrayList();
+        final List<ModifiableTumorBAF> tumor = Lists.newArrayList();
+        int position = 0;
+        for (int i = 0; i < 500; i++) {
+            position += 1 + random.nextInt(20);
+            final ModifiableBaseDepth site = ModifiableBaseDepth.create()
+                    .setChromosome("1")
+                    .setPosition(position)
+                    .setRef(BaseDepth.Base.values()[random.nextInt(4)])
+                    .setAlt(BaseDepth.Base.values()[random.nextInt(4)])
+                    .setReadDepth(0)
+                    .setRefSupport(0)
+                    .setAltSupport(0)
+                    .setIndelCount(0);
+            normal.add(site);
+            tumor.add(TumorBAFFactory.create(site));
+        }
+
+        final SitePileup normalPileup = new SitePileup(MIN_BASE_QUALITY, true, normal);
+        final SitePileup tumorPileup = new SitePileup(MIN_BASE_QUALITY, false, normal);
+        final BaseDepthFactory normalFactory = new BaseDepthFactory(MIN_BASE_QUALITY);
+        final TumorBAFFactory tumorFactory = new TumorBAFFactory(MIN_BASE_QUALITY);
+
+        int alignmentStart = 1;
+        while (alignmentStart < position) {
+            alignmentStart += random.nextInt(3);
+            final SAMRecord record = record(alignmentStart, random);
+            normalPileup.accept(record);
+            tumorPileup.accept(record);
+            for (int i = 0; i < normal.size(); i++) {
+                final long sitePosition = normal.get(i).position();
+                if (sitePosition >= record.getAlignmentStart() && sitePosition <= record.getAlignmentEnd()) {
+                    normalFactory.addEvidence(normal.get(i), record);
+                    tumorFactory.addEvidence(tumor.get(i), record);
+                }
+            }
+        }
+
+        for (int i = 0; i < normal.size(); i++) {
+            final BaseDepth expectedNormal = normal.get(i);
+            assertEquals(expectedNormal.readDepth(), normalPileup.readDepth[i]);
+            assertEquals(expectedNormal.refSupport(), normalPileup.refSupport[i]);
+            assertEquals(expectedNormal.altSupport(), normalPileup.altSupport[i]);
+            assertEquals(expectedNormal.indelCount(), normalPileup.indelCount[i]);
+
+            final TumorBAF expectedTumor = tumor.get(i);
+            assertEquals(expectedTumor.tumorReadDepth(), tumorPileup.readDepth[i]);
+            assertEquals(expectedTumor.tumorRefSupport(), tumorPileup.refSupport[i]);
+            assertEquals(expectedTumor.tumorAltSupport(), tumorPileup.altSupport[i]);
+            assertEquals(expectedTumor.tumorAltQuality(), tumorPileup.altQuality[i]);
+            assertEquals(expectedTumor.tumorIndelCount(), tumorPileup.indelCount[i]);
+        }
+    }
+
+    @NotNull
+    private static SAMRecord record(int alignmentStart, @NotNull final Random random) {
+        final StringBuilder cigar = new StringBuilder();
+        int readLength = 0;
+        if (random.nextInt(4) == 0) {
+            final int clip = 1 + random.nextInt(5);
+            cigar.append(clip).append('S');
+            readLength += clip;
+        }
+
+        for (int block = 0; block < 3; block++) {
+            if (block > 0) {
+                final int indel = 1 + random.nextInt(3);
+                final boolean insert = random.nextBoolean();
+                cigar.append(indel).append(insert ? 'I' : 'D');
+                readLength += insert ? indel : 0;
+            }
+            final int match = 1 + random.nextInt(30);
+            cigar.append(match).append('M');
+            readLength += match;
+        }
+
+        final StringBuilder bases = new StringBuilder();
+        final StringBuilder qualities = new StringBuilder();
+        for (int i = 0; i < readLength; i++) {
+            bases.append(BASES.charAt(random.nextInt(BASES.length())));
+            qualities.append((char) (33 + random.nextInt(40)));
+        }
+
+        return SAMRecordsTest.buildSamRecord(alignmentStart, cigar.toString(), bases.toString(), qualities.toString());
+    }
+}
@@ -0,0 +1,140 @@
+package com.hartwig.hmftools.common.amber;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import com.google.common.collect.Lists;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.Test;
+
+import htsjdk.samtools.SAMFileHeader;
+import htsjdk.samtools.SAMFileWriter;
+import htsjdk.samtools.SAMFileWriterFactory;
+import htsjdk.samtools.SAMRecord;
+import htsjdk.samtools.SAMSequenceRecord;
+import htsjdk.samtools.SamReaderFactory;
+
+public class TumorEvidenceTest {
+
+    private static final String CONTIG = "1";
+    private static final int CONTIG_LENGTH = 50_000;
+    private static final int READ_LENGTH = 100;
+    private static final int TYPICAL_READ_DEPTH = 1000;
+    private static final int MIN_MAPPING_QUALITY = 1;
+    private static final int MIN_BASE_QUALITY = 13;
+    private static final String BASES = "ACGT";
+
+    @Test
+    public void testMatchesSeparatePasses() throws Exception {
+        final Random random = new Random(1);
+        final String ref = randomBases(random, CONTIG_LENGTH);
+        final File bam = writeBam(random, ref);
+        final SamReaderFactory readerFactory = SamReaderFactory.make();
+
+        try {
+            final List<BaseDepth> hetSites = Lists.newArrayList();
+            final List<BaseDepth> homSites = Lists.newArrayList();
+            for (int position = 500; position < CONTIG_LENGTH - 500; position += 1 + random.nextInt(300)) {
+                final char refBase = ref.charAt(position - 1);
+                final AmberSite site = ImmutableAmberSite.builder()
+                        .chromosome(CONTIG)
+                        .position(position)
+                        .ref(String.valueOf(refBase))
+                        .alt(refBase == 'A' ? "C" : "A")
+                        .snpCheck(false)
+                        .build();
+                (random.nextBoolean() ? hetSites : homSites).add(BaseDepthFactory.fromAmberSite(site));
+            }
+
+            final List<TumorBAF> expectedBAF =
+                    new TumorBAFEvidence(TYPICAL_READ_DEPTH, MIN_MAPPING_QUALITY, MIN_BASE_QUALITY, CONTIG, bam.getPath(), readerFactory,
+                            hetSites).call().evidence();
+            final List<TumorContamination> expectedContamination = new TumorContaminationEvidence(TYPICAL_READ_DEPTH,
+                    MIN_MAPPING_QUALITY,
+                    MIN_BASE_QUALITY,
+                    CONTIG,
+                    bam.getPath(),
+                    readerFactory,
+                    homSites).call().evidence();
+            assertFalse(expectedBAF.isEmpty());
+            assertFalse(expectedContamination.isEmpty());
+
+            final TumorEvidence victim = new TumorEvidence(TYPICAL_READ_DEPTH,
+                    MIN_MAPPING_QUALITY,
+                    MIN_BASE_QUALITY,
+                    CONTIG,
+                    bam.getPath(),
+                    readerFactory,
+                    hetSites,
+                    homSites).call();
+
+            assertEquals(sorted(expectedBAF), sorted(victim.bafEvidence()));
+            assertEquals(sorted(expectedContamination), sorted(victim.contaminationEvidence()));
+        } finally {
+            bam.delete();
+            new File(bam.getPath().replace(".bam", ".bai")).delete();
+        }
+    }
+
+    @NotNull
+    private static <T extends Comparable<? super T>> List<T> sorted(@NotNull final List<T> evidence) {
+        final List<T> result = Lists.newArrayList(evidence);
+        Collections.sort(result);
+        return result;
+    }
+
+    @NotNull
+    private static File writeBam(@NotNull final Random random, @NotNull final String ref) throws IOException {
+        final File bam = File.createTempFile("amber.tumor.", ".bam");
+        final SAMFileHeader header = new SAMFileHeader();
+        header.setSortOrder(SAMFileHeader.SortOrder.coordinate);
+        header.addSequence(new SAMSequenceRecord(CONTIG, CONTIG_LENGTH));
+
+        final List<SAMRecord> records = Lists.newArrayList();
+        for (int i = 0; i < 10_000; i++) {
+            final int start = 1 + random.nextInt(CONTIG_LENGTH - READ_LENGTH);
+            final char[] bases = ref.substring(start - 1, start - 1 + READ_LENGTH).toCharArray();
+            for (int j = 0; j < bases.length; j++) {
+                if (random.nextInt(10) == 0) {
+                    bases[j] = BASES.charAt(random.nextInt(BASES.length()));
+                }
+            }
+
+            final StringBuilder qualities = new StringBuilder();
+            for (int j = 0; j < READ_LENGTH; j++) {
+                qualities.append((char) (33 + random.nextInt(40)));
+            }
+
+            final SAMRecord record = new SAMRecord(header);
+            record.setReadName("read" + i);
+            record.setReferenceName(CONTIG);
+            record.setAlignmentStart(start);
+            record.setCigarString(random.nextInt(30) == 0 ? "49M2I49M" : READ_LENGTH + "M");
+            record.setReadString(new String(bases));
+            record.setBaseQualityString(qualities.toString());
+            record.setMappingQuality(random.nextInt(4) == 0 ? 0 : 60);
+            records.add(record);
+        }
+
+        try (SAMFileWriter writer = new SAMFileWriterFactory().setCreateIndex(true).makeBAMWriter(header, false, bam)) {
+            records.forEach(writer::addAlignment);
+        }
+        return bam;
+    }
+
+    @NotNull
+    private static String randomBases(@NotNull final Random random, int length) {
+        final StringBuilder result = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            result.append(BASES.charAt(random.nextInt(BASES.length())));
+        }
+        return result.toString();
+    }
+}
@@ -4,29 +4,30 @@ import static com.hartwig.hmftools.sage.SageApplication.createCommandLine;
 
 import java.io.File;
 import java.io.IOException;
-import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
-import java.util.concurrent.Future;
 import java.util.concurrent.ThreadFactory;
-import java.util.stream.Collectors;
 
-import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
 import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.hartwig.hmftools.common.genome.chromosome.HumanChromosome;
 import com.hartwig.hmftools.common.genome.chromosome.MitochondrialChromosome;
-import com.hartwig.hmftools.common.genome.region.GenomeRegion;
 import com.hartwig.hmftools.common.utils.Doubles;
 import com.hartwig.hmftools.common.utils.version.VersionInfo;
 import com.hartwig.hmftools.sage.config.SageConfig;
+import com.hartwig.hmftools.sage.metrics.SageMetrics;
+import com.hartwig.hmftools.sage.metrics.SageMetricsFile;
 import com.hartwig.hmftools.sage.pipeline.AdditionalReferencePipeline;
 import com.hartwig.hmftools.sage.pipeline.ChromosomePartition;
+import com.hartwig.hmftools.sage.pipeline.OrderedRegionWriter;
+import com.hartwig.hmftools.sage.pipeline.VariantRegionGrouper;
 import com.hartwig.hmftools.sage.quality.QualityRecalibrationMap;
 import com.hartwig.hmftools.sage.quality.QualityRecalibrationSupplier;
+import com.hartwig.hmftools.sage.ref.MappedRefGenome;
+import com.hartwig.hmftools.sage.sam.SamReaderPool;
 import com.hartwig.hmftools.sage.vcf.SageVCF;
 
 import org.apache.commons.cli.CommandLine;
@@ -36,13 +37,11 @@ import org.apache.commons.cli.ParseException;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import htsjdk.samtools.SAMSequenceDictionary;
 import htsjdk.samtools.SAMSequenceRecord;
-import htsjdk.samtools.SamReader;
-import htsjdk.samtools.SamReaderFactory;
-import htsjdk.samtools.cram.ref.ReferenceSource;
-import htsjdk.samtools.reference.IndexedFastaSequenceFile;
+import htsjdk.samtools.reference.ReferenceSequenceFile;
 import htsjdk.tribble.AbstractFeatureReader;
 import htsjdk.tribble.readers.LineIterator;
 import htsjdk.variant.variantcontext.VariantContext;
@@ -72,7 +71,8 @@ public class SageAppendApplication implements AutoCloseable {
     private final SageVCF outputVCF;
     private final SageConfig config;
     private final ExecutorService executorService;
-    private final IndexedFastaSequenceFile refGenome;
+    private final ReferenceSequenceFile refGenome;
+    private final SamReaderPool samReaderPool;
     private final QualityRecalibrationSupplier qualityRecalibrationSupplier;
     private final AbstractFeatureReader<VariantContext, LineIterator> inputReader;
     private final long timeStamp = System.currentTimeMillis();
@@ -86,8 +86,9 @@ public class SageAppendApplication implements AutoCloseable {
 
         final ThreadFactory namedThreadFactory = new ThreadFactoryBuilder().setNameFormat("SAGE-%d").build();
         executorService = Executors.newFixedThreadPool(config.threads(), namedThreadFactory);
-        refGenome = new IndexedFastaSequenceFile(new File(config.refGenome()));
-        qualityRecalibrationSupplier = new QualityRecalibrationSupplier(executorService, refGenome, config);
+        refGenome = new MappedRefGenome(new File(config.refGenome()));
+        samReaderPool = new SamReaderPool(config, refGenome);
+        qualityRecalibrationSupplier = new QualityRecalibrationSupplier(executorService, refGenome, samReaderPool, config);
 
         final String inputVcf = config.inputFile();
         inputReader = AbstractFeatureReader.getFeatureReader(inputVcf, new VCFCodec(), false);
@@ -102,32 +103,54 @@ public class SageAppendApplication implements AutoCloseable {
 
     public void run() throws IOException, ExecutionException, InterruptedException {
         final ChromosomePartition chromosomePartition = new ChromosomePartition(config, refGenome);
-        final List<VariantContext> existing = verifyAndReadExisting();
-
-        final SAMSequenceDictionary dictionary = dictionary();
-        final List<Future<List<VariantContext>>> futures = Lists.newArrayList();
+        final SageMetrics metrics = new SageMetrics();
+        final SageMetrics.Timer bqrTimer = SageMetrics.start();
         final Map<String, QualityRecalibrationMap> recalibrationMap = qualityRecalibrationSupplier.get();
-        final AdditionalReferencePipeline pipeline = new AdditionalReferencePipeline(config, executorService, refGenome, recalibrationMap);
+        metrics.record(SageMetrics.Stage.BQR, bqrTimer.nanos(), 0);
+
+        final AdditionalReferencePipeline pipeline =
+                new AdditionalReferencePipeline(config, executorService, refGenome, samReaderPool, recalibrationMap, metrics);
 
-        for (final SAMSequenceRecord samSequenceRecord : dictionary.getSequences()) {
+        final Set<String> contigs = Sets.newHashSet();
+        for (final SAMSequenceRecord samSequenceRecord : dictionary().getSequences()) {
             final String contig = samSequenceRecord.getSequenceName();
             if (HumanChromosome.contains(contig) || MitochondrialChromosome.contains(contig)) {
-                final List<VariantContext> chromosomeVariants =
-                        existing.stream().filter(x -> x.getContig().equals(contig)).collect(Collectors.toList());
+                contigs.add(contig);
+            }
+        }
 
-                for (GenomeRegion region : chromosomePartition.partition(contig)) {
-                    final List<VariantContext> regionVariants = chromosomeVariants.stream()
-                            .filter(x -> x.getStart() >= region.start() && x.getStart() <= region.end())
-                            .collect(Collectors.toList());
+        // The input is streamed one region at a time. Regions are processed in parallel and written in input order as they complete.
+        final VCFHeader header = (VCFHeader) inputReader.getHeader();
+        final VariantRegionGrouper grouper = new VariantRegionGrouper(chromosomePartition::partition);
+        final OrderedRegionWriter<VariantContext> writer = new OrderedRegionWriter<>(config.maxRegionsInFlight(), variants -> {
+            final SageMetrics.Timer timer = SageMetrics.start();
+            variants.forEach(outputVCF::write);
+            metrics.record(SageMetrics.Stage.WRITE, timer, 0, variants.size());
+        });
 
-                    futures.add(pipeline.appendReference(region, regionVariants));
-                }
+        for (VariantContext variantContext : inputReader.iterator()) {
+            if (!contigs.contains(variantContext.getContig())) {
+                continue;
             }
+
+            submit(pipeline, writer, grouper.add(variantContext.fullyDecode(header, false)));
+            if (writer.isFailed()) {
+                break;
+            }
+        }
+
+        if (!writer.isFailed()) {
+            submit(pipeline, writer, grouper.complete());
         }
 
-        for (Future<List<VariantContext>> updatedVariantsFuture : futures) {
-            final List<VariantContext> updatedVariants = updatedVariantsFuture.get();
-            updatedVariants.forEach(outputVCF::write);
+        writer.await();
+        SageMetricsFile.write(config.metricsFile(), metrics);
+    }
+
+    private static void submit(@NotNull final AdditionalReferencePipeline pipeline,
+            @NotNull final OrderedRegionWriter<VariantContext> writer, @Nullable final VariantRegionGrouper.RegionVariants regionVariants) throws InterruptedException {
+        if (regionVariants != null) {
+            writer.submit(() -> pipeline.appendReference(regionVariants.region(), regionVariants.variants()));
         }
     }
 
@@ -135,24 +158,13 @@ public class SageAppendApplication implements AutoCloseable {
     public void close() throws IOException {
         inputReader.close();
         outputVCF.close();
+        samReaderPool.close();
         refGenome.close();
         executorService.shutdown();
         long timeTaken = System.currentTimeMillis() - timeStamp;
         LOGGER.info("Completed in {} seconds", timeTaken / 1000);
     }
 
-    @NotNull
-    public List<VariantContext> verifyAndReadExisting() throws IOException, IllegalArgumentException {
-        VCFHeader header = (VCFHeader) inputReader.getHeader();
-
-        List<VariantContext> result = Lists.newArrayList();
-        for (VariantContext variantContext : inputReader.iterator()) {
-            result.add(variantContext.fullyDecode(header, false));
-        }
-
-        return result;
-    }
-
     public void validateInputHeader(VCFHeader header) throws IllegalArgumentException {
         double oldVersion = sageVersion(header);
         if (Doubles.lessThan(oldVersion, MIN_PRIOR_VERSION)) {
@@ -186,14 +198,9 @@ public class SageAppendApplication implements AutoCloseable {
         return Sets.newHashSet(header.getGenotypeSamples());
     }
 
-    private SAMSequenceDictionary dictionary() throws IOException {
+    private SAMSequenceDictionary dictionary() {
         final String bam = config.referenceBam().isEmpty() ? config.tumorBam().get(0) : config.referenceBam().get(0);
-        SamReader tumorReader = SamReaderFactory.makeDefault()
-                .validationStringency(config.validationStringency())
-                .referenceSource(new ReferenceSource(refGenome)).open(new File(bam));
-        SAMSequenceDictionary dictionary = tumorReader.getFileHeader().getSequenceDictionary();
-        tumorReader.close();
-        return dictionary;
+        return samReaderPool.header(bam).getSequenceDictionary();
     }
 
 }
@@ -2,18 +2,26 @@ package com.hartwig.hmftools.sage;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
 
 import com.google.common.collect.ArrayListMultimap;
 import com.google.common.collect.ListMultimap;
+import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
 import com.google.common.collect.SortedSetMultimap;
 import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.hartwig.hmftools.common.cobalt.CobaltRatioFile;
 import com.hartwig.hmftools.common.genome.bed.NamedBed;
 import com.hartwig.hmftools.common.genome.bed.NamedBedFile;
 import com.hartwig.hmftools.common.genome.chromosome.Chromosome;
@@ -29,9 +37,17 @@ import com.hartwig.hmftools.common.variant.hotspot.VariantHotspotFile;
 import com.hartwig.hmftools.sage.config.SageConfig;
 import com.hartwig.hmftools.sage.coverage.Coverage;
 import com.hartwig.hmftools.sage.coverage.GeneDepthFile;
+import com.hartwig.hmftools.sage.metrics.SageMetrics;
+import com.hartwig.hmftools.sage.metrics.SageMetricsFile;
+import com.hartwig.hmftools.sage.pipeline.AdaptivePartition;
+import com.hartwig.hmftools.sage.pipeline.BufferedVariantLimit;
 import com.hartwig.hmftools.sage.pipeline.ChromosomePipeline;
 import com.hartwig.hmftools.sage.quality.QualityRecalibrationMap;
 import com.hartwig.hmftools.sage.quality.QualityRecalibrationSupplier;
+import com.hartwig.hmftools.sage.ref.MappedRefGenome;
+import com.hartwig.hmftools.sage.sam.SamReadBudget;
+import com.hartwig.hmftools.sage.sam.SamReaderPool;
+import com.hartwig.hmftools.sage.vcf.SageCheckpoint;
 import com.hartwig.hmftools.sage.vcf.SageVCF;
 
 import org.apache.commons.cli.CommandLine;
@@ -43,22 +59,26 @@ import org.apache.commons.cli.ParseException;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import htsjdk.samtools.SAMSequenceDictionary;
 import htsjdk.samtools.SAMSequenceRecord;
-import htsjdk.samtools.SamReader;
-import htsjdk.samtools.SamReaderFactory;
-import htsjdk.samtools.cram.ref.ReferenceSource;
-import htsjdk.samtools.reference.IndexedFastaSequenceFile;
+import htsjdk.samtools.reference.ReferenceSequenceFile;
+import htsjdk.variant.variantcontext.VariantContext;
 
 public class SageApplication implements AutoCloseable {
 
     private static final Logger LOGGER = LogManager.getLogger(SageApplication.class);
 
+    @Nullable
     private final SageVCF vcf;
     private final SageConfig config;
     private final ExecutorService executorService;
-    private final IndexedFastaSequenceFile refGenome;
+    private final ReferenceSequenceFile refGenome;
+    private final SamReaderPool samReaderPool;
+    private final SamReadBudget fusedScanBudget;
+    @Nullable
+    private final AdaptivePartition adaptivePartition;
     private final QualityRecalibrationSupplier qualityRecalibrationSupplier;
 
     private final ListMultimap<Chromosome, NamedBed> coveragePanel;
@@ -92,11 +112,18 @@ public class SageApplication implements AutoCloseable {
 
         final ThreadFactory namedThreadFactory = new ThreadFactoryBuilder().setNameFormat("SAGE-%d").build();
         executorService = Executors.newFixedThreadPool(config.threads(), namedThreadFactory);
-        refGenome = new IndexedFastaSequenceFile(new File(config.refGenome()));
-        qualityRecalibrationSupplier = new QualityRecalibrationSupplier(executorService, refGenome, config);
-
-        vcf = new SageVCF(refGenome, config);
-        LOGGER.info("Writing to file: {}", config.outputFile());
+        refGenome = new MappedRefGenome(new File(config.refGenome()));
+        samReaderPool = new SamReaderPool(config, refGenome);
+        fusedScanBudget = new SamReadBudget(config.fusedScanMaxReads());
+        adaptivePartition = config.adaptivePartition() ? createAdaptivePartition() : null;
+        qualityRecalibrationSupplier = new QualityRecalibrationSupplier(executorService, refGenome, samReaderPool, config);
+
+        if (config.baseQualityRecalibrationConfig().bqrOnly()) {
+            vcf = null;
+        } else {
+            vcf = new SageVCF(refGenome, config);
+            LOGGER.info("Writing to file: {}", config.outputFile());
+        }
 
         // Validate Coverage Bed
         if (config.panelOnly() && !coveragePanel.isEmpty()) {
@@ -117,23 +144,86 @@ public class SageApplication implements AutoCloseable {
 
     private void run() throws InterruptedException, ExecutionException, IOException {
         long timeStamp = System.currentTimeMillis();
+        final SageMetrics metrics = new SageMetrics();
         final Coverage coverage = createCoverage();
 
+        final SageMetrics.Timer bqrTimer = SageMetrics.start();
         final Map<String, QualityRecalibrationMap> recalibrationMap = qualityRecalibrationSupplier.get();
+        metrics.record(SageMetrics.Stage.BQR, bqrTimer.nanos(), 0);
+        if (vcf == null) {
+            LOGGER.info("Base quality recalibration only, completed in {} seconds", (System.currentTimeMillis() - timeStamp) / 1000);
+            return;
+        }
+
         final SAMSequenceDictionary dictionary = dictionary();
+        final SageCheckpoint checkpoint = config.checkpointDirectory().isEmpty() ? null : new SageCheckpoint(config, dictionary);
+
+        // Shards do not hold gene coverage so chromosomes are not restored from them when coverage is requested
+        final boolean restoreCheckpoint = checkpoint != null && coverage.samples().isEmpty();
+        if (checkpoint != null && !restoreCheckpoint) {
+            LOGGER.warn("Gene coverage requested, checkpoints will be written but not restored");
+        }
+
+        // Regions from all chromosomes share the executor. The semaphore bounds the number of regions (and hence reads) being
+        // processed. The variants of completed regions are held until their chromosome and all preceding chromosomes have been
+        // written, and the buffered variant limit bounds how many of those other chromosomes may hold.
+        final Semaphore regionsInFlight = new Semaphore(config.maxRegionsInFlight());
+        final BufferedVariantLimit bufferedVariants = new BufferedVariantLimit(config.maxBufferedVariants());
+        CompletableFuture<Void> written = CompletableFuture.completedFuture(null);
         for (final SAMSequenceRecord samSequenceRecord : dictionary.getSequences()) {
             final String contig = samSequenceRecord.getSequenceName();
             if (config.chromosomes().isEmpty() || config.chromosomes().contains(contig)) {
                 if (HumanChromosome.contains(contig) || MitochondrialChromosome.contains(contig)) {
-                    try (final ChromosomePipeline pipeline = createChromosomePipeline(contig, coverage, recalibrationMap)) {
-                        pipeline.process();
+                    if (restoreCheckpoint && checkpoint.isComplete(contig)) {
+                        LOGGER.info("Using checkpoint of chromosome {}", contig);
+                        written = written.thenRun(() -> checkpoint.read(contig, vcf::write));
+                        continue;
+                    }
+
+                    final List<VariantContext> output = Lists.newArrayList();
+                    final AtomicLong chromosomeVariants = new AtomicLong();
+                    final ChromosomePipeline pipeline = createChromosomePipeline(contig, coverage, recalibrationMap, metrics, output::add);
+
+                    final Chromosome chromosome = chromosome(contig);
+                    final List<GenomeRegion> regions = adaptivePartition == null
+                            ? pipeline.regions()
+                            : adaptivePartition.partition(contig,
+                                    samSequenceRecord.getSequenceLength(),
+                                    panelWithHotspots.get(chromosome),
+                                    hotspots.get(chromosome));
+
+                    for (GenomeRegion region : regions) {
+                        if (written.isCompletedExceptionally()) {
+                            break;
+                        }
+                        bufferedVariants.await(chromosomeVariants, written);
+                        regionsInFlight.acquire();
+                        pipeline.submit(region).whenComplete((variants, throwable) -> {
+                            if (variants != null) {
+                                chromosomeVariants.addAndGet(variants.size());
+                                bufferedVariants.add(variants.size());
+                            }
+                            regionsInFlight.release();
+                        });
                     }
-                    System.gc();
+
+                    final CompletableFuture<ChromosomePipeline> complete = checkpoint == null
+                            ? pipeline.complete()
+                            : pipeline.complete().thenApply(x -> checkpoint(checkpoint, contig, output, x));
+
+                    written = written.thenCombine(complete, (aVoid, x) -> {
+                        final SageMetrics.Timer timer = SageMetrics.start();
+                        output.forEach(vcf::write);
+                        metrics.record(SageMetrics.Stage.WRITE, timer, 0, output.size());
+                        output.clear();
+                        bufferedVariants.remove(chromosomeVariants.get());
+                        return null;
+                    });
                 }
             }
         }
 
-        //                createChromosomePipeline("10", recalibrationMap).process(130404941, 130405950);
+        written.get();
 
         // Write out coverage
         for (String sample : coverage.samples()) {
@@ -141,39 +231,68 @@ public class SageApplication implements AutoCloseable {
             GeneDepthFile.write(filename, coverage.depth(sample));
         }
 
+        SageMetricsFile.write(config.metricsFile(), metrics);
+
         long timeTaken = System.currentTimeMillis() - timeStamp;
         LOGGER.info("Completed in {} seconds", timeTaken / 1000);
     }
 
-    private SAMSequenceDictionary dictionary() throws IOException {
+    @NotNull
+    private static <T> T checkpoint(@NotNull final SageCheckpoint checkpoint, @NotNull final String contig,
+            @NotNull final List<VariantContext> output, @NotNull final T result) {
+        try {
+            checkpoint.write(contig, output);
+        } catch (IOException e) {
+            throw new CompletionException(e);
+        }
+        return result;
+    }
+
+    private SAMSequenceDictionary dictionary() {
         final String bam = config.referenceBam().isEmpty() ? config.tumorBam().get(0) : config.referenceBam().get(0);
-        SamReader tumorReader = SamReaderFactory.makeDefault()
-                .validationStringency(config.validationStringency())
-                .referenceSource(new ReferenceSource(refGenome))
-                .open(new File(bam));
-        SAMSequenceDictionary dictionary = tumorReader.getFileHeader().getSequenceDictionary();
-        tumorReader.close();
-        return dictionary;
+        return samReaderPool.header(bam).getSequenceDictionary();
+    }
+
+    @NotNull
+    private AdaptivePartition createAdaptivePartition() throws IOException {
+        if (config.cobaltRatio().isEmpty()) {
+            return new AdaptivePartition(config, samReaderPool);
+        }
+
+        LOGGER.info("Reading cobalt ratios from {}", config.cobaltRatio());
+        return new AdaptivePartition(config, samReaderPool, CobaltRatioFile.read(config.cobaltRatio()));
+    }
+
+    @NotNull
+    private static Chromosome chromosome(@NotNull final String contig) {
+        return HumanChromosome.contains(contig) ? HumanChromosome.fromString(contig) : MitochondrialChromosome.fromString(contig);
     }
 
     private ChromosomePipeline createChromosomePipeline(@NotNull final String contig, @NotNull final Coverage coverage,
-            @NotNull Map<String, QualityRecalibrationMap> qualityRecalibrationMap) throws IOException {
-        final Chromosome chromosome =
-                HumanChromosome.contains(contig) ? HumanChromosome.fromString(contig) : MitochondrialChromosome.fromString(contig);
+            @NotNull Map<String, QualityRecalibrationMap> qualityRecalibrationMap, @NotNull final SageMetrics metrics,
+            @NotNull final Consumer<VariantContext> consumer) {
+        final Chromosome chromosome = chromosome(contig);
         return new ChromosomePipeline(contig,
                 config,
                 executorService,
+                refGenome,
+                samReaderPool,
                 hotspots.get(chromosome),
                 panelWithHotspots.get(chromosome),
                 highConfidence.get(chromosome),
                 qualityRecalibrationMap,
                 coverage,
-                vcf::write);
+                fusedScanBudget,
+                metrics,
+                consumer);
     }
 
     @Override
     public void close() throws IOException {
-        vcf.close();
+        if (vcf != null) {
+            vcf.close();
+        }
+        samReaderPool.close();
         refGenome.close();
         executorService.shutdown();
     }
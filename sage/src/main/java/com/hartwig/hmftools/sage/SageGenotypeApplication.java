@@ -0,0 +1,157 @@
+package com.hartwig.hmftools.sage;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+import com.google.common.collect.ListMultimap;
+import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.hartwig.hmftools.common.genome.chromosome.Chromosome;
+import com.hartwig.hmftools.common.genome.chromosome.HumanChromosome;
+import com.hartwig.hmftools.common.genome.region.GenomeRegions;
+import com.hartwig.hmftools.common.utils.version.VersionInfo;
+import com.hartwig.hmftools.common.variant.hotspot.VariantHotspot;
+import com.hartwig.hmftools.common.variant.hotspot.VariantHotspotFile;
+import com.hartwig.hmftools.sage.candidate.Candidate;
+import com.hartwig.hmftools.sage.config.SageConfig;
+import com.hartwig.hmftools.sage.genotype.HotspotCandidateFactory;
+import com.hartwig.hmftools.sage.genotype.HotspotEvidence;
+import com.hartwig.hmftools.sage.genotype.HotspotEvidenceFile;
+import com.hartwig.hmftools.sage.genotype.HotspotGenotyper;
+import com.hartwig.hmftools.sage.ref.MappedRefGenome;
+import com.hartwig.hmftools.sage.ref.RefSequence;
+
+import org.apache.commons.cli.CommandLine;
+import org.apache.commons.cli.HelpFormatter;
+import org.apache.commons.cli.Options;
+import org.apache.commons.cli.ParseException;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.jetbrains.annotations.NotNull;
+
+import htsjdk.samtools.SAMSequenceRecord;
+import htsjdk.samtools.reference.ReferenceSequenceFile;
+
+/**
+ * Genotypes the hotspots in many bams at once. The reference and hotspots are loaded and the hotspot read contexts built once, then
+ * each tumor and reference bam is scanned concurrently. The output is a hotspot by sample evidence matrix rather than a VCF.
+ */
+public class SageGenotypeApplication implements AutoCloseable {
+
+    private static final Logger LOGGER = LogManager.getLogger(SageGenotypeApplication.class);
+
+    private final SageConfig config;
+    private final ExecutorService executorService;
+    private final ReferenceSequenceFile refGenome;
+
+    public static void main(final String... args) throws IOException {
+        final Options options = SageConfig.createSageOptions();
+        try (final SageGenotypeApplication application = new SageGenotypeApplication(options, args)) {
+            application.run();
+        } catch (ParseException e) {
+            LOGGER.warn(e);
+            final HelpFormatter formatter = new HelpFormatter();
+            formatter.printHelp("SageGenotypeApplication", options);
+            System.exit(1);
+        }
+    }
+
+    private SageGenotypeApplication(final Options options, final String... args) throws IOException, ParseException {
+        final VersionInfo version = new VersionInfo("sage.version");
+        LOGGER.info("SAGE version: {}", version.version());
+
+        final CommandLine cmd = SageApplication.createCommandLine(args, options);
+        this.config = SageConfig.createConfig(false, version.version(), cmd);
+        if (config.hotspots().isEmpty()) {
+            throw new ParseException(SageConfig.HOTSPOTS + " is a mandatory argument");
+        }
+
+        final ThreadFactory namedThreadFactory = new ThreadFactoryBuilder().setNameFormat("SAGE-%d").build();
+        executorService = Executors.newFixedThreadPool(config.threads(), namedThreadFactory);
+        refGenome = new MappedRefGenome(new File(config.refGenome()));
+    }
+
+    private void run() throws IOException {
+        long timeStamp = System.currentTimeMillis();
+
+        LOGGER.info("Reading hotspot vcf: {}", config.hotspots());
+        final ListMultimap<Chromosome, VariantHotspot> hotspotsByChromosome = VariantHotspotFile.readFromVCF(config.hotspots());
+
+        final HotspotCandidateFactory candidateFactory = new HotspotCandidateFactory(config.readContextFlankSize());
+        final List<VariantHotspot> hotspots = Lists.newArrayList();
+        final List<List<Candidate>> contigCandidates = Lists.newArrayList();
+        for (final SAMSequenceRecord samSequenceRecord : refGenome.getSequenceDictionary().getSequences()) {
+            final String contig = samSequenceRecord.getSequenceName();
+            if (!HumanChromosome.contains(contig) || !config.chromosomes().isEmpty() && !config.chromosomes().contains(contig)) {
+                continue;
+            }
+
+            final List<VariantHotspot> sorted = Lists.newArrayList(hotspotsByChromosome.get(HumanChromosome.fromString(contig)));
+            sorted.sort(Comparator.comparingLong(VariantHotspot::position));
+
+            final List<Candidate> candidates = Lists.newArrayList();
+            for (VariantHotspot hotspot : sorted) {
+                final RefSequence refSequence = new RefSequence(
+                        GenomeRegions.create(contig, hotspot.position(), hotspot.position() + hotspot.ref().length() - 1), refGenome);
+                final Candidate candidate = candidateFactory.create(hotspot, refSequence.alignment());
+                if (candidate == null) {
+                    LOGGER.warn("Skipping hotspot {}:{} {}>{} which does not match the reference or is not a simple variant",
+                            contig,
+                            hotspot.position(),
+                            hotspot.ref(),
+                            hotspot.alt());
+                    continue;
+                }
+                hotspots.add(hotspot);
+                candidates.add(candidate);
+            }
+            contigCandidates.add(candidates);
+        }
+
+        final List<String> samples = Lists.newArrayList(config.tumor());
+        samples.addAll(config.reference());
+        final List<String> bams = Lists.newArrayList(config.tumorBam());
+        bams.addAll(config.referenceBam());
+        LOGGER.info("Genotyping {} hotspots in {} samples", hotspots.size(), samples.size());
+
+        final HotspotGenotyper genotyper = new HotspotGenotyper(config, refGenome, contigCandidates);
+        final List<CompletableFuture<HotspotEvidence>> futures = Lists.newArrayList();
+        for (int i = 0; i < samples.size(); i++) {
+            final String sample = samples.get(i);
+            final String bam = bams.get(i);
+            futures.add(CompletableFuture.supplyAsync(() -> {
+                try {
+                    final HotspotEvidence evidence = genotyper.genotype(sample, bam);
+                    LOGGER.info("Completed sample {}", sample);
+                    return evidence;
+                } catch (IOException e) {
+                    throw new CompletionException(e);
+                }
+            }, executorService));
+        }
+
+        final List<HotspotEvidence> evidence = Lists.newArrayList();
+        for (CompletableFuture<HotspotEvidence> future : futures) {
+            evidence.add(future.join());
+        }
+
+        LOGGER.info("Writing to file: {}", config.outputFile());
+        HotspotEvidenceFile.write(config.outputFile(), hotspots, evidence);
+
+        long timeTaken = System.currentTimeMillis() - timeStamp;
+        LOGGER.info("Completed in {} seconds", timeTaken / 1000);
+    }
+
+    @Override
+    public void close() throws IOException {
+        refGenome.close();
+        executorService.shutdown();
+    }
+}
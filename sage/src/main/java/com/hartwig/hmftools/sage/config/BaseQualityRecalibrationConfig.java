@@ -3,8 +3,11 @@ package com.hartwig.hmftools.sage.config;
 import static com.hartwig.hmftools.common.cli.Configs.defaultBooleanValue;
 import static com.hartwig.hmftools.common.cli.Configs.defaultIntValue;
 
+import com.hartwig.hmftools.common.cli.Configs;
+
 import org.apache.commons.cli.CommandLine;
 import org.apache.commons.cli.Options;
+import org.apache.logging.log4j.util.Strings;
 import org.immutables.value.Value;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -16,13 +19,17 @@ public interface BaseQualityRecalibrationConfig {
     String BQR_PLOT = "bqr_plot";
     String BQR_ENABLED = "bqr_enabled";
     String BQR_SAMPLE_SIZE = "bqr_sample_size";
+    String BQR_SAMPLE_BASES = "bqr_sample_bases";
     String BQR_MAX_ALT_COUNT = "bqr_max_alt_count";
     String BQR_MIN_MAP_QUAL = "bqr_min_map_qual";
+    String BQR_CACHE_DIR = "bqr_cache_dir";
+    String BQR_ONLY = "bqr_only";
 
     boolean DEFAULT_BQR_PLOT = true;
     boolean DEFAULT_BQR_ENABLED = true;
     int DEFAULT_BQR_MAX_ALT_COUNT = 3;
     int DEFAULT_BQR_SAMPLE_SIZE = 2_000_000;
+    int DEFAULT_BQR_SAMPLE_BASES = 0;
     int DEFAULT_BQR_MIN_MAP_QUAL = 10;
 
     boolean enabled();
@@ -33,8 +40,15 @@ public interface BaseQualityRecalibrationConfig {
 
     int sampleSize();
 
+    int sampleBases();
+
     int minMapQuality();
 
+    @NotNull
+    String cacheDirectory();
+
+    boolean bqrOnly();
+
     @NotNull
     static Options createOptions() {
         final Options options = new Options();
@@ -42,7 +56,11 @@ public interface BaseQualityRecalibrationConfig {
         options.addOption(BQR_PLOT, true, "BQR plots [" + DEFAULT_BQR_PLOT + "]");
         options.addOption(BQR_MAX_ALT_COUNT, true, "BQR maximum alt count to be an error [" + DEFAULT_BQR_MAX_ALT_COUNT + "]");
         options.addOption(BQR_SAMPLE_SIZE, true, "BQR sampling size per autosome [" + DEFAULT_BQR_SAMPLE_SIZE + "]");
+        options.addOption(BQR_SAMPLE_BASES, true, "BQR target aligned bases per autosome, 0 to always sample the full size ["
+                + DEFAULT_BQR_SAMPLE_BASES + "]");
         options.addOption(BQR_MIN_MAP_QUAL, true, "BQR min base quality remap qual [" + DEFAULT_BQR_MIN_MAP_QUAL + "]");
+        options.addOption(BQR_CACHE_DIR, true, "Optional directory of BQR results to reuse between runs on the same bam");
+        options.addOption(BQR_ONLY, false, "Only calculate BQR and exit");
         return options;
     }
 
@@ -53,7 +71,10 @@ public interface BaseQualityRecalibrationConfig {
                 .plot(defaultBooleanValue(cmd, BQR_PLOT, DEFAULT_BQR_PLOT))
                 .maxAltCount(defaultIntValue(cmd, BQR_MAX_ALT_COUNT, DEFAULT_BQR_MAX_ALT_COUNT))
                 .sampleSize(defaultIntValue(cmd, BQR_SAMPLE_SIZE, DEFAULT_BQR_SAMPLE_SIZE))
+                .sampleBases(defaultIntValue(cmd, BQR_SAMPLE_BASES, DEFAULT_BQR_SAMPLE_BASES))
                 .minMapQuality(defaultIntValue(cmd, BQR_MIN_MAP_QUAL, DEFAULT_BQR_MIN_MAP_QUAL))
+                .cacheDirectory(cmd.getOptionValue(BQR_CACHE_DIR, Strings.EMPTY))
+                .bqrOnly(Configs.containsFlag(cmd, BQR_ONLY))
                 .build();
     }
 }
@@ -57,6 +57,13 @@ public interface SageConfig {
     String READ_CONTEXT_FLANK_SIZE = "read_context_flank_size";
     String COVERAGE_BED = "coverage_bed";
     String VALIDATION_STRINGENCY = "validation_stringency";
+    String FUSED_SCAN = "fused_scan";
+    String FUSED_SCAN_MAX_READS = "fused_scan_max_reads";
+    String MAX_REGIONS_IN_FLIGHT = "max_regions_in_flight";
+    String MAX_BUFFERED_VARIANTS = "max_buffered_variants";
+    String ADAPTIVE_PARTITION = "adaptive_partition";
+    String COBALT_RATIO = "cobalt_ratio";
+    String CHECKPOINT_DIR = "checkpoint_dir";
 
     int DEFAULT_THREADS = 2;
     int DEFAULT_MIN_MAP_QUALITY = 10;
@@ -65,6 +72,8 @@ public interface SageConfig {
     int DEFAULT_MAX_REALIGNMENT_DEPTH = 1000;
     int DEFAULT_SLICE_SIZE = 100_000;
     int DEFAULT_READ_CONTEXT_FLANK_SIZE = 10;
+    int DEFAULT_FUSED_SCAN_MAX_READS = 2_000_000;
+    int DEFAULT_MAX_BUFFERED_VARIANTS = 250_000;
     boolean DEFAULT_MNV = true;
 
     @NotNull
@@ -82,6 +91,15 @@ public interface SageConfig {
         options.addOption(HOTSPOTS, true, "Hotspots");
         options.addOption(COVERAGE_BED, true, "Coverage is calculated for optionally supplied bed");
         options.addOption(VALIDATION_STRINGENCY, true, "SAM validation strategy: STRICT, SILENT, LENIENT [STRICT]");
+        options.addOption(MAX_REGIONS_IN_FLIGHT, true, "Max regions across all chromosomes to process concurrently [2 x threads]");
+        options.addOption(MAX_BUFFERED_VARIANTS, true,
+                "Max variants of completed regions to hold while waiting on earlier chromosomes [" + DEFAULT_MAX_BUFFERED_VARIANTS + "]");
+        options.addOption(ADAPTIVE_PARTITION, false, "Size regions by estimated read and panel density rather than fixed length");
+        options.addOption(COBALT_RATIO, true, "Optional tumor cobalt ratio file used to estimate density when bams are not indexed");
+        options.addOption(CHECKPOINT_DIR, true, "Directory to persist completed chromosomes in so that a restarted run can skip them");
+        options.addOption(FUSED_SCAN, false, "Decode each tumor read once per region for both candidates and evidence");
+        options.addOption(FUSED_SCAN_MAX_READS, true,
+                "Max tumor reads retained across all regions in fused scan, others re-read bam [" + DEFAULT_FUSED_SCAN_MAX_READS + "]");
 
         commonOptions().getOptions().forEach(options::addOption);
         FilterConfig.createOptions().getOptions().forEach(options::addOption);
@@ -160,6 +178,11 @@ public interface SageConfig {
         return parent == null ? filename : parent + File.separator + filename;
     }
 
+    @NotNull
+    default String metricsFile() {
+        return outputFile().replaceAll("\\.vcf(\\.gz)?$", "") + ".metrics.tsv";
+    }
+
     @NotNull
     default String baseQualityRecalibrationFile(@NotNull final String sample) {
         String parent = new File(outputFile()).getParent();
@@ -208,6 +231,22 @@ public interface SageConfig {
 
     int readContextFlankSize();
 
+    boolean fusedScan();
+
+    int fusedScanMaxReads();
+
+    int maxRegionsInFlight();
+
+    int maxBufferedVariants();
+
+    boolean adaptivePartition();
+
+    @NotNull
+    String cobaltRatio();
+
+    @NotNull
+    String checkpointDirectory();
+
     @NotNull
     static SageConfig createConfig(boolean appendMode, @NotNull final String version, @NotNull final CommandLine cmd)
             throws ParseException, IOException {
@@ -303,6 +342,16 @@ public interface SageConfig {
             throw new IOException("Unable to write directory " + outputDir.toString());
         }
 
+        final int maxRegionsInFlight = defaultIntValue(cmd, MAX_REGIONS_IN_FLIGHT, 2 * threads);
+        if (maxRegionsInFlight < 1) {
+            throw new ParseException(MAX_REGIONS_IN_FLIGHT + " must be at least 1");
+        }
+
+        final String cobaltRatio = cmd.getOptionValue(COBALT_RATIO, Strings.EMPTY);
+        if (!cobaltRatio.isEmpty() && !new File(cobaltRatio).exists()) {
+            throw new ParseException("Unable to locate cobalt ratio file " + cobaltRatio);
+        }
+
         final ValidationStringency validationStringency =
                 Configs.defaultEnumValue(cmd, VALIDATION_STRINGENCY, ValidationStringency.DEFAULT_STRINGENCY);
 
@@ -334,6 +383,13 @@ public interface SageConfig {
                 .baseQualityRecalibrationConfig(BaseQualityRecalibrationConfig.createConfig(cmd))
                 .panelOnly(Configs.containsFlag(cmd, PANEL_ONLY))
                 .validationStringency(validationStringency)
+                .fusedScan(Configs.containsFlag(cmd, FUSED_SCAN))
+                .fusedScanMaxReads(defaultIntValue(cmd, FUSED_SCAN_MAX_READS, DEFAULT_FUSED_SCAN_MAX_READS))
+                .maxRegionsInFlight(maxRegionsInFlight)
+                .maxBufferedVariants(defaultIntValue(cmd, MAX_BUFFERED_VARIANTS, DEFAULT_MAX_BUFFERED_VARIANTS))
+                .adaptivePartition(Configs.containsFlag(cmd, ADAPTIVE_PARTITION))
+                .cobaltRatio(cobaltRatio)
+                .checkpointDirectory(cmd.getOptionValue(CHECKPOINT_DIR, Strings.EMPTY))
                 .build();
     }
 }
@@ -1,11 +1,15 @@
 package com.hartwig.hmftools.sage.context;
 
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import javax.annotation.Nullable;
 
+import com.google.common.collect.Lists;
 import com.google.common.primitives.Longs;
 import com.hartwig.hmftools.common.genome.position.GenomePosition;
 import com.hartwig.hmftools.sage.read.ReadContext;
@@ -14,11 +18,18 @@ import org.jetbrains.annotations.NotNull;
 
 public class RefContext implements GenomePosition {
 
+    private static final int[] SNV_INDEX = snvIndex();
+
     private final String sample;
     private final String chromosome;
-    private final int maxDepth;
-    private final long position;
-    private final Map<String, AltContext> alts;
+    private int maxDepth;
+    private long position;
+
+    // SNVs are held by alt base, all other variants (MNVs and indels) are only allocated a map when first seen
+    @Nullable
+    private AltContext[] snvs;
+    @Nullable
+    private Map<String, AltContext> alts;
 
     private int rawDepth;
 
@@ -27,12 +38,40 @@ public class RefContext implements GenomePosition {
         this.chromosome = chromosome;
         this.position = position;
         this.maxDepth = maxDepth;
-        this.alts = new HashMap<>();
+    }
+
+    void reset(final long position, final int maxDepth) {
+        this.position = position;
+        this.maxDepth = maxDepth;
+        this.rawDepth = 0;
+        this.snvs = null;
+        this.alts = null;
+    }
+
+    public boolean hasAlts() {
+        return snvs != null || alts != null;
     }
 
     @NotNull
     public Collection<AltContext> alts() {
-        return alts.values();
+        if (!hasAlts()) {
+            return Collections.emptyList();
+        }
+
+        final List<AltContext> result = Lists.newArrayList();
+        if (snvs != null) {
+            for (AltContext snv : snvs) {
+                if (snv != null) {
+                    result.add(snv);
+                }
+            }
+        }
+
+        if (alts != null) {
+            result.addAll(alts.values());
+        }
+
+        return result;
     }
 
     public boolean reachedLimit() {
@@ -100,7 +139,43 @@ public class RefContext implements GenomePosition {
 
     @NotNull
     private AltContext altContext(@NotNull final String ref, @NotNull final String alt) {
+        if (ref.length() == 1 && alt.length() == 1) {
+            final int index = SNV_INDEX[alt.charAt(0) & 0xFF];
+            if (index >= 0) {
+                if (snvs == null) {
+                    snvs = new AltContext[4];
+                }
+
+                final AltContext existing = snvs[index];
+                if (existing == null) {
+                    final AltContext snv = new AltContext(this, ref, alt);
+                    snvs[index] = snv;
+                    return snv;
+                }
+
+                // Ref is always the same at a given position
+                if (existing.ref().equals(ref)) {
+                    return existing;
+                }
+            }
+        }
+
+        if (alts == null) {
+            alts = new HashMap<>();
+        }
+
         final String refAltKey = ref + "|" + alt;
         return alts.computeIfAbsent(refAltKey, key -> new AltContext(this, ref, alt));
     }
+
+    @NotNull
+    private static int[] snvIndex() {
+        final int[] result = new int[256];
+        Arrays.fill(result, -1);
+        result['A'] = 0;
+        result['C'] = 1;
+        result['G'] = 2;
+        result['T'] = 3;
+        return result;
+    }
 }
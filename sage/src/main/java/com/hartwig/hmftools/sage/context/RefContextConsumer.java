@@ -28,6 +28,7 @@ import htsjdk.samtools.SAMRecord;
 public class RefContextConsumer implements Consumer<SAMRecord> {
 
     private static final Logger LOGGER = LogManager.getLogger(RefContextConsumer.class);
+    private static final String[] BASES = singleBaseStrings();
 
     private final SageConfig config;
     private final GenomeRegion bounds;
@@ -110,6 +111,7 @@ public class RefContextConsumer implements Consumer<SAMRecord> {
             }
 
             altReads.forEach(AltRead::updateRefContext);
+            candidates.recycle();
         }
     }
 
@@ -177,7 +179,6 @@ public class RefContextConsumer implements Consumer<SAMRecord> {
             }
 
             final byte refByte = refBases.bases()[refBaseIndex];
-            final String ref = String.valueOf((char) refByte);
             final byte readByte = record.getReadBases()[readBaseIndex];
             boolean findReadContext = findReadContext(readBaseIndex, record);
 
@@ -185,7 +186,8 @@ public class RefContextConsumer implements Consumer<SAMRecord> {
             if (!refContext.reachedLimit()) {
                 int baseQuality = record.getBaseQualities()[readBaseIndex];
                 if (readByte != refByte) {
-                    final String alt = String.valueOf((char) readByte);
+                    final String ref = BASES[refByte & 0xFF];
+                    final String alt = BASES[readByte & 0xFF];
                     final ReadContext readContext =
                             findReadContext ? readContextFactory.createSNVContext(refPosition, readBaseIndex, record, refBases) : null;
 
@@ -226,6 +228,15 @@ public class RefContextConsumer implements Consumer<SAMRecord> {
         return result;
     }
 
+    @NotNull
+    private static String[] singleBaseStrings() {
+        final String[] result = new String[256];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = String.valueOf((char) i);
+        }
+        return result;
+    }
+
     private boolean findReadContext(int readIndex, @NotNull final SAMRecord record) {
         return readIndex >= config.readContextFlankSize() && readIndex < record.getReadLength() - config.readContextFlankSize();
     }
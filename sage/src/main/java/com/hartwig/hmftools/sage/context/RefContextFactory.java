@@ -1,8 +1,11 @@
 package com.hartwig.hmftools.sage.context;
 
+import java.util.ArrayDeque;
 import java.util.Collections;
+import java.util.Deque;
 import java.util.List;
 import java.util.function.Consumer;
+import java.util.function.LongFunction;
 import java.util.function.Predicate;
 
 import com.google.common.collect.Lists;
@@ -18,11 +21,21 @@ import org.jetbrains.annotations.NotNull;
 
 public class RefContextFactory {
 
+    private static final int CAPACITY = 256;
+
     private final SageConfig config;
     private final String sample;
     private final EvictingArray<RefContext> rollingCandidates;
     private final PanelSelector<GenomeRegion> panelSelector;
     private final List<AltContext> savedCandidates = Lists.newArrayList();
+    private final LongFunction<RefContext> supplier = this::create;
+
+    // Contexts that produced no candidates are recycled. They may still be referenced by the record being processed when
+    // evicted so they are only made available for reuse once that record is complete.
+    private final List<RefContext> evicted = Lists.newArrayList();
+    private final Deque<RefContext> recycled = new ArrayDeque<>();
+
+    private String chromosome;
 
     public RefContextFactory(@NotNull final SageConfig config, @NotNull final String sample, final List<VariantHotspot> hotspots,
             final List<GenomeRegion> panel) {
@@ -30,29 +43,59 @@ public class RefContextFactory {
         this.config = config;
         this.panelSelector = new PanelSelector<>(panel);
         final Predicate<AltContext> altContextPredicate = config.filter().altContextFilter(new HotspotSelector(hotspots));
-        final Consumer<RefContext> evictionHandler = (refContext) -> refContext.alts()
-                .stream()
-                .filter(AltContext::finaliseAndValidate)
-                .filter(this::refPredicate)
-                .filter(altContextPredicate)
-                .forEach(savedCandidates::add);
-
-        this.rollingCandidates = new EvictingArray<>(256, evictionHandler);
+        final Consumer<RefContext> evictionHandler = (refContext) -> {
+            boolean saved = false;
+            if (refContext.hasAlts()) {
+                for (AltContext altContext : refContext.alts()) {
+                    if (altContext.finaliseAndValidate() && refPredicate(altContext) && altContextPredicate.test(altContext)) {
+                        savedCandidates.add(altContext);
+                        saved = true;
+                    }
+                }
+            }
+
+            if (!saved) {
+                evicted.add(refContext);
+            }
+        };
+
+        this.rollingCandidates = new EvictingArray<>(CAPACITY, evictionHandler);
     }
 
     @NotNull
     public RefContext refContext(@NotNull final String chromosome, final long position) {
-        int maxDepth = maxReadDepth(chromosome, position);
-        return rollingCandidates.computeIfAbsent(position, aLong -> new RefContext(sample, chromosome, position, maxDepth));
+        this.chromosome = chromosome;
+        return rollingCandidates.computeIfAbsent(position, supplier);
+    }
+
+    public void recycle() {
+        if (recycled.size() < CAPACITY) {
+            recycled.addAll(evicted);
+        }
+        evicted.clear();
     }
 
     @NotNull
     public List<AltContext> altContexts() {
         rollingCandidates.evictAll();
+        evicted.clear();
+        recycled.clear();
         Collections.sort(savedCandidates);
         return savedCandidates;
     }
 
+    @NotNull
+    private RefContext create(final long position) {
+        final int maxDepth = maxReadDepth(chromosome, position);
+        final RefContext result = recycled.pollFirst();
+        if (result == null || !result.chromosome().equals(chromosome)) {
+            return new RefContext(sample, chromosome, position, maxDepth);
+        }
+
+        result.reset(position, maxDepth);
+        return result;
+    }
+
     private int maxReadDepth(final String chromosome, final long position) {
         return MitochondrialChromosome.contains(chromosome) || panelSelector.inPanel(position, position)
                 ? config.maxReadDepthPanel()
@@ -1,7 +1,7 @@
 package com.hartwig.hmftools.sage.count;
 
 import java.util.function.Consumer;
-import java.util.function.Function;
+import java.util.function.LongFunction;
 
 import org.jetbrains.annotations.NotNull;
 
@@ -20,7 +20,7 @@ public class EvictingArray<T> {
         this.elements = new Object[this.capacity];
     }
 
-    public T computeIfAbsent(long position, @NotNull final Function<Long, T> supplier) {
+    public T computeIfAbsent(long position, @NotNull final LongFunction<T> supplier) {
         if (minPosition == 0) {
             minPosition = (int) position - capacity + 1;
         }
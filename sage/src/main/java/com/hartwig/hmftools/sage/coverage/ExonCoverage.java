@@ -1,5 +1,6 @@
 package com.hartwig.hmftools.sage.coverage;
 
+import java.util.concurrent.atomic.AtomicIntegerArray;
 import java.util.function.Consumer;
 
 import com.hartwig.hmftools.common.genome.bed.NamedBed;
@@ -7,14 +8,19 @@ import com.hartwig.hmftools.common.genome.region.GenomeRegion;
 
 import org.jetbrains.annotations.NotNull;
 
+/**
+ * Per base coverage of an exon, shared by the regions of a chromosome that are processed concurrently. Each alignment only marks
+ * where its overlap starts and ends in a difference array, using atomic updates rather than a lock, and the depth of each base is
+ * the running sum of the differences.
+ */
 class ExonCoverage implements GenomeRegion, Consumer<GenomeRegion> {
 
     private final NamedBed exon;
-    private final int[] baseCoverage;
+    private final AtomicIntegerArray coverageDifference;
 
     ExonCoverage(final NamedBed exon) {
         this.exon = exon;
-        this.baseCoverage = new int[(int) exon.bases()];
+        this.coverageDifference = new AtomicIntegerArray((int) exon.bases() + 1);
     }
 
     @Override
@@ -26,16 +32,19 @@ class ExonCoverage implements GenomeRegion, Consumer<GenomeRegion> {
             int startIndex = index(startPosition);
             int endIndex = index(endPosition);
 
-            synchronized (baseCoverage) {
-                for (int i = startIndex; i <= endIndex; i++) {
-                    baseCoverage[i] += 1;
-                }
-            }
+            coverageDifference.incrementAndGet(startIndex);
+            coverageDifference.decrementAndGet(endIndex + 1);
         }
     }
 
     @NotNull
     public int[] coverage() {
+        final int[] baseCoverage = new int[coverageDifference.length() - 1];
+        int depth = 0;
+        for (int i = 0; i < baseCoverage.length; i++) {
+            depth += coverageDifference.get(i);
+            baseCoverage[i] = depth;
+        }
         return baseCoverage;
     }
 
@@ -1,6 +1,5 @@
 package com.hartwig.hmftools.sage.evidence;
 
-import java.io.File;
 import java.util.List;
 import java.util.concurrent.CompletionException;
 import java.util.function.Consumer;
@@ -15,19 +14,20 @@ import com.hartwig.hmftools.sage.context.RefContextConsumer;
 import com.hartwig.hmftools.sage.context.RefContextFactory;
 import com.hartwig.hmftools.sage.coverage.Coverage;
 import com.hartwig.hmftools.sage.coverage.GeneCoverage;
+import com.hartwig.hmftools.sage.metrics.CountingConsumer;
+import com.hartwig.hmftools.sage.metrics.SageMetrics;
 import com.hartwig.hmftools.sage.ref.RefSequence;
+import com.hartwig.hmftools.sage.sam.SamReaderPool;
+import com.hartwig.hmftools.sage.sam.SamRecordBuffer;
 import com.hartwig.hmftools.sage.sam.SamSlicer;
 import com.hartwig.hmftools.sage.sam.SamSlicerFactory;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import htsjdk.samtools.SAMRecord;
-import htsjdk.samtools.SamReader;
-import htsjdk.samtools.SamReaderFactory;
-import htsjdk.samtools.cram.ref.ReferenceSource;
-import htsjdk.samtools.reference.ReferenceSequenceFile;
 
 public class CandidateEvidence {
 
@@ -36,23 +36,32 @@ public class CandidateEvidence {
     private final SageConfig config;
     private final List<VariantHotspot> hotspots;
     private final List<GenomeRegion> panel;
-    private final ReferenceSequenceFile refGenome;
+    private final SamReaderPool samReaderPool;
     private final SamSlicerFactory samSlicerFactory;
     private final Coverage coverage;
+    private final SageMetrics metrics;
 
     public CandidateEvidence(@NotNull final SageConfig config, @NotNull final List<VariantHotspot> hotspots, final List<GenomeRegion> panel,
-            @NotNull final SamSlicerFactory samSlicerFactory, @NotNull final ReferenceSequenceFile refGenome, final Coverage coverage) {
+            @NotNull final SamSlicerFactory samSlicerFactory, @NotNull final SamReaderPool samReaderPool, final Coverage coverage,
+            @NotNull final SageMetrics metrics) {
         this.config = config;
         this.panel = panel;
         this.samSlicerFactory = samSlicerFactory;
         this.hotspots = hotspots;
-        this.refGenome = refGenome;
+        this.samReaderPool = samReaderPool;
         this.coverage = coverage;
+        this.metrics = metrics;
     }
 
     @NotNull
     public List<AltContext> get(@NotNull final String sample, @NotNull final String bamFile, @NotNull final RefSequence refSequence,
             @NotNull final GenomeRegion bounds) {
+        return get(sample, bamFile, refSequence, bounds, null);
+    }
+
+    @NotNull
+    public List<AltContext> get(@NotNull final String sample, @NotNull final String bamFile, @NotNull final RefSequence refSequence,
+            @NotNull final GenomeRegion bounds, @Nullable final SamRecordBuffer buffer) {
         LOGGER.debug("Variant candidates {} position {}:{}", sample, bounds.chromosome(), bounds.start());
         final List<GeneCoverage> geneCoverage = coverage.coverage(sample, bounds.chromosome());
         final RefContextFactory candidates = new RefContextFactory(config, sample, hotspots, panel);
@@ -67,22 +76,46 @@ public class CandidateEvidence {
             }
         };
 
-        return get(bamFile, bounds, consumer, candidates);
+        if (buffer == null) {
+            return get(bamFile, bounds, samSlicerFactory.create(bounds), consumer, candidates);
+        }
+
+        // Slice wide enough to also cover the evidence stage, retaining every record while only
+        // passing those the candidate slice would have selected on to the candidate consumer
+        final SamSlicer candidateSlicer = samSlicerFactory.create(bounds);
+        final SamSlicer fusedSlicer = new SamSlicer(0,
+                GenomeRegions.create(bounds.chromosome(),
+                        Math.max(1, bounds.start() - config.typicalReadLength()),
+                        bounds.end() + config.typicalReadLength()));
+
+        final Consumer<SAMRecord> fusedConsumer = record -> {
+            buffer.accept(record);
+            if (candidateSlicer.overlaps(record)) {
+                consumer.accept(record);
+            }
+        };
+
+        final List<AltContext> result = get(bamFile, bounds, fusedSlicer, fusedConsumer, candidates);
+        if (!buffer.isComplete()) {
+            LOGGER.debug("Fused scan of {} at {}:{} exceeded shared budget of {} reads, evidence will re-read bam",
+                    sample,
+                    bounds.chromosome(),
+                    bounds.start(),
+                    config.fusedScanMaxReads());
+        }
+        return result;
     }
 
     @NotNull
-    private List<AltContext> get(@NotNull final String bamFile, @NotNull final GenomeRegion bounds,
+    private List<AltContext> get(@NotNull final String bamFile, @NotNull final GenomeRegion bounds, @NotNull final SamSlicer slicer,
             @NotNull final Consumer<SAMRecord> recordConsumer, @NotNull final RefContextFactory candidates) {
+        final SageMetrics.Timer timer = SageMetrics.start();
+        final CountingConsumer<SAMRecord> countingConsumer = new CountingConsumer<>(recordConsumer);
         final List<AltContext> altContexts = Lists.newArrayList();
 
-        final SamSlicer slicer = samSlicerFactory.create(bounds);
-        try (final SamReader tumorReader = SamReaderFactory.makeDefault()
-                .validationStringency(config.validationStringency())
-                .referenceSource(new ReferenceSource(refGenome))
-                .open(new File(bamFile))) {
-
+        try {
             // First parse
-            slicer.slice(tumorReader, recordConsumer);
+            samReaderPool.slice(bamFile, slicer, countingConsumer);
 
             // Add all valid alt contexts
             altContexts.addAll(candidates.altContexts());
@@ -90,6 +123,7 @@ public class CandidateEvidence {
             throw new CompletionException(e);
         }
 
+        metrics.record(SageMetrics.Stage.CANDIDATES, bounds, timer, countingConsumer.count(), altContexts.size());
         return altContexts;
     }
 }
@@ -1,7 +1,5 @@
 package com.hartwig.hmftools.sage.evidence;
 
-import java.io.File;
-import java.io.IOException;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletionException;
@@ -10,68 +8,103 @@ import com.hartwig.hmftools.common.genome.region.GenomeRegion;
 import com.hartwig.hmftools.common.genome.region.GenomeRegions;
 import com.hartwig.hmftools.sage.candidate.Candidate;
 import com.hartwig.hmftools.sage.config.SageConfig;
+import com.hartwig.hmftools.sage.metrics.CountingConsumer;
+import com.hartwig.hmftools.sage.metrics.SageMetrics;
 import com.hartwig.hmftools.sage.quality.QualityRecalibrationMap;
 import com.hartwig.hmftools.sage.read.ReadContextCounter;
 import com.hartwig.hmftools.sage.read.ReadContextCounterFactory;
+import com.hartwig.hmftools.sage.sam.SamReaderPool;
+import com.hartwig.hmftools.sage.sam.SamRecordBuffer;
 import com.hartwig.hmftools.sage.sam.SamSlicer;
 import com.hartwig.hmftools.sage.samtools.NumberEvents;
 import com.hartwig.hmftools.sage.select.SamRecordSelector;
 
 import org.jetbrains.annotations.NotNull;
 
-import htsjdk.samtools.SamReader;
-import htsjdk.samtools.SamReaderFactory;
-import htsjdk.samtools.cram.ref.ReferenceSource;
-import htsjdk.samtools.reference.ReferenceSequenceFile;
+import htsjdk.samtools.SAMRecord;
 
 public class ReadContextEvidence {
 
     private final int typicalReadLength;
     private final SageConfig sageConfig;
-    private final ReferenceSequenceFile refGenome;
+    private final SamReaderPool samReaderPool;
     private final ReadContextCounterFactory factory;
+    private final SageMetrics metrics;
 
-    public ReadContextEvidence(@NotNull final SageConfig config, @NotNull final ReferenceSequenceFile refGenome,
-            final Map<String, QualityRecalibrationMap> qualityRecalibrationMap) {
+    public ReadContextEvidence(@NotNull final SageConfig config, @NotNull final SamReaderPool samReaderPool,
+            final Map<String, QualityRecalibrationMap> qualityRecalibrationMap, @NotNull final SageMetrics metrics) {
         this.sageConfig = config;
-        this.refGenome = refGenome;
+        this.metrics = metrics;
+        this.samReaderPool = samReaderPool;
         this.factory = new ReadContextCounterFactory(config, qualityRecalibrationMap);
         this.typicalReadLength = config.typicalReadLength();
     }
 
     @NotNull
-    public List<ReadContextCounter> get(@NotNull final List<Candidate> candidates, @NotNull final String sample,
-            @NotNull final String bam) {
+    public List<ReadContextCounter> get(@NotNull final GenomeRegion region, @NotNull final List<Candidate> candidates,
+            @NotNull final String sample, @NotNull final String bam) {
+        final SageMetrics.Timer timer = SageMetrics.start();
         final List<ReadContextCounter> counters = factory.create(sample, candidates);
         if (candidates.isEmpty()) {
             return counters;
         }
 
-        final Candidate firstCandidate = candidates.get(0);
-        final Candidate lastCandidate = candidates.get(candidates.size() - 1);
+        final SamSlicer slicer = new SamSlicer(0, bounds(candidates));
+        final CountingConsumer<SAMRecord> consumer = consumer(counters);
 
-        final GenomeRegion bounds = GenomeRegions.create(firstCandidate.chromosome(),
-                Math.max(firstCandidate.position() - typicalReadLength, 1),
-                lastCandidate.position() + typicalReadLength);
+        try {
+            samReaderPool.slice(bam, slicer, consumer);
+        } catch (Exception e) {
+            throw new CompletionException(e);
+        }
 
-        final SamSlicer slicer = new SamSlicer(0, bounds);
+        record(region, timer, consumer.count(), counters);
+        return counters;
+    }
 
-        final SamRecordSelector<ReadContextCounter> consumerSelector = new SamRecordSelector<>(counters);
+    @NotNull
+    public List<ReadContextCounter> get(@NotNull final GenomeRegion region, @NotNull final List<Candidate> candidates,
+            @NotNull final String sample, @NotNull final SamRecordBuffer buffer) {
+        final SageMetrics.Timer timer = SageMetrics.start();
+        final List<ReadContextCounter> counters = factory.create(sample, candidates);
+        if (candidates.isEmpty()) {
+            return counters;
+        }
+
+        final CountingConsumer<SAMRecord> consumer = consumer(counters);
+        buffer.replay(bounds(candidates), consumer);
 
-        try (final SamReader tumorReader = SamReaderFactory.makeDefault()
-                .validationStringency(sageConfig.validationStringency())
-                .referenceSource(new ReferenceSource(refGenome))
-                .open(new File(bam))) {
-            slicer.slice(tumorReader, samRecord -> {
+        record(region, timer, consumer.count(), counters);
+        return counters;
+    }
 
-                int numberOfEvents = NumberEvents.numberOfEvents(samRecord);
-                consumerSelector.select(samRecord, x -> x.accept(samRecord, sageConfig, numberOfEvents));
+    private void record(@NotNull final GenomeRegion region, @NotNull final SageMetrics.Timer timer, long reads,
+            @NotNull final List<ReadContextCounter> counters) {
+        metrics.record(SageMetrics.Stage.EVIDENCE, region, timer, reads, counters.size());
 
-            });
-        } catch (IOException e) {
-            throw new CompletionException(e);
+        long realignments = 0;
+        for (ReadContextCounter counter : counters) {
+            realignments += counter.realignments();
         }
+        metrics.record(SageMetrics.Stage.REALIGNMENT, 0, realignments);
+    }
 
-        return counters;
+    @NotNull
+    private GenomeRegion bounds(@NotNull final List<Candidate> candidates) {
+        final Candidate firstCandidate = candidates.get(0);
+        final Candidate lastCandidate = candidates.get(candidates.size() - 1);
+
+        return GenomeRegions.create(firstCandidate.chromosome(),
+                Math.max(firstCandidate.position() - typicalReadLength, 1),
+                lastCandidate.position() + typicalReadLength);
+    }
+
+    @NotNull
+    private CountingConsumer<SAMRecord> consumer(@NotNull final List<ReadContextCounter> counters) {
+        final SamRecordSelector<ReadContextCounter> consumerSelector = new SamRecordSelector<>(counters);
+        return new CountingConsumer<>(samRecord -> {
+            int numberOfEvents = NumberEvents.numberOfEvents(samRecord);
+            consumerSelector.select(samRecord, x -> x.accept(samRecord, sageConfig, numberOfEvents));
+        });
     }
 }
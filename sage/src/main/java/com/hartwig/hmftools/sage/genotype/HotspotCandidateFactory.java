@@ -0,0 +1,70 @@
+package com.hartwig.hmftools.sage.genotype;
+
+import com.hartwig.hmftools.common.variant.hotspot.VariantHotspot;
+import com.hartwig.hmftools.sage.candidate.Candidate;
+import com.hartwig.hmftools.sage.read.IndexedBases;
+import com.hartwig.hmftools.sage.read.ReadContext;
+import com.hartwig.hmftools.sage.read.ReadContextFactory;
+import com.hartwig.hmftools.sage.variant.SageVariantTier;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import htsjdk.samtools.SAMRecord;
+
+/**
+ * Creates hotspot candidates without a tumor. The read context of each hotspot is taken from a synthetic read that carries the alt
+ * allele between reference flanks, so that the candidates can be built once and counted against any number of bams.
+ */
+public class HotspotCandidateFactory {
+
+    private static final int READ_FLANK = 100;
+
+    private final ReadContextFactory readContextFactory;
+
+    public HotspotCandidateFactory(int readContextFlankSize) {
+        this.readContextFactory = new ReadContextFactory(readContextFlankSize);
+    }
+
+    @Nullable
+    public Candidate create(@NotNull final VariantHotspot hotspot, @NotNull final IndexedBases refBases) {
+        final byte[] ref = hotspot.ref().getBytes();
+        final byte[] alt = hotspot.alt().getBytes();
+        final int position = (int) hotspot.position();
+        final int refIndex = refBases.index(position);
+        final byte[] bases = refBases.bases();
+        if (refIndex < 0 || refIndex + ref.length > bases.length) {
+            return null;
+        }
+
+        for (int i = 0; i < ref.length; i++) {
+            if (bases[refIndex + i] != ref[i]) {
+                return null;
+            }
+        }
+
+        final int leftFlank = Math.min(READ_FLANK, refIndex);
+        final int rightFlank = Math.min(READ_FLANK, bases.length - refIndex - ref.length);
+        final byte[] readBases = new byte[leftFlank + alt.length + rightFlank];
+        System.arraycopy(bases, refIndex - leftFlank, readBases, 0, leftFlank);
+        System.arraycopy(alt, 0, readBases, leftFlank, alt.length);
+        System.arraycopy(bases, refIndex + ref.length, readBases, leftFlank + alt.length, rightFlank);
+
+        final SAMRecord record = new SAMRecord(null);
+        record.setReadBases(readBases);
+
+        final int readIndex = leftFlank;
+        final ReadContext readContext;
+        if (ref.length == alt.length) {
+            readContext = readContextFactory.createMNVContext(position, readIndex, ref.length, record, refBases);
+        } else if (ref.length == 1 && ref[0] == alt[0]) {
+            readContext = readContextFactory.createInsertContext(hotspot.alt(), position, readIndex, record, refBases);
+        } else if (alt.length == 1 && ref[0] == alt[0]) {
+            readContext = readContextFactory.createDelContext(hotspot.ref(), position, readIndex, record, refBases);
+        } else {
+            return null;
+        }
+
+        return new Candidate(SageVariantTier.HOTSPOT, hotspot, readContext, 0, 0);
+    }
+}
@@ -0,0 +1,47 @@
+package com.hartwig.hmftools.sage.genotype;
+
+import com.hartwig.hmftools.sage.read.ReadContextCounter;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Evidence of a single sample at every hotspot, kept as primitive arrays indexed by hotspot rather than as read context counters so
+ * that many samples can be held until the matrix is written.
+ */
+public class HotspotEvidence {
+
+    private final String sample;
+    private final int[] altSupport;
+    private final int[] depth;
+    private final int[] quality;
+
+    public HotspotEvidence(@NotNull final String sample, int hotspots) {
+        this.sample = sample;
+        this.altSupport = new int[hotspots];
+        this.depth = new int[hotspots];
+        this.quality = new int[hotspots];
+    }
+
+    @NotNull
+    public String sample() {
+        return sample;
+    }
+
+    public int altSupport(int hotspot) {
+        return altSupport[hotspot];
+    }
+
+    public int depth(int hotspot) {
+        return depth[hotspot];
+    }
+
+    public int quality(int hotspot) {
+        return quality[hotspot];
+    }
+
+    void set(int hotspot, @NotNull final ReadContextCounter counter) {
+        altSupport[hotspot] = counter.altSupport();
+        depth[hotspot] = counter.depth();
+        quality[hotspot] = counter.tumorQuality();
+    }
+}
@@ -0,0 +1,53 @@
+package com.hartwig.hmftools.sage.genotype;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.StringJoiner;
+
+import com.hartwig.hmftools.common.variant.hotspot.VariantHotspot;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Hotspot by sample matrix with one row per hotspot and one column per sample. Each cell holds the alt support, depth and quality
+ * of the sample at the hotspot separated by commas.
+ */
+public class HotspotEvidenceFile {
+
+    private static final String DELIMITER = "\t";
+    private static final String CELL_DELIMITER = ",";
+
+    public static void write(@NotNull final String filename, @NotNull final List<VariantHotspot> hotspots,
+            @NotNull final List<HotspotEvidence> evidence) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(Paths.get(filename))) {
+            writer.write(header(evidence));
+            writer.newLine();
+            for (int i = 0; i < hotspots.size(); i++) {
+                writer.write(toString(hotspots.get(i), i, evidence));
+                writer.newLine();
+            }
+        }
+    }
+
+    @NotNull
+    static String header(@NotNull final List<HotspotEvidence> evidence) {
+        final StringJoiner joiner = new StringJoiner(DELIMITER).add("chromosome").add("position").add("ref").add("alt");
+        evidence.forEach(x -> joiner.add(x.sample()));
+        return joiner.toString();
+    }
+
+    @NotNull
+    static String toString(@NotNull final VariantHotspot hotspot, int index, @NotNull final List<HotspotEvidence> evidence) {
+        final StringJoiner joiner = new StringJoiner(DELIMITER).add(hotspot.chromosome())
+                .add(String.valueOf(hotspot.position()))
+                .add(hotspot.ref())
+                .add(hotspot.alt());
+        for (HotspotEvidence sample : evidence) {
+            joiner.add(sample.altSupport(index) + CELL_DELIMITER + sample.depth(index) + CELL_DELIMITER + sample.quality(index));
+        }
+        return joiner.toString();
+    }
+}
@@ -0,0 +1,99 @@
+package com.hartwig.hmftools.sage.genotype;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+
+import com.google.common.collect.Lists;
+import com.hartwig.hmftools.common.genome.region.GenomeRegion;
+import com.hartwig.hmftools.common.genome.region.GenomeRegions;
+import com.hartwig.hmftools.sage.candidate.Candidate;
+import com.hartwig.hmftools.sage.config.SageConfig;
+import com.hartwig.hmftools.sage.quality.QualityRecalibrationMap;
+import com.hartwig.hmftools.sage.read.ReadContextCounter;
+import com.hartwig.hmftools.sage.read.ReadContextCounterFactory;
+import com.hartwig.hmftools.sage.sam.SamSlicer;
+import com.hartwig.hmftools.sage.samtools.NumberEvents;
+import com.hartwig.hmftools.sage.select.SamRecordSelector;
+
+import org.jetbrains.annotations.NotNull;
+
+import htsjdk.samtools.SAMRecord;
+import htsjdk.samtools.SamReader;
+import htsjdk.samtools.SamReaderFactory;
+import htsjdk.samtools.cram.ref.ReferenceSource;
+import htsjdk.samtools.reference.ReferenceSequenceFile;
+
+/**
+ * Counts the evidence of one bam at every hotspot. The candidates are shared by all bams and each bam is read with its own reader
+ * in a single pass per contig, querying only the windows around the hotspots.
+ */
+public class HotspotGenotyper {
+
+    private static final QualityRecalibrationMap NO_RECALIBRATION = new QualityRecalibrationMap(Collections.emptyList());
+
+    private final SageConfig config;
+    private final SamReaderFactory factory;
+    private final List<List<Candidate>> contigCandidates;
+    private final int hotspots;
+
+    public HotspotGenotyper(@NotNull final SageConfig config, @NotNull final ReferenceSequenceFile refGenome,
+            @NotNull final List<List<Candidate>> contigCandidates) {
+        this.config = config;
+        this.contigCandidates = contigCandidates;
+        this.hotspots = contigCandidates.stream().mapToInt(List::size).sum();
+        this.factory = SamReaderFactory.makeDefault()
+                .validationStringency(config.validationStringency())
+                .referenceSource(new ReferenceSource(refGenome));
+    }
+
+    @NotNull
+    public HotspotEvidence genotype(@NotNull final String sample, @NotNull final String bam) throws IOException {
+        final HotspotEvidence evidence = new HotspotEvidence(sample, hotspots);
+        final ReadContextCounterFactory counterFactory =
+                new ReadContextCounterFactory(config, Collections.singletonMap(sample, NO_RECALIBRATION));
+
+        try (SamReader reader = factory.open(new File(bam))) {
+            int offset = 0;
+            for (List<Candidate> candidates : contigCandidates) {
+                final List<ReadContextCounter> counters = counterFactory.create(sample, candidates);
+                if (!candidates.isEmpty()) {
+                    slicer(candidates).slice(reader, consumer(counters));
+                }
+
+                for (int i = 0; i < counters.size(); i++) {
+                    evidence.set(offset + i, counters.get(i));
+                }
+                offset += counters.size();
+            }
+        }
+
+        return evidence;
+    }
+
+    @NotNull
+    private SamSlicer slicer(@NotNull final List<Candidate> candidates) {
+        final int typicalReadLength = config.typicalReadLength();
+        final List<GenomeRegion> windows = Lists.newArrayListWithExpectedSize(candidates.size());
+        for (Candidate candidate : candidates) {
+            windows.add(GenomeRegions.create(candidate.chromosome(),
+                    Math.max(candidate.position() - typicalReadLength, 1),
+                    candidate.position() + typicalReadLength));
+        }
+
+        final GenomeRegion bounds =
+                GenomeRegions.create(candidates.get(0).chromosome(), windows.get(0).start(), windows.get(windows.size() - 1).end());
+        return new SamSlicer(0, bounds, windows);
+    }
+
+    @NotNull
+    private Consumer<SAMRecord> consumer(@NotNull final List<ReadContextCounter> counters) {
+        final SamRecordSelector<ReadContextCounter> selector = new SamRecordSelector<>(counters);
+        return record -> {
+            int numberOfEvents = NumberEvents.numberOfEvents(record);
+            selector.select(record, x -> x.accept(record, config, numberOfEvents));
+        };
+    }
+}
@@ -0,0 +1,25 @@
+package com.hartwig.hmftools.sage.metrics;
+
+import java.util.function.Consumer;
+
+import org.jetbrains.annotations.NotNull;
+
+public class CountingConsumer<T> implements Consumer<T> {
+
+    private final Consumer<T> consumer;
+    private long count;
+
+    public CountingConsumer(@NotNull final Consumer<T> consumer) {
+        this.consumer = consumer;
+    }
+
+    @Override
+    public void accept(final T t) {
+        count++;
+        consumer.accept(t);
+    }
+
+    public long count() {
+        return count;
+    }
+}
@@ -0,0 +1,218 @@
+package com.hartwig.hmftools.sage.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+import com.hartwig.hmftools.common.genome.region.GenomeRegion;
+import com.sun.management.ThreadMXBean;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Time, bytes allocated, reads and items (candidates or variants) of each pipeline stage summed over all threads, and the most
+ * expensive regions. Stages record once per region and sample so the cost is independent of the number of reads. Realignment is
+ * only counted, not timed, as it runs per read and candidate. Its time is part of the evidence time.
+ */
+public class SageMetrics {
+
+    public enum Stage {
+        BQR,
+        CANDIDATES,
+        EVIDENCE,
+        REALIGNMENT,
+        PHASE,
+        WRITE
+    }
+
+    static final int SLOWEST_REGIONS = 20;
+
+    private static final ThreadMXBean THREADS = threadBean();
+
+    private final long start = System.nanoTime();
+    private final Map<Stage, StageMetrics> stages = new EnumMap<>(Stage.class);
+    private final Map<GenomeRegion, RegionMetrics> activeRegions = new ConcurrentHashMap<>();
+    private final PriorityQueue<RegionMetrics> slowestRegions = new PriorityQueue<>(Comparator.comparingLong(RegionMetrics::nanos));
+
+    public SageMetrics() {
+        for (Stage stage : Stage.values()) {
+            stages.put(stage, new StageMetrics(stage));
+        }
+    }
+
+    @NotNull
+    public static Timer start() {
+        return new Timer();
+    }
+
+    public void record(@NotNull final Stage stage, @NotNull final Timer timer, long reads, long items) {
+        stages.get(stage).add(timer.nanos(), timer.allocatedBytes(), reads, items);
+    }
+
+    public void record(@NotNull final Stage stage, @NotNull final GenomeRegion region, @NotNull final Timer timer, long reads,
+            long items) {
+        record(stage, region, timer.nanos(), timer.allocatedBytes(), reads, items);
+    }
+
+    void record(@NotNull final Stage stage, @NotNull final GenomeRegion region, long nanos, long allocatedBytes, long reads, long items) {
+        stages.get(stage).add(nanos, allocatedBytes, reads, items);
+        activeRegions.computeIfAbsent(region, RegionMetrics::new).add(nanos, reads);
+    }
+
+    public void record(@NotNull final Stage stage, long nanos, long reads) {
+        stages.get(stage).add(nanos, 0, reads, 0);
+    }
+
+    public void completeRegion(@NotNull final GenomeRegion region, int candidates) {
+        final RegionMetrics metrics = activeRegions.remove(region);
+        if (metrics == null) {
+            return;
+        }
+
+        metrics.candidates = candidates;
+        synchronized (slowestRegions) {
+            slowestRegions.add(metrics);
+            if (slowestRegions.size() > SLOWEST_REGIONS) {
+                slowestRegions.poll();
+            }
+        }
+    }
+
+    public long elapsedNanos() {
+        return System.nanoTime() - start;
+    }
+
+    @NotNull
+    public List<StageMetrics> stages() {
+        return stages.values().stream().collect(Collectors.toList());
+    }
+
+    @NotNull
+    public List<RegionMetrics> slowestRegions() {
+        synchronized (slowestRegions) {
+            return slowestRegions.stream().sorted(Comparator.comparingLong(RegionMetrics::nanos).reversed()).collect(Collectors.toList());
+        }
+    }
+
+    @Nullable
+    private static ThreadMXBean threadBean() {
+        final java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof ThreadMXBean && ((ThreadMXBean) bean).isThreadAllocatedMemorySupported()) {
+            ((ThreadMXBean) bean).setThreadAllocatedMemoryEnabled(true);
+            return (ThreadMXBean) bean;
+        }
+        return null;
+    }
+
+    private static long currentThreadAllocatedBytes() {
+        return THREADS == null ? 0 : THREADS.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    /**
+     * Wall time and bytes allocated by the current thread since creation, must be recorded on the thread that started it.
+     */
+    public static class Timer {
+
+        private final long startNanos = System.nanoTime();
+        private final long startBytes = currentThreadAllocatedBytes();
+
+        private Timer() {
+        }
+
+        public long nanos() {
+            return System.nanoTime() - startNanos;
+        }
+
+        public long allocatedBytes() {
+            return currentThreadAllocatedBytes() - startBytes;
+        }
+    }
+
+    public static class StageMetrics {
+
+        private final Stage stage;
+        private final LongAdder calls = new LongAdder();
+        private final LongAdder nanos = new LongAdder();
+        private final LongAdder allocatedBytes = new LongAdder();
+        private final LongAdder reads = new LongAdder();
+        private final LongAdder items = new LongAdder();
+
+        private StageMetrics(@NotNull final Stage stage) {
+            this.stage = stage;
+        }
+
+        private void add(long nanos, long allocatedBytes, long reads, long items) {
+            this.calls.increment();
+            this.nanos.add(nanos);
+            this.allocatedBytes.add(allocatedBytes);
+            this.reads.add(reads);
+            this.items.add(items);
+        }
+
+        @NotNull
+        public Stage stage() {
+            return stage;
+        }
+
+        public long calls() {
+            return calls.sum();
+        }
+
+        public long nanos() {
+            return nanos.sum();
+        }
+
+        public long allocatedBytes() {
+            return allocatedBytes.sum();
+        }
+
+        public long reads() {
+            return reads.sum();
+        }
+
+        public long items() {
+            return items.sum();
+        }
+    }
+
+    public static class RegionMetrics {
+
+        private final GenomeRegion region;
+        private final LongAdder nanos = new LongAdder();
+        private final LongAdder reads = new LongAdder();
+        private volatile int candidates;
+
+        private RegionMetrics(@NotNull final GenomeRegion region) {
+            this.region = region;
+        }
+
+        private void add(long nanos, long reads) {
+            this.nanos.add(nanos);
+            this.reads.add(reads);
+        }
+
+        @NotNull
+        public GenomeRegion region() {
+            return region;
+        }
+
+        public long nanos() {
+            return nanos.sum();
+        }
+
+        public long reads() {
+            return reads.sum();
+        }
+
+        public int candidates() {
+            return candidates;
+        }
+    }
+}
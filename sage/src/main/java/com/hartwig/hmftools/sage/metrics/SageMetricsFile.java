@@ -0,0 +1,71 @@
+package com.hartwig.hmftools.sage.metrics;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.text.DecimalFormat;
+import java.util.List;
+import java.util.StringJoiner;
+
+import com.google.common.collect.Lists;
+
+import org.jetbrains.annotations.NotNull;
+
+public class SageMetricsFile {
+
+    private static final String DELIMITER = "\t";
+    private static final DecimalFormat FORMAT = new DecimalFormat("0.000");
+
+    public static void write(@NotNull final String filename, @NotNull final SageMetrics metrics) throws IOException {
+        Files.write(new File(filename).toPath(), toLines(metrics));
+    }
+
+    @NotNull
+    static List<String> toLines(@NotNull final SageMetrics metrics) {
+        final List<String> lines = Lists.newArrayList();
+        lines.add(header());
+        lines.add(toString("RUN", "TOTAL", 1, 0, 0, metrics.elapsedNanos(), 0));
+        for (SageMetrics.StageMetrics stage : metrics.stages()) {
+            lines.add(toString("STAGE",
+                    stage.stage().toString(),
+                    stage.calls(),
+                    stage.reads(),
+                    stage.items(),
+                    stage.nanos(),
+                    stage.allocatedBytes()));
+        }
+        for (SageMetrics.RegionMetrics region : metrics.slowestRegions()) {
+            final String name = region.region().chromosome() + ":" + region.region().start() + "-" + region.region().end();
+            lines.add(toString("REGION", name, 1, region.reads(), region.candidates(), region.nanos(), 0));
+        }
+        return lines;
+    }
+
+    @NotNull
+    static String header() {
+        return new StringJoiner(DELIMITER).add("type")
+                .add("name")
+                .add("calls")
+                .add("reads")
+                .add("items")
+                .add("seconds")
+                .add("readsPerSecond")
+                .add("allocatedMB")
+                .toString();
+    }
+
+    @NotNull
+    private static String toString(@NotNull final String type, @NotNull final String name, long calls, long reads, long items,
+            long nanos, long allocatedBytes) {
+        final double seconds = nanos / 1e9;
+        return new StringJoiner(DELIMITER).add(type)
+                .add(name)
+                .add(String.valueOf(calls))
+                .add(String.valueOf(reads))
+                .add(String.valueOf(items))
+                .add(FORMAT.format(seconds))
+                .add(String.valueOf(seconds > 0 ? Math.round(reads / seconds) : 0))
+                .add(String.valueOf(allocatedBytes >> 20))
+                .toString();
+    }
+}
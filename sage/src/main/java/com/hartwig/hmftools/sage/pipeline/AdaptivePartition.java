@@ -0,0 +1,301 @@
+package com.hartwig.hmftools.sage.pipeline;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.ListMultimap;
+import com.google.common.collect.Lists;
+import com.hartwig.hmftools.common.cobalt.CobaltRatio;
+import com.hartwig.hmftools.common.genome.chromosome.Chromosome;
+import com.hartwig.hmftools.common.genome.chromosome.HumanChromosome;
+import com.hartwig.hmftools.common.genome.region.GenomeRegion;
+import com.hartwig.hmftools.common.genome.region.GenomeRegions;
+import com.hartwig.hmftools.common.variant.hotspot.VariantHotspot;
+import com.hartwig.hmftools.sage.config.SageConfig;
+import com.hartwig.hmftools.sage.sam.SamReaderPool;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import htsjdk.samtools.BAMFileSpan;
+import htsjdk.samtools.BAMIndex;
+
+/**
+ * Partitions a contig into regions of roughly equal expected cost rather than equal length. Cost is estimated per 16kb bin from
+ * the compressed bytes between consecutive BAM linear index entries (or from an optional COBALT ratio file when no bam index is
+ * available) scaled up by panel and hotspot density. Regions are returned heaviest first so that they start early.
+ */
+public class AdaptivePartition {
+
+    private static final Logger LOGGER = LogManager.getLogger(AdaptivePartition.class);
+
+    // Matches the BAM linear index window
+    static final int BIN_SIZE = 1 << 14;
+    static final int MIN_REGION_SIZE = 1000;
+
+    private static final int MAX_MERGED_SLICES = 4;
+    private static final double MIN_WEIGHT = 0.05;
+    private static final double PANEL_WEIGHT = 1;
+    private static final double HOTSPOT_WEIGHT = 0.01;
+
+    private final SageConfig config;
+    private final SamReaderPool samReaderPool;
+    private final ListMultimap<Chromosome, CobaltRatio> cobaltRatios;
+
+    public AdaptivePartition(@NotNull final SageConfig config, @NotNull final SamReaderPool samReaderPool,
+            @NotNull final ListMultimap<Chromosome, CobaltRatio> cobaltRatios) {
+        this.config = config;
+        this.samReaderPool = samReaderPool;
+        this.cobaltRatios = cobaltRatios;
+    }
+
+    public AdaptivePartition(@NotNull final SageConfig config, @NotNull final SamReaderPool samReaderPool) {
+        this(config, samReaderPool, ArrayListMultimap.create());
+    }
+
+    @NotNull
+    public List<GenomeRegion> partition(@NotNull final String contig, int contigLength, @NotNull final List<GenomeRegion> panel,
+            @NotNull final List<VariantHotspot> hotspots) {
+        final double[] weights = weights(contig, contigLength, panel, hotspots);
+
+        final int targetRegions = Math.max((contigLength - 1) / config.regionSliceSize() + 1, Math.min(config.threads(), 4));
+        final List<GenomeRegion> result =
+                partition(contig, 1, contigLength, weights, targetRegions, MAX_MERGED_SLICES * config.regionSliceSize());
+
+        LOGGER.debug("Partitioned chromosome {} into {} regions", contig, result.size());
+        return result;
+    }
+
+    @NotNull
+    double[] weights(@NotNull final String contig, int contigLength, @NotNull final List<GenomeRegion> panel,
+            @NotNull final List<VariantHotspot> hotspots) {
+        final int bins = bin(contigLength) + 1;
+
+        double[] depth = bamDepth(contig, bins);
+        if (depth == null) {
+            depth = cobaltDepth(contig, bins);
+        }
+
+        final double[] panelBases = new double[bins];
+        for (GenomeRegion region : panel) {
+            final long end = Math.min(region.end(), contigLength);
+            for (long binStart = region.start(); binStart <= end; binStart = (bin(binStart) + 1L) * BIN_SIZE + 1) {
+                final long binEnd = Math.min(end, (bin(binStart) + 1L) * BIN_SIZE);
+                panelBases[bin(binStart)] += binEnd - binStart + 1;
+            }
+        }
+
+        final int[] hotspotCount = new int[bins];
+        for (VariantHotspot hotspot : hotspots) {
+            if (hotspot.position() <= contigLength) {
+                hotspotCount[bin(hotspot.position())]++;
+            }
+        }
+
+        final double[] result = new double[bins];
+        for (int i = 0; i < bins; i++) {
+            final double binDepth = depth == null ? 1 : depth[i];
+            result[i] = MIN_WEIGHT + binDepth * (1 + PANEL_WEIGHT * panelBases[i] / BIN_SIZE + HOTSPOT_WEIGHT * hotspotCount[i]);
+        }
+
+        return result;
+    }
+
+    @NotNull
+    static List<GenomeRegion> partition(@NotNull final String contig, int minPosition, int maxPosition, @NotNull final double[] weights,
+            int targetRegions, int maxRegionSize) {
+        double totalWeight = 0;
+        for (int i = bin(minPosition); i <= bin(maxPosition); i++) {
+            totalWeight += weights[i];
+        }
+        final double targetWeight = totalWeight / targetRegions;
+
+        final List<WeightedRegion> regions = Lists.newArrayList();
+        int start = minPosition;
+        double weight = 0;
+        for (int i = bin(minPosition); i <= bin(maxPosition); i++) {
+            final int binStart = Math.max(minPosition, i * BIN_SIZE + 1);
+            final int binEnd = Math.min(maxPosition, (i + 1) * BIN_SIZE);
+            final double binWeight = weights[i] * (binEnd - binStart + 1) / BIN_SIZE;
+
+            // Split bins that are too heavy on their own, eg over amplifications
+            if (binWeight > 2 * targetWeight && binEnd - binStart + 1 >= 2 * MIN_REGION_SIZE) {
+                if (start < binStart) {
+                    regions.add(new WeightedRegion(GenomeRegions.create(contig, start, binStart - 1), weight));
+                }
+
+                final int pieces = (int) Math.min(Math.ceil(binWeight / targetWeight), (binEnd - binStart + 1) / MIN_REGION_SIZE);
+                final int pieceSize = (binEnd - binStart + 1) / pieces;
+                for (int piece = 0; piece < pieces; piece++) {
+                    final int pieceStart = binStart + piece * pieceSize;
+                    final int pieceEnd = piece == pieces - 1 ? binEnd : pieceStart + pieceSize - 1;
+                    regions.add(new WeightedRegion(GenomeRegions.create(contig, pieceStart, pieceEnd), binWeight / pieces));
+                }
+
+                start = binEnd + 1;
+                weight = 0;
+                continue;
+            }
+
+            weight += binWeight;
+            if (weight >= targetWeight || binEnd - start + 1 + BIN_SIZE > maxRegionSize || binEnd == maxPosition) {
+                regions.add(new WeightedRegion(GenomeRegions.create(contig, start, binEnd), weight));
+                start = binEnd + 1;
+                weight = 0;
+            }
+        }
+
+        regions.sort(Comparator.comparingDouble(WeightedRegion::weight).reversed());
+
+        final List<GenomeRegion> result = Lists.newArrayListWithExpectedSize(regions.size());
+        regions.forEach(x -> result.add(x.region()));
+        return result;
+    }
+
+    @Nullable
+    private double[] bamDepth(@NotNull final String contig, int bins) {
+        final List<String> bams = Lists.newArrayList(config.tumorBam());
+        bams.addAll(config.referenceBam());
+
+        double[] result = null;
+        int bamCount = 0;
+        for (String bam : bams) {
+            final BAMIndex index = samReaderPool.index(bam);
+            final int sequenceIndex = samReaderPool.header(bam).getSequenceIndex(contig);
+            if (index == null || sequenceIndex < 0) {
+                continue;
+            }
+
+            final double[] bytes = compressedBytes(index, sequenceIndex, bins);
+            if (bytes == null) {
+                continue;
+            }
+
+            if (result == null) {
+                result = new double[bins];
+            }
+            for (int i = 0; i < bins; i++) {
+                result[i] += bytes[i];
+            }
+            bamCount++;
+        }
+
+        if (result != null) {
+            for (int i = 0; i < bins; i++) {
+                result[i] /= bamCount;
+            }
+        }
+
+        return result;
+    }
+
+    @Nullable
+    private static double[] compressedBytes(@NotNull final BAMIndex index, int sequenceIndex, int bins) {
+        // Offset of the first bgzf block containing reads from each bin
+        final long[] offsets = new long[bins];
+        for (int i = 0; i < bins; i++) {
+            final BAMFileSpan span = index.getSpanOverlapping(sequenceIndex, i * BIN_SIZE + 1, (i + 1) * BIN_SIZE);
+            offsets[i] = span == null || span.isEmpty() ? -1 : span.getFirstOffset() >>> 16;
+        }
+
+        final double[] result = new double[bins];
+        long next = -1;
+        long totalBytes = 0;
+        int knownBins = 0;
+        for (int i = bins - 1; i >= 0; i--) {
+            if (offsets[i] < 0) {
+                continue;
+            }
+
+            if (next >= offsets[i]) {
+                result[i] = next - offsets[i];
+                totalBytes += next - offsets[i];
+                knownBins++;
+            } else {
+                // Last bin with reads has no following entry to measure against
+                result[i] = -1;
+            }
+            next = offsets[i];
+        }
+
+        if (knownBins == 0 || totalBytes == 0) {
+            return null;
+        }
+
+        final double mean = (double) totalBytes / knownBins;
+        for (int i = 0; i < bins; i++) {
+            result[i] = result[i] < 0 ? 1 : result[i] / mean;
+        }
+
+        return result;
+    }
+
+    @Nullable
+    private double[] cobaltDepth(@NotNull final String contig, int bins) {
+        if (!HumanChromosome.contains(contig)) {
+            return null;
+        }
+
+        final List<CobaltRatio> ratios = cobaltRatios.get(HumanChromosome.fromString(contig));
+        if (ratios.isEmpty()) {
+            return null;
+        }
+
+        final double[] sum = new double[bins];
+        final int[] count = new int[bins];
+        double totalSum = 0;
+        int totalCount = 0;
+        for (CobaltRatio ratio : ratios) {
+            if (ratio.tumorGCRatio() >= 0 && ratio.position() <= (long) bins * BIN_SIZE) {
+                final int bin = bin(ratio.position());
+                sum[bin] += ratio.tumorGCRatio();
+                count[bin]++;
+                totalSum += ratio.tumorGCRatio();
+                totalCount++;
+            }
+        }
+
+        if (totalCount == 0 || totalSum == 0) {
+            return null;
+        }
+
+        final double mean = totalSum / totalCount;
+        final double[] result = new double[bins];
+        Arrays.fill(result, 1);
+        for (int i = 0; i < bins; i++) {
+            if (count[i] > 0) {
+                result[i] = sum[i] / count[i] / mean;
+            }
+        }
+
+        return result;
+    }
+
+    private static int bin(long position) {
+        return (int) ((position - 1) / BIN_SIZE);
+    }
+
+    private static class WeightedRegion {
+
+        private final GenomeRegion region;
+        private final double weight;
+
+        private WeightedRegion(@NotNull final GenomeRegion region, final double weight) {
+            this.region = region;
+            this.weight = weight;
+        }
+
+        @NotNull
+        GenomeRegion region() {
+            return region;
+        }
+
+        double weight() {
+            return weight;
+        }
+    }
+}
@@ -14,10 +14,12 @@ import com.hartwig.hmftools.common.variant.hotspot.VariantHotspot;
 import com.hartwig.hmftools.sage.candidate.Candidate;
 import com.hartwig.hmftools.sage.candidate.CandidateSerialization;
 import com.hartwig.hmftools.sage.config.SageConfig;
+import com.hartwig.hmftools.sage.metrics.SageMetrics;
 import com.hartwig.hmftools.sage.quality.QualityRecalibrationMap;
 import com.hartwig.hmftools.sage.read.ReadContextCounter;
 import com.hartwig.hmftools.sage.read.ReadContextCounters;
 import com.hartwig.hmftools.sage.ref.RefSequence;
+import com.hartwig.hmftools.sage.sam.SamReaderPool;
 import com.hartwig.hmftools.sage.variant.SageVariantContextFactory;
 
 import org.apache.logging.log4j.LogManager;
@@ -35,14 +37,16 @@ public class AdditionalReferencePipeline {
     private final EvidenceStage evidenceStage;
     private final ReferenceSequenceFile refGenome;
     private final Executor executor;
+    private final SageMetrics metrics;
 
     public AdditionalReferencePipeline(@NotNull final SageConfig config, @NotNull final Executor executor, ReferenceSequenceFile refGenome,
-            @NotNull final Map<String, QualityRecalibrationMap> qualityRecalibrationMap) {
+            @NotNull final SamReaderPool samReaderPool,
+            @NotNull final Map<String, QualityRecalibrationMap> qualityRecalibrationMap, @NotNull final SageMetrics metrics) {
         this.config = config;
         this.refGenome = refGenome;
-        this.evidenceStage = new EvidenceStage(config, refGenome, qualityRecalibrationMap);
+        this.evidenceStage = new EvidenceStage(config, executor, samReaderPool, qualityRecalibrationMap, metrics);
         this.executor = executor;
-
+        this.metrics = metrics;
     }
 
     @NotNull
@@ -64,9 +68,12 @@ public class AdditionalReferencePipeline {
                 .collect(Collectors.toList()));
 
         final CompletableFuture<ReadContextCounters> evidenceFutures =
-                evidenceStage.evidence(config.reference(), config.referenceBam(), candidateFutures);
+                evidenceStage.evidence(region, config.reference(), config.referenceBam(), candidateFutures);
 
-        return evidenceFutures.thenApply(x -> update(x, variants));
+        return evidenceFutures.thenApply(x -> {
+            metrics.completeRegion(region, variants.size());
+            return update(x, variants);
+        });
     }
 
     public List<VariantContext> update(final ReadContextCounters readContextCounters, final List<VariantContext> variantContexts) {
@@ -0,0 +1,41 @@
+package com.hartwig.hmftools.sage.pipeline;
+
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Counts the variants of completed regions that are held in memory until their chromosome, and every chromosome before it, has been
+ * written. Submission of new regions waits while the variants of other chromosomes exceed the limit. Those chromosomes have had all
+ * their regions submitted so waiting on them never stalls their progress. The chromosome being submitted is excluded for the same
+ * reason, so at most one chromosome beyond the limit is buffered.
+ */
+public class BufferedVariantLimit {
+
+    private static final long WAIT_MILLIS = 1000;
+
+    private final long maxVariants;
+    private long buffered;
+
+    public BufferedVariantLimit(long maxVariants) {
+        this.maxVariants = maxVariants;
+    }
+
+    public synchronized void add(int count) {
+        buffered += count;
+    }
+
+    public synchronized void remove(long count) {
+        buffered -= count;
+        notifyAll();
+    }
+
+    // Stops waiting once the pending writes are done, including exceptionally
+    public synchronized void await(@NotNull final AtomicLong submittingChromosome, @NotNull final Future<?> written)
+            throws InterruptedException {
+        while (buffered - submittingChromosome.get() > maxVariants && !written.isDone()) {
+            wait(WAIT_MILLIS);
+        }
+    }
+}
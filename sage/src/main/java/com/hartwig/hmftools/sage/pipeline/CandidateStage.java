@@ -1,66 +1,97 @@
 package com.hartwig.hmftools.sage.pipeline;
 
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
+import com.google.common.collect.Lists;
 import com.hartwig.hmftools.common.genome.region.GenomeRegion;
 import com.hartwig.hmftools.common.variant.hotspot.VariantHotspot;
 import com.hartwig.hmftools.sage.candidate.Candidate;
 import com.hartwig.hmftools.sage.candidate.Candidates;
 import com.hartwig.hmftools.sage.config.SageConfig;
+import com.hartwig.hmftools.sage.context.AltContext;
 import com.hartwig.hmftools.sage.coverage.Coverage;
 import com.hartwig.hmftools.sage.evidence.CandidateEvidence;
+import com.hartwig.hmftools.sage.metrics.SageMetrics;
 import com.hartwig.hmftools.sage.ref.RefSequence;
+import com.hartwig.hmftools.sage.sam.SamReadBudget;
+import com.hartwig.hmftools.sage.sam.SamReaderPool;
+import com.hartwig.hmftools.sage.sam.SamRecordBuffer;
 import com.hartwig.hmftools.sage.sam.SamSlicerFactory;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.jetbrains.annotations.NotNull;
-
-import htsjdk.samtools.reference.ReferenceSequenceFile;
+import org.jetbrains.annotations.Nullable;
 
 public class CandidateStage {
 
     private static final Logger LOGGER = LogManager.getLogger(CandidateStage.class);
 
     private final SageConfig config;
+    private final Executor executor;
     private final List<VariantHotspot> hotspots;
     private final List<GenomeRegion> panelRegions;
     private final CandidateEvidence candidateEvidence;
     private final List<GenomeRegion> highConfidenceRegions;
+    private final SamReadBudget fusedScanBudget;
 
-    public CandidateStage(@NotNull final SageConfig config, @NotNull final ReferenceSequenceFile refGenome,
+    public CandidateStage(@NotNull final SageConfig config, @NotNull final Executor executor, @NotNull final SamReaderPool samReaderPool,
             @NotNull final List<VariantHotspot> hotspots, @NotNull final List<GenomeRegion> panelRegions,
-            @NotNull final List<GenomeRegion> highConfidenceRegions, final Coverage coverage) {
+            @NotNull final List<GenomeRegion> highConfidenceRegions, final Coverage coverage, @NotNull final SamReadBudget fusedScanBudget,
+            @NotNull final SageMetrics metrics) {
 
         this.config = config;
+        this.executor = executor;
         final SamSlicerFactory samSlicerFactory = new SamSlicerFactory(config, panelRegions);
         this.hotspots = hotspots;
         this.panelRegions = panelRegions;
         this.highConfidenceRegions = highConfidenceRegions;
-        this.candidateEvidence = new CandidateEvidence(config, hotspots, panelRegions, samSlicerFactory, refGenome, coverage);
+        this.fusedScanBudget = fusedScanBudget;
+        this.candidateEvidence = new CandidateEvidence(config, hotspots, panelRegions, samSlicerFactory, samReaderPool, coverage, metrics);
     }
 
     @NotNull
     public CompletableFuture<List<Candidate>> candidates(@NotNull final GenomeRegion region,
-            final CompletableFuture<RefSequence> refSequenceFuture) {
+            final CompletableFuture<RefSequence> refSequenceFuture, @NotNull final Map<String, SamRecordBuffer> tumorReadBuffers) {
         return refSequenceFuture.thenCompose(refSequence -> {
             if (region.start() == 1) {
                 LOGGER.info("Processing chromosome {}", region.chromosome());
             }
             LOGGER.debug("Processing candidates in {}:{}", region.chromosome(), region.start());
 
-            final Candidates initialCandidates = new Candidates(hotspots, panelRegions, highConfidenceRegions);
-
-            CompletableFuture<Void> done = CompletableFuture.completedFuture(null);
+            // Scan each tumor concurrently then merge the candidates in sample order
+            final List<CompletableFuture<List<AltContext>>> sampleCandidates = Lists.newArrayList();
             for (int i = 0; i < config.tumor().size(); i++) {
                 final String sample = config.tumor().get(i);
                 final String sampleBam = config.tumorBam().get(i);
-                done = done.thenApply(aVoid -> candidateEvidence.get(sample, sampleBam, refSequence, region))
-                        .thenAccept(initialCandidates::add);
+                final SamRecordBuffer readBuffer = readBuffer(sample, tumorReadBuffers);
+                sampleCandidates.add(CompletableFuture.supplyAsync(() -> candidateEvidence.get(sample,
+                        sampleBam,
+                        refSequence,
+                        region,
+                        readBuffer), executor));
             }
-            return done.thenApply(y -> initialCandidates.candidates());
+
+            return CompletableFuture.allOf(sampleCandidates.toArray(new CompletableFuture[0])).thenApply(y -> {
+                final Candidates initialCandidates = new Candidates(hotspots, panelRegions, highConfidenceRegions);
+                sampleCandidates.forEach(altContexts -> initialCandidates.add(altContexts.join()));
+                return initialCandidates.candidates();
+            });
         });
     }
 
+    @Nullable
+    private SamRecordBuffer readBuffer(@NotNull final String sample, @NotNull final Map<String, SamRecordBuffer> tumorReadBuffers) {
+        if (!config.fusedScan()) {
+            return null;
+        }
+
+        final SamRecordBuffer buffer = new SamRecordBuffer(fusedScanBudget);
+        tumorReadBuffers.put(sample, buffer);
+        return buffer;
+    }
+
 }
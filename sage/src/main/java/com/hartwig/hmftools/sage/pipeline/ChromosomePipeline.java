@@ -1,7 +1,5 @@
 package com.hartwig.hmftools.sage.pipeline;
 
-import java.io.File;
-import java.io.IOException;
 import java.util.Comparator;
 import java.util.EnumSet;
 import java.util.Iterator;
@@ -19,9 +17,12 @@ import com.hartwig.hmftools.common.genome.region.GenomeRegion;
 import com.hartwig.hmftools.common.variant.hotspot.VariantHotspot;
 import com.hartwig.hmftools.sage.config.SageConfig;
 import com.hartwig.hmftools.sage.coverage.Coverage;
+import com.hartwig.hmftools.sage.metrics.SageMetrics;
 import com.hartwig.hmftools.sage.phase.Phase;
 import com.hartwig.hmftools.sage.quality.QualityRecalibrationMap;
 import com.hartwig.hmftools.sage.read.ReadContextCounter;
+import com.hartwig.hmftools.sage.sam.SamReadBudget;
+import com.hartwig.hmftools.sage.sam.SamReaderPool;
 import com.hartwig.hmftools.sage.variant.SageVariant;
 import com.hartwig.hmftools.sage.variant.SageVariantContextFactory;
 import com.hartwig.hmftools.sage.variant.SageVariantTier;
@@ -30,10 +31,10 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.jetbrains.annotations.NotNull;
 
-import htsjdk.samtools.reference.IndexedFastaSequenceFile;
+import htsjdk.samtools.reference.ReferenceSequenceFile;
 import htsjdk.variant.variantcontext.VariantContext;
 
-public class ChromosomePipeline implements AutoCloseable {
+public class ChromosomePipeline {
 
     private static final Logger LOGGER = LogManager.getLogger(ChromosomePipeline.class);
     private static final EnumSet<SageVariantTier> PANEL_ONLY_TIERS = EnumSet.of(SageVariantTier.HOTSPOT, SageVariantTier.PANEL);
@@ -41,28 +42,33 @@ public class ChromosomePipeline implements AutoCloseable {
     private final String chromosome;
     private final SageConfig config;
     private final List<RegionFuture<List<SageVariant>>> regions = Lists.newArrayList();
-    private final IndexedFastaSequenceFile refGenome;
     private final SageVariantPipeline sageVariantPipeline;
     private final Consumer<VariantContext> consumer;
     private final ChromosomePartition partition;
     private final Phase phase;
+    private final SageMetrics metrics;
 
     public ChromosomePipeline(@NotNull final String chromosome, @NotNull final SageConfig config, @NotNull final Executor executor,
+            @NotNull final ReferenceSequenceFile refGenome, @NotNull final SamReaderPool samReaderPool,
             @NotNull final List<VariantHotspot> hotspots, @NotNull final List<GenomeRegion> panelRegions,
             @NotNull final List<GenomeRegion> highConfidenceRegions, final Map<String, QualityRecalibrationMap> qualityRecalibrationMap,
-            @NotNull final Coverage coverage, final Consumer<VariantContext> consumer) throws IOException {
+            @NotNull final Coverage coverage, @NotNull final SamReadBudget fusedScanBudget, @NotNull final SageMetrics metrics,
+            final Consumer<VariantContext> consumer) {
         this.chromosome = chromosome;
         this.config = config;
-        this.refGenome = new IndexedFastaSequenceFile(new File(config.refGenome()));
         this.consumer = consumer;
+        this.metrics = metrics;
         this.sageVariantPipeline = new SomaticPipeline(config,
                 executor,
                 refGenome,
+                samReaderPool,
                 hotspots,
                 panelRegions,
                 highConfidenceRegions,
                 qualityRecalibrationMap,
-                coverage);
+                coverage,
+                fusedScanBudget,
+                metrics);
         this.partition = new ChromosomePartition(config, refGenome);
         this.phase = new Phase(config, chromosome, this::write);
     }
@@ -73,27 +79,35 @@ public class ChromosomePipeline implements AutoCloseable {
     }
 
     public void process() throws ExecutionException, InterruptedException {
-        for (GenomeRegion region : partition.partition(chromosome)) {
-            final CompletableFuture<List<SageVariant>> future = sageVariantPipeline.variants(region);
-            final RegionFuture<List<SageVariant>> regionFuture = new RegionFuture<>(region, future);
-            regions.add(regionFuture);
+        for (GenomeRegion region : regions()) {
+            submit(region);
         }
 
-        submit().get();
+        complete().get();
     }
 
     public void process(int minPosition, int maxPosition) throws ExecutionException, InterruptedException {
         for (GenomeRegion region : partition.partition(chromosome, minPosition, maxPosition)) {
-            final CompletableFuture<List<SageVariant>> future = sageVariantPipeline.variants(region);
-            final RegionFuture<List<SageVariant>> regionFuture = new RegionFuture<>(region, future);
-            regions.add(regionFuture);
+            submit(region);
         }
 
-        submit().get();
+        complete().get();
     }
 
     @NotNull
-    private CompletableFuture<ChromosomePipeline> submit() {
+    public List<GenomeRegion> regions() {
+        return partition.partition(chromosome);
+    }
+
+    @NotNull
+    public CompletableFuture<List<SageVariant>> submit(@NotNull final GenomeRegion region) {
+        final CompletableFuture<List<SageVariant>> future = sageVariantPipeline.variants(region);
+        regions.add(new RegionFuture<>(region, future));
+        return future;
+    }
+
+    @NotNull
+    public CompletableFuture<ChromosomePipeline> complete() {
         // Even if regions were executed out of order, they must be phased in order
         regions.sort(Comparator.comparing(RegionFuture::region));
 
@@ -104,8 +118,9 @@ public class ChromosomePipeline implements AutoCloseable {
         while (regionsIterator.hasNext()) {
             CompletableFuture<List<SageVariant>> region = regionsIterator.next().future();
             done = done.thenCombine(region, (aVoid, sageVariants) -> {
-
+                final SageMetrics.Timer timer = SageMetrics.start();
                 sageVariants.forEach(phase);
+                metrics.record(SageMetrics.Stage.PHASE, timer, 0, sageVariants.size());
                 return null;
             });
 
@@ -113,7 +128,9 @@ public class ChromosomePipeline implements AutoCloseable {
         }
 
         return done.thenApply(aVoid -> {
+            final SageMetrics.Timer timer = SageMetrics.start();
             phase.flush();
+            metrics.record(SageMetrics.Stage.PHASE, timer, 0, 0);
             LOGGER.info("Processing chromosome {} complete", chromosome);
             return ChromosomePipeline.this;
         });
@@ -158,11 +175,6 @@ public class ChromosomePipeline implements AutoCloseable {
         return true;
     }
 
-    @Override
-    public void close() throws IOException {
-        refGenome.close();
-    }
-
     private static class RegionFuture<T> {
 
         private final CompletableFuture<T> future;
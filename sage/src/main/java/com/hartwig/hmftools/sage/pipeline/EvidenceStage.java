@@ -1,45 +1,68 @@
 package com.hartwig.hmftools.sage.pipeline;
 
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
+import com.google.common.collect.Lists;
+import com.hartwig.hmftools.common.genome.region.GenomeRegion;
 import com.hartwig.hmftools.sage.candidate.Candidate;
 import com.hartwig.hmftools.sage.config.SageConfig;
 import com.hartwig.hmftools.sage.evidence.ReadContextEvidence;
+import com.hartwig.hmftools.sage.metrics.SageMetrics;
 import com.hartwig.hmftools.sage.quality.QualityRecalibrationMap;
+import com.hartwig.hmftools.sage.read.ReadContextCounter;
 import com.hartwig.hmftools.sage.read.ReadContextCounters;
+import com.hartwig.hmftools.sage.sam.SamReaderPool;
+import com.hartwig.hmftools.sage.sam.SamRecordBuffer;
 
 import org.jetbrains.annotations.NotNull;
 
-import htsjdk.samtools.reference.ReferenceSequenceFile;
-
 public class EvidenceStage {
 
+    private final Executor executor;
     private final ReadContextEvidence readContextEvidence;
 
-    public EvidenceStage(@NotNull final SageConfig config, @NotNull final ReferenceSequenceFile refGenome,
-            @NotNull final Map<String, QualityRecalibrationMap> qualityRecalibrationMap) {
-        this.readContextEvidence = new ReadContextEvidence(config, refGenome, qualityRecalibrationMap);
+    public EvidenceStage(@NotNull final SageConfig config, @NotNull final Executor executor, @NotNull final SamReaderPool samReaderPool,
+            @NotNull final Map<String, QualityRecalibrationMap> qualityRecalibrationMap, @NotNull final SageMetrics metrics) {
+        this.executor = executor;
+        this.readContextEvidence = new ReadContextEvidence(config, samReaderPool, qualityRecalibrationMap, metrics);
     }
 
     @NotNull
-    public CompletableFuture<ReadContextCounters> evidence(@NotNull final List<String> samples, @NotNull final List<String> sampleBams, @NotNull final CompletableFuture<List<Candidate>> candidates) {
-        // Scan tumors for evidence
+    public CompletableFuture<ReadContextCounters> evidence(@NotNull final GenomeRegion region, @NotNull final List<String> samples,
+            @NotNull final List<String> sampleBams, @NotNull final CompletableFuture<List<Candidate>> candidates) {
+        return evidence(region, samples, sampleBams, candidates, Collections.emptyMap());
+    }
+
+    @NotNull
+    public CompletableFuture<ReadContextCounters> evidence(@NotNull final GenomeRegion region, @NotNull final List<String> samples,
+            @NotNull final List<String> sampleBams, @NotNull final CompletableFuture<List<Candidate>> candidates,
+            @NotNull final Map<String, SamRecordBuffer> readBuffers) {
+        // Scan each sample concurrently then merge the counters in sample order
         return candidates.thenCompose(initialCandidates -> {
             final String primarySample = samples.isEmpty() ? "PRIMARY" : samples.get(0);
 
-            final ReadContextCounters result = new ReadContextCounters(primarySample, initialCandidates);
-
-            CompletableFuture<Void> done = CompletableFuture.completedFuture(null);
+            final List<CompletableFuture<List<ReadContextCounter>>> sampleCounters = Lists.newArrayList();
             for (int i = 0; i < samples.size(); i++) {
                 final String sample = samples.get(i);
                 final String sampleBam = sampleBams.get(i);
 
-                done = done.thenApply(x -> readContextEvidence.get(initialCandidates, sample, sampleBam)).thenAccept(result::addCounters);
+                sampleCounters.add(CompletableFuture.supplyAsync(() -> {
+                    final SamRecordBuffer buffer = readBuffers.get(sample);
+                    return buffer != null && buffer.isComplete()
+                            ? readContextEvidence.get(region, initialCandidates, sample, buffer)
+                            : readContextEvidence.get(region, initialCandidates, sample, sampleBam);
+                }, executor));
             }
 
-            return done.thenApply(x -> result);
+            return CompletableFuture.allOf(sampleCounters.toArray(new CompletableFuture[0])).thenApply(x -> {
+                final ReadContextCounters result = new ReadContextCounters(primarySample, initialCandidates);
+                sampleCounters.forEach(counters -> result.addCounters(counters.join()));
+                return result;
+            });
         });
     }
 
@@ -0,0 +1,52 @@
+package com.hartwig.hmftools.sage.pipeline;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Writes the results of regions processed in parallel in the order the regions were submitted, whatever the order they complete in.
+ * Submission blocks while the maximum number of regions are submitted but not yet written.
+ */
+public class OrderedRegionWriter<T> {
+
+    private final Semaphore regionsInFlight;
+    private final Consumer<List<T>> writer;
+    private CompletableFuture<Void> written = CompletableFuture.completedFuture(null);
+
+    public OrderedRegionWriter(int maxRegionsInFlight, @NotNull final Consumer<List<T>> writer) {
+        this.regionsInFlight = new Semaphore(maxRegionsInFlight);
+        this.writer = writer;
+    }
+
+    public void submit(@NotNull final Supplier<CompletableFuture<List<T>>> region) throws InterruptedException {
+        regionsInFlight.acquire();
+        final CompletableFuture<List<T>> result;
+        try {
+            result = region.get();
+        } catch (RuntimeException e) {
+            regionsInFlight.release();
+            throw e;
+        }
+
+        written = written.thenCombine(result, (aVoid, x) -> {
+            writer.accept(x);
+            return null;
+        });
+        written.whenComplete((aVoid, throwable) -> regionsInFlight.release());
+    }
+
+    // Once any region fails so does the chain of writes, after which there is no point submitting more
+    public boolean isFailed() {
+        return written.isCompletedExceptionally();
+    }
+
+    public void await() throws ExecutionException, InterruptedException {
+        written.get();
+    }
+}
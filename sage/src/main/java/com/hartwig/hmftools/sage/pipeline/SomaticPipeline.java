@@ -8,15 +8,20 @@ import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executor;
 
 import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
 import com.hartwig.hmftools.common.genome.region.GenomeRegion;
 import com.hartwig.hmftools.common.variant.hotspot.VariantHotspot;
 import com.hartwig.hmftools.sage.candidate.Candidate;
 import com.hartwig.hmftools.sage.config.SageConfig;
 import com.hartwig.hmftools.sage.coverage.Coverage;
+import com.hartwig.hmftools.sage.metrics.SageMetrics;
 import com.hartwig.hmftools.sage.quality.QualityRecalibrationMap;
 import com.hartwig.hmftools.sage.read.ReadContextCounter;
 import com.hartwig.hmftools.sage.read.ReadContextCounters;
 import com.hartwig.hmftools.sage.ref.RefSequence;
+import com.hartwig.hmftools.sage.sam.SamReadBudget;
+import com.hartwig.hmftools.sage.sam.SamReaderPool;
+import com.hartwig.hmftools.sage.sam.SamRecordBuffer;
 import com.hartwig.hmftools.sage.variant.SageVariant;
 import com.hartwig.hmftools.sage.variant.SageVariantFactory;
 
@@ -35,30 +40,41 @@ public class SomaticPipeline implements SageVariantPipeline {
     private final ReferenceSequenceFile refGenome;
     private final CandidateStage candidateState;
     private final EvidenceStage evidenceStage;
+    private final SageMetrics metrics;
 
     SomaticPipeline(@NotNull final SageConfig config, @NotNull final Executor executor, @NotNull final ReferenceSequenceFile refGenome,
+            @NotNull final SamReaderPool samReaderPool,
             @NotNull final List<VariantHotspot> hotspots, @NotNull final List<GenomeRegion> panelRegions,
             @NotNull final List<GenomeRegion> highConfidenceRegions,
             @NotNull final Map<String, QualityRecalibrationMap> qualityRecalibrationMap,
-            @NotNull final Coverage coverage) {
+            @NotNull final Coverage coverage, @NotNull final SamReadBudget fusedScanBudget, @NotNull final SageMetrics metrics) {
         this.config = config;
+        this.metrics = metrics;
         this.executor = executor;
         this.refGenome = refGenome;
-        this.candidateState = new CandidateStage(config, refGenome, hotspots, panelRegions, highConfidenceRegions, coverage);
-        this.evidenceStage = new EvidenceStage(config, refGenome, qualityRecalibrationMap);
+        this.candidateState = new CandidateStage(config, executor, samReaderPool, hotspots, panelRegions, highConfidenceRegions, coverage,
+                fusedScanBudget, metrics);
+        this.evidenceStage = new EvidenceStage(config, executor, samReaderPool, qualityRecalibrationMap, metrics);
     }
 
     @NotNull
     public CompletableFuture<List<SageVariant>> variants(@NotNull final GenomeRegion region) {
         final CompletableFuture<RefSequence> refSequenceFuture = supplyAsync(() -> new RefSequence(region, refGenome), executor);
 
-        final CompletableFuture<List<Candidate>> initialCandidates = candidateState.candidates(region, refSequenceFuture);
+        // Only populated in fused scan mode, released once tumor evidence is collected
+        final Map<String, SamRecordBuffer> tumorReadBuffers = Maps.newConcurrentMap();
+
+        final CompletableFuture<List<Candidate>> initialCandidates = candidateState.candidates(region, refSequenceFuture, tumorReadBuffers);
         final CompletableFuture<ReadContextCounters> tumorEvidence =
-                evidenceStage.evidence(config.tumor(), config.tumorBam(), initialCandidates);
+                evidenceStage.evidence(region, config.tumor(), config.tumorBam(), initialCandidates, tumorReadBuffers)
+                        .whenComplete((x, e) -> {
+                            tumorReadBuffers.values().forEach(SamRecordBuffer::release);
+                            tumorReadBuffers.clear();
+                        });
 
         final CompletableFuture<List<Candidate>> finalCandidates = filteredCandidates(tumorEvidence);
         final CompletableFuture<ReadContextCounters> normalEvidence =
-                evidenceStage.evidence(config.reference(), config.referenceBam(), finalCandidates);
+                evidenceStage.evidence(region, config.reference(), config.referenceBam(), finalCandidates);
 
         return combine(region, finalCandidates, tumorEvidence, normalEvidence);
     }
@@ -80,6 +96,7 @@ public class SomaticPipeline implements SageVariantPipeline {
                 result.add(sageVariant);
             }
 
+            metrics.completeRegion(region, result.size());
             return result;
         });
     }
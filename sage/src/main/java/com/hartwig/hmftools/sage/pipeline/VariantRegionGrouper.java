@@ -0,0 +1,104 @@
+package com.hartwig.hmftools.sage.pipeline;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+import com.hartwig.hmftools.common.genome.region.GenomeRegion;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import htsjdk.variant.variantcontext.VariantContext;
+
+/**
+ * Groups a position sorted stream of variants by the partition region each starts in, so that the input can be processed one region
+ * at a time. A variant that extends past the end of its region stays with the region it starts in. Regions without variants are
+ * skipped. Input that is not sorted by position, including a contig that reappears after another, is rejected.
+ */
+public class VariantRegionGrouper {
+
+    private final Function<String, List<GenomeRegion>> partition;
+    private final Set<String> completeContigs = Sets.newHashSet();
+
+    private List<GenomeRegion> regions = Collections.emptyList();
+    private int regionIndex;
+    private List<VariantContext> variants = Lists.newArrayList();
+
+    public VariantRegionGrouper(@NotNull final Function<String, List<GenomeRegion>> partition) {
+        this.partition = partition;
+    }
+
+    /**
+     * Adds the variant, returning the variants of the previous region if this variant starts a later one.
+     */
+    @Nullable
+    public RegionVariants add(@NotNull final VariantContext variant) {
+        final String contig = variant.getContig();
+        final boolean newContig = regions.isEmpty() || !regions.get(0).chromosome().equals(contig);
+
+        RegionVariants result = null;
+        if (newContig || variant.getStart() > regions.get(regionIndex).end()) {
+            result = complete();
+
+            if (newContig) {
+                if (!regions.isEmpty()) {
+                    completeContigs.add(regions.get(0).chromosome());
+                }
+                if (completeContigs.contains(contig)) {
+                    throw new IllegalArgumentException("Input VCF must be sorted by position, " + contig + " is not contiguous");
+                }
+                regions = partition.apply(contig);
+                regionIndex = 0;
+            }
+
+            while (regionIndex < regions.size() - 1 && variant.getStart() > regions.get(regionIndex).end()) {
+                regionIndex++;
+            }
+        } else if (variant.getStart() < regions.get(regionIndex).start()) {
+            throw new IllegalArgumentException(
+                    "Input VCF must be sorted by position, found " + contig + ":" + variant.getStart() + " out of order");
+        }
+
+        variants.add(variant);
+        return result;
+    }
+
+    /**
+     * Returns the variants of the current region, if any.
+     */
+    @Nullable
+    public RegionVariants complete() {
+        if (variants.isEmpty()) {
+            return null;
+        }
+
+        final RegionVariants result = new RegionVariants(regions.get(regionIndex), variants);
+        variants = Lists.newArrayList();
+        return result;
+    }
+
+    public static class RegionVariants {
+
+        private final GenomeRegion region;
+        private final List<VariantContext> variants;
+
+        private RegionVariants(@NotNull final GenomeRegion region, @NotNull final List<VariantContext> variants) {
+            this.region = region;
+            this.variants = variants;
+        }
+
+        @NotNull
+        public GenomeRegion region() {
+            return region;
+        }
+
+        @NotNull
+        public List<VariantContext> variants() {
+            return variants;
+        }
+    }
+}
@@ -8,7 +8,6 @@ import java.util.List;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
-import java.util.concurrent.Future;
 
 import com.google.common.collect.Lists;
 import com.hartwig.hmftools.common.cli.Configs;
@@ -24,9 +23,6 @@ import org.apache.logging.log4j.Logger;
 import org.jetbrains.annotations.NotNull;
 
 import htsjdk.samtools.SAMSequenceDictionary;
-import htsjdk.samtools.SAMSequenceRecord;
-import htsjdk.samtools.util.CloseableIterator;
-import htsjdk.variant.variantcontext.VariantContext;
 import htsjdk.variant.vcf.VCFFileReader;
 
 public class PonApplication implements AutoCloseable {
@@ -57,7 +53,7 @@ public class PonApplication implements AutoCloseable {
     }
 
     private final PonVCF vcf;
-    private final String input;
+    private final int threads;
     private final List<File> files;
     private final ExecutorService executorService;
 
@@ -66,7 +62,7 @@ public class PonApplication implements AutoCloseable {
         LOGGER.info("Output: {}", output);
 
         executorService = Executors.newFixedThreadPool(threads);
-        this.input = input;
+        this.threads = threads;
 
         files = Lists.newArrayList();
         for (Path path : Files.newDirectoryStream(new File(input).toPath(), GLOB)) {
@@ -82,39 +78,11 @@ public class PonApplication implements AutoCloseable {
             return;
         }
 
-        final VCFFileReader dictionaryReader = new VCFFileReader(files.get(0), true);
+        final VCFFileReader dictionaryReader = new VCFFileReader(files.get(0), false);
         SAMSequenceDictionary dictionary = dictionaryReader.getFileHeader().getSequenceDictionary();
         dictionaryReader.close();
 
-        for (SAMSequenceRecord samSequenceRecord : dictionary.getSequences()) {
-            LOGGER.info("Processing sequence {}", samSequenceRecord.getSequenceName());
-            final PonBuilder ponBuilder = new PonBuilder();
-            final RunnableTaskCompletion runnableTaskCompletion = new RunnableTaskCompletion();
-
-            List<Future<?>> contigFutures = Lists.newArrayList();
-
-            for (Path file : Files.newDirectoryStream(new File(input).toPath(), GLOB)) {
-                Runnable runnable = () -> addVariantsFromFileToBuilder(ponBuilder, samSequenceRecord, file);
-                contigFutures.add(executorService.submit(runnableTaskCompletion.task(runnable)));
-            }
-
-            for (Future<?> contigFuture : contigFutures) {
-                contigFuture.get();
-            }
-
-            vcf.write(ponBuilder.build());
-        }
-    }
-
-    private void addVariantsFromFileToBuilder(final PonBuilder ponBuilder, final SAMSequenceRecord samSequenceRecord, final Path file) {
-        try (VCFFileReader fileReader = new VCFFileReader(file.toFile(), true)) {
-            CloseableIterator<VariantContext> iter =
-                    fileReader.query(samSequenceRecord.getSequenceName(), 1, samSequenceRecord.getSequenceLength());
-            while (iter.hasNext()) {
-                ponBuilder.add(iter.next());
-            }
-            iter.close();
-        }
+        new PonMerge(dictionary, executorService, threads).run(files, vcf::write);
     }
 
     @NotNull
@@ -7,6 +7,7 @@ import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
 import com.google.common.collect.Lists;
+import com.hartwig.hmftools.common.genome.position.GenomePosition;
 import com.hartwig.hmftools.common.variant.hotspot.ImmutableVariantHotspotImpl;
 import com.hartwig.hmftools.common.variant.hotspot.VariantHotspot;
 import com.hartwig.hmftools.sage.vcf.SageVCF;
@@ -23,13 +24,30 @@ public class PonBuilder {
     private static final int MIN_OUTPUT_COUNT = 2;
     private static final int MIN_INPUT_ALLELIC_DEPTH = 3;
 
+    // Variants at the same position are ordered by ref then alt so that output does not depend on hashing
+    static final Comparator<VariantHotspot> SITE_ORDER =
+            Comparator.<VariantHotspot, GenomePosition>comparing(x -> x).thenComparing(VariantHotspot::ref).thenComparing(VariantHotspot::alt);
+
     private final Map<VariantHotspot, Counter> map = new java.util.concurrent.ConcurrentHashMap<>();
 
     public void add(@NotNull final VariantContext context) {
         final VariantHotspot hotspot = hotspot(context);
-        final Counter counter = map.computeIfAbsent(hotspot, Counter::new);
+        add(map.computeIfAbsent(hotspot, Counter::new), context);
+    }
+
+    @NotNull
+    public List<VariantContext> build() {
+        return map.values()
+                .stream()
+                .filter(PonBuilder::isOutput)
+                .sorted(Comparator.comparing(o -> o.hotspot, SITE_ORDER))
+                .map(PonBuilder::context)
+                .collect(Collectors.toList());
+    }
+
+    static void add(@NotNull final Counter counter, @NotNull final VariantContext context) {
         final Genotype genotype = context.getGenotype(0);
-        if (!hotspot.ref().contains("N") && genotype.hasExtendedAttribute(SageVCF.RAW_ALLELIC_DEPTH)) {
+        if (!counter.hotspot.ref().contains("N") && genotype.hasExtendedAttribute(SageVCF.RAW_ALLELIC_DEPTH)) {
             String rawDepth = (String) genotype.getExtendedAttribute(SageVCF.RAW_ALLELIC_DEPTH);
             int allelicDepth = Integer.parseInt(rawDepth.split(",")[1]);
             if (allelicDepth >= MIN_INPUT_ALLELIC_DEPTH) {
@@ -38,18 +56,12 @@ public class PonBuilder {
         }
     }
 
-    @NotNull
-    public List<VariantContext> build() {
-        return map.values()
-                .stream()
-                .filter(x -> x.counter() >= MIN_OUTPUT_COUNT)
-                .sorted(Comparator.comparing(o -> o.hotspot))
-                .map(PonBuilder::context)
-                .collect(Collectors.toList());
+    static boolean isOutput(@NotNull final Counter counter) {
+        return counter.counter() >= MIN_OUTPUT_COUNT;
     }
 
     @NotNull
-    private static VariantHotspot hotspot(@NotNull final VariantContext context) {
+    static VariantHotspot hotspot(@NotNull final VariantContext context) {
         return ImmutableVariantHotspotImpl.builder()
                 .chromosome(context.getContig())
                 .position(context.getStart())
@@ -59,7 +71,7 @@ public class PonBuilder {
     }
 
     @NotNull
-    private static VariantContext context(@NotNull final Counter counter) {
+    static VariantContext context(@NotNull final Counter counter) {
         final Allele ref = Allele.create(counter.hotspot.ref(), true);
         final Allele alt = Allele.create(counter.hotspot.alt(), false);
         final List<Allele> alleles = Lists.newArrayList(ref, alt);
@@ -84,10 +96,21 @@ public class PonBuilder {
             this.hotspot = hotspot;
         }
 
+        @NotNull
+        VariantHotspot hotspot() {
+            return hotspot;
+        }
+
         public int counter() {
             return counter.intValue();
         }
 
+        void add(@NotNull final Counter other) {
+            counter.addAndGet(other.counter.get());
+            total.addAndGet(other.total.get());
+            max.set(Integer.max(max.get(), other.max.get()));
+        }
+
         void increment(int depth) {
             counter.incrementAndGet();
             total.addAndGet(depth);
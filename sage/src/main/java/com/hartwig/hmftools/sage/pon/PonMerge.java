@@ -0,0 +1,274 @@
+package com.hartwig.hmftools.sage.pon;
+
+import java.io.File;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+import com.google.common.collect.Lists;
+import com.hartwig.hmftools.common.variant.hotspot.VariantHotspot;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import htsjdk.samtools.SAMSequenceDictionary;
+import htsjdk.samtools.util.CloseableIterator;
+import htsjdk.variant.variantcontext.VariantContext;
+import htsjdk.variant.vcf.VCFFileReader;
+
+/**
+ * Builds the PON with a single sequential pass over every input. Inputs are split into groups, each group is k-way merged in
+ * coordinate order on its own thread into per site counts, and the sorted output of each group is merged again on the calling thread.
+ * Only the current site of each input and a bounded number of batches per group are held in memory.
+ */
+class PonMerge {
+
+    private static final Logger LOGGER = LogManager.getLogger(PonMerge.class);
+
+    private static final int BATCH_SIZE = 1000;
+    private static final int BATCHES_PER_GROUP = 16;
+
+    private final SAMSequenceDictionary dictionary;
+    private final ExecutorService executorService;
+    private final int groups;
+    private final Comparator<PonBuilder.Counter> siteOrder;
+
+    PonMerge(@NotNull final SAMSequenceDictionary dictionary, @NotNull final ExecutorService executorService, int groups) {
+        this.dictionary = dictionary;
+        this.executorService = executorService;
+        this.groups = groups;
+        this.siteOrder = Comparator.<PonBuilder.Counter>comparingInt(x -> dictionary.getSequenceIndex(x.hotspot().chromosome()))
+                .thenComparing(PonBuilder.Counter::hotspot, PonBuilder.SITE_ORDER);
+    }
+
+    void run(@NotNull final List<File> files, @NotNull final Consumer<VariantContext> consumer)
+            throws ExecutionException, InterruptedException {
+        final List<Future<?>> futures = Lists.newArrayList();
+        final List<GroupOutput> groupOutputs = Lists.newArrayList();
+
+        // Each group needs its own thread as the merge below waits on all of them
+        final int groupCount = Math.max(1, Math.min(groups, files.size()));
+        for (int i = 0; i < groupCount; i++) {
+            final List<File> group = Lists.newArrayList();
+            for (int j = i; j < files.size(); j += groupCount) {
+                group.add(files.get(j));
+            }
+
+            final BlockingQueue<List<PonBuilder.Counter>> queue = new ArrayBlockingQueue<>(BATCHES_PER_GROUP);
+            futures.add(executorService.submit(() -> mergeGroup(group, queue)));
+            groupOutputs.add(new GroupOutput(queue));
+        }
+
+        boolean complete = false;
+        try {
+            merge(groupOutputs, consumer);
+            complete = true;
+        } finally {
+            if (!complete) {
+                futures.forEach(x -> x.cancel(true));
+            }
+        }
+
+        for (Future<?> future : futures) {
+            future.get();
+        }
+    }
+
+    private void merge(@NotNull final List<GroupOutput> groupOutputs, @NotNull final Consumer<VariantContext> consumer)
+            throws InterruptedException {
+        final PriorityQueue<GroupOutput> outputs = new PriorityQueue<>((o1, o2) -> siteOrder.compare(o1.current, o2.current));
+        for (GroupOutput output : groupOutputs) {
+            if (output.next()) {
+                outputs.add(output);
+            }
+        }
+
+        String contig = null;
+        while (!outputs.isEmpty()) {
+            final GroupOutput first = outputs.poll();
+            final PonBuilder.Counter site = first.current;
+            if (first.next()) {
+                outputs.add(first);
+            }
+
+            while (!outputs.isEmpty() && siteOrder.compare(outputs.peek().current, site) == 0) {
+                final GroupOutput other = outputs.poll();
+                site.add(other.current);
+                if (other.next()) {
+                    outputs.add(other);
+                }
+            }
+
+            if (!site.hotspot().chromosome().equals(contig)) {
+                contig = site.hotspot().chromosome();
+                LOGGER.info("Processing sequence {}", contig);
+            }
+
+            if (PonBuilder.isOutput(site)) {
+                consumer.accept(PonBuilder.context(site));
+            }
+        }
+    }
+
+    private void mergeGroup(@NotNull final List<File> files, @NotNull final BlockingQueue<List<PonBuilder.Counter>> queue) {
+        final List<Input> inputs = Lists.newArrayList();
+        List<PonBuilder.Counter> batch = Lists.newArrayListWithExpectedSize(BATCH_SIZE);
+        try {
+            final PriorityQueue<Input> pending = new PriorityQueue<>();
+            for (File file : files) {
+                final Input input = new Input(file);
+                inputs.add(input);
+                if (input.next()) {
+                    pending.add(input);
+                }
+            }
+
+            // Collect every record at the next position then emit its sites in order
+            final List<PonBuilder.Counter> position = Lists.newArrayList();
+            while (!pending.isEmpty()) {
+                final int contigIndex = pending.peek().contigIndex;
+                final int start = pending.peek().current.getStart();
+
+                while (!pending.isEmpty() && pending.peek().contigIndex == contigIndex && pending.peek().current.getStart() == start) {
+                    final Input input = pending.poll();
+                    add(position, input.current);
+                    if (input.next()) {
+                        pending.add(input);
+                    }
+                }
+
+                position.sort(Comparator.comparing(PonBuilder.Counter::hotspot, PonBuilder.SITE_ORDER));
+                for (PonBuilder.Counter counter : position) {
+                    batch.add(counter);
+                    if (batch.size() >= BATCH_SIZE) {
+                        queue.put(batch);
+                        batch = Lists.newArrayListWithExpectedSize(BATCH_SIZE);
+                    }
+                }
+                position.clear();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        } finally {
+            inputs.forEach(Input::close);
+            end(queue, batch);
+        }
+    }
+
+    private static void add(@NotNull final List<PonBuilder.Counter> position, @NotNull final VariantContext context) {
+        final VariantHotspot hotspot = PonBuilder.hotspot(context);
+        PonBuilder.Counter counter = null;
+        for (PonBuilder.Counter existing : position) {
+            if (existing.hotspot().equals(hotspot)) {
+                counter = existing;
+                break;
+            }
+        }
+
+        if (counter == null) {
+            counter = new PonBuilder.Counter(hotspot);
+            position.add(counter);
+        }
+
+        PonBuilder.add(counter, context);
+    }
+
+    private static void end(@NotNull final BlockingQueue<List<PonBuilder.Counter>> queue, @NotNull final List<PonBuilder.Counter> batch) {
+        try {
+            if (!batch.isEmpty()) {
+                queue.put(batch);
+            }
+            // An empty batch marks the end of the group
+            queue.put(Collections.emptyList());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private class Input implements Comparable<Input> {
+
+        private final File file;
+        private final VCFFileReader reader;
+        private final CloseableIterator<VariantContext> iterator;
+
+        private VariantContext current;
+        private int contigIndex;
+
+        Input(@NotNull final File file) {
+            this.file = file;
+            this.reader = new VCFFileReader(file, false);
+            this.iterator = reader.iterator();
+        }
+
+        boolean next() {
+            while (iterator.hasNext()) {
+                final VariantContext next = iterator.next();
+                final int nextContigIndex = dictionary.getSequenceIndex(next.getContig());
+                if (nextContigIndex < 0) {
+                    continue;
+                }
+
+                if (current != null && (nextContigIndex < contigIndex
+                        || nextContigIndex == contigIndex && next.getStart() < current.getStart())) {
+                    throw new IllegalStateException(
+                            "Input " + file + " is not sorted in reference order at " + next.getContig() + ":" + next.getStart());
+                }
+
+                current = next;
+                contigIndex = nextContigIndex;
+                return true;
+            }
+            return false;
+        }
+
+        void close() {
+            iterator.close();
+            reader.close();
+        }
+
+        @Override
+        public int compareTo(@NotNull final Input other) {
+            if (contigIndex != other.contigIndex) {
+                return Integer.compare(contigIndex, other.contigIndex);
+            }
+            return Integer.compare(current.getStart(), other.current.getStart());
+        }
+    }
+
+    private static class GroupOutput {
+
+        private final BlockingQueue<List<PonBuilder.Counter>> queue;
+        private Iterator<PonBuilder.Counter> batch = Collections.emptyIterator();
+        @Nullable
+        private PonBuilder.Counter current;
+
+        GroupOutput(@NotNull final BlockingQueue<List<PonBuilder.Counter>> queue) {
+            this.queue = queue;
+        }
+
+        boolean next() throws InterruptedException {
+            while (!batch.hasNext()) {
+                final List<PonBuilder.Counter> nextBatch = queue.take();
+                if (nextBatch.isEmpty()) {
+                    current = null;
+                    return false;
+                }
+                batch = nextBatch.iterator();
+            }
+
+            current = batch.next();
+            return true;
+        }
+    }
+}
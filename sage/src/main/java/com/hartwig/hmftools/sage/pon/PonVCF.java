@@ -40,6 +40,10 @@ public class PonVCF implements AutoCloseable {
         contexts.forEach(writer::add);
     }
 
+    public void write(@NotNull final VariantContext context) {
+        writer.add(context);
+    }
+
     @Override
     public void close() {
         writer.close();
@@ -87,6 +87,6 @@ class QualityCounter implements QualityCounterKey, Comparable<QualityCounter> {
             return triThree;
         }
 
-        return 0;
+        return Byte.compare(this.qual(), o2.qual());
     }
 }
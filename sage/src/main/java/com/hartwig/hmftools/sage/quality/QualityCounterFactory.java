@@ -1,6 +1,5 @@
 package com.hartwig.hmftools.sage.quality;
 
-import java.io.File;
 import java.util.Collection;
 import java.util.concurrent.CompletionException;
 
@@ -8,15 +7,13 @@ import com.hartwig.hmftools.common.genome.region.GenomeRegion;
 import com.hartwig.hmftools.sage.SageApplication;
 import com.hartwig.hmftools.sage.config.SageConfig;
 import com.hartwig.hmftools.sage.ref.RefSequence;
+import com.hartwig.hmftools.sage.sam.SamReaderPool;
 import com.hartwig.hmftools.sage.sam.SamSlicer;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.jetbrains.annotations.NotNull;
 
-import htsjdk.samtools.SamReader;
-import htsjdk.samtools.SamReaderFactory;
-import htsjdk.samtools.cram.ref.ReferenceSource;
 import htsjdk.samtools.reference.ReferenceSequenceFile;
 
 class QualityCounterFactory {
@@ -25,11 +22,14 @@ class QualityCounterFactory {
 
     private final String bamFile;
     private final ReferenceSequenceFile refGenome;
+    private final SamReaderPool samReaderPool;
     private final SageConfig config;
 
-    public QualityCounterFactory(final SageConfig config, final String bamFile, final ReferenceSequenceFile refGenome) {
+    public QualityCounterFactory(final SageConfig config, final String bamFile, final ReferenceSequenceFile refGenome,
+            final SamReaderPool samReaderPool) {
         this.bamFile = bamFile;
         this.refGenome = refGenome;
+        this.samReaderPool = samReaderPool;
         this.config = config;
     }
 
@@ -41,14 +41,9 @@ class QualityCounterFactory {
         final QualityCounterCigarHandler counter =
                 new QualityCounterCigarHandler(refSequence, bounds, config.baseQualityRecalibrationConfig().maxAltCount());
         final SamSlicer slicer = new SamSlicer(config.minMapQuality(), bounds);
-        try (final SamReader tumorReader = SamReaderFactory.makeDefault()
-                .validationStringency(config.validationStringency())
-                .referenceSource(new ReferenceSource(refGenome))
-                .open(new File(bamFile))) {
-
+        try {
             // First parse
-            slicer.slice(tumorReader, counter::processRecord);
-
+            samReaderPool.slice(bamFile, slicer, counter::processRecord);
         } catch (Exception e) {
             throw new CompletionException(e);
         }
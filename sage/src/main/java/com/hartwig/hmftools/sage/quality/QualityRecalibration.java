@@ -5,38 +5,47 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.hartwig.hmftools.common.genome.chromosome.HumanChromosome;
 import com.hartwig.hmftools.common.genome.region.GenomeRegion;
 import com.hartwig.hmftools.common.genome.region.GenomeRegions;
+import com.hartwig.hmftools.sage.config.BaseQualityRecalibrationConfig;
 import com.hartwig.hmftools.sage.config.SageConfig;
+import com.hartwig.hmftools.sage.sam.SamReaderPool;
 
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 import org.jetbrains.annotations.NotNull;
 
 import htsjdk.samtools.SAMSequenceRecord;
-import htsjdk.samtools.reference.IndexedFastaSequenceFile;
+import htsjdk.samtools.reference.ReferenceSequenceFile;
 
 public class QualityRecalibration {
 
+    private static final Logger LOGGER = LogManager.getLogger(QualityRecalibration.class);
+
+    private static final int REGION_SLICE_SIZE = 100_000;
+
     private final ExecutorService executorService;
-    private final IndexedFastaSequenceFile refGenome;
+    private final ReferenceSequenceFile refGenome;
+    private final SamReaderPool samReaderPool;
     private final SageConfig config;
 
     public QualityRecalibration(final SageConfig config, final ExecutorService executorService,
-            final IndexedFastaSequenceFile refGenome) {
+            final ReferenceSequenceFile refGenome, final SamReaderPool samReaderPool) {
         this.executorService = executorService;
         this.refGenome = refGenome;
+        this.samReaderPool = samReaderPool;
         this.config = config;
     }
 
     @NotNull
     public CompletableFuture<List<QualityRecalibrationRecord>> qualityRecalibrationRecords(@NotNull final String bamFile) {
-        final Map<QualityCounterKey, QualityCounter> map = new ConcurrentHashMap<>(Maps.newHashMap());
-        final List<CompletableFuture<Void>> doneList = Lists.newArrayList();
+        final List<CompletableFuture<List<Map<QualityCounterKey, QualityCounter>>>> contigs = Lists.newArrayList();
 
         for (final SAMSequenceRecord sequenceRecord : refGenome.getSequenceDictionary().getSequences()) {
             final String contig = sequenceRecord.getSequenceName();
@@ -44,28 +53,74 @@ public class QualityRecalibration {
             if (HumanChromosome.contains(contig) && HumanChromosome.fromString(contig).isAutosome()) {
                 int start = sequenceRecord.getSequenceLength() - 1_000_000 - config.baseQualityRecalibrationConfig().sampleSize();
                 int end = sequenceRecord.getSequenceLength() - 1_000_001;
-                for (CompletableFuture<Collection<QualityCounter>> region : submitAllRegions(bamFile, contig, start, end)) {
-                    final CompletableFuture<Void> done = region.thenAccept(counts -> {
-                        for (QualityCounter count : counts) {
-                            final QualityCounterKey key = withoutPosition(count);
-                            map.computeIfAbsent(key, QualityCounter::new).increment(count.count());
-                        }
-                    });
-                    doneList.add(done);
-                }
+                contigs.add(contigCounts(bamFile, contig, start, end));
             }
         }
 
-        return CompletableFuture.allOf(doneList.toArray(new CompletableFuture[0])).thenApply(aVoid -> {
+        // Each region is counted without any shared state and then merged on a single thread in genomic order
+        return CompletableFuture.allOf(contigs.toArray(new CompletableFuture[0])).thenApply(aVoid -> {
+            final Map<QualityCounterKey, QualityCounter> map = Maps.newHashMap();
+            for (CompletableFuture<List<Map<QualityCounterKey, QualityCounter>>> contig : contigs) {
+                for (Map<QualityCounterKey, QualityCounter> region : contig.join()) {
+                    for (Map.Entry<QualityCounterKey, QualityCounter> entry : region.entrySet()) {
+                        map.computeIfAbsent(entry.getKey(), QualityCounter::new).increment(entry.getValue().count());
+                    }
+                }
+            }
+
             final List<QualityCounter> sortedList = Lists.newArrayList(map.values());
             Collections.sort(sortedList);
             return QualityRecalibrationFactory.create(sortedList);
         });
     }
 
+    @NotNull
+    private CompletableFuture<List<Map<QualityCounterKey, QualityCounter>>> contigCounts(@NotNull final String bam,
+            @NotNull final String contig, int minPosition, int maxPosition) {
+        final BaseQualityRecalibrationConfig bqrConfig = config.baseQualityRecalibrationConfig();
+        if (bqrConfig.sampleBases() <= 0) {
+            return allRegions(submitAllRegions(bam, contig, minPosition, maxPosition));
+        }
+
+        // Count the first slice to estimate depth, then only sample as many positions as the depth requires
+        final int probeEnd = Math.min(minPosition + REGION_SLICE_SIZE - 1, maxPosition);
+        return addRegion(bam, contig, minPosition, probeEnd).thenCompose(probe -> {
+            long probeBases = 0;
+            for (QualityCounter counter : probe) {
+                probeBases += counter.count();
+            }
+
+            final int sampleSize =
+                    adaptiveSampleSize(probeBases, probeEnd - minPosition + 1, bqrConfig.sampleBases(), maxPosition - minPosition + 1);
+            LOGGER.debug("Sampling {} bqr positions of {} in {}", sampleSize, contig, bam);
+
+            final List<CompletableFuture<Collection<QualityCounter>>> regions = Lists.newArrayList();
+            regions.add(CompletableFuture.completedFuture(probe));
+            if (probeEnd < minPosition + sampleSize - 1) {
+                regions.addAll(submitAllRegions(bam, contig, probeEnd + 1, minPosition + sampleSize - 1));
+            }
+            return allRegions(regions);
+        });
+    }
+
+    @NotNull
+    private CompletableFuture<List<Map<QualityCounterKey, QualityCounter>>> allRegions(
+            @NotNull final List<CompletableFuture<Collection<QualityCounter>>> regions) {
+        final List<CompletableFuture<Map<QualityCounterKey, QualityCounter>>> withoutPositions = Lists.newArrayList();
+        for (CompletableFuture<Collection<QualityCounter>> region : regions) {
+            withoutPositions.add(region.thenApply(QualityRecalibration::withoutPositions));
+        }
+
+        return CompletableFuture.allOf(withoutPositions.toArray(new CompletableFuture[0])).thenApply(aVoid -> {
+            final List<Map<QualityCounterKey, QualityCounter>> result = Lists.newArrayList();
+            withoutPositions.forEach(x -> result.add(x.join()));
+            return result;
+        });
+    }
+
     public CompletableFuture<Collection<QualityCounter>> addRegion(String bam, String contig, int start, int end) {
         final GenomeRegion bounds = GenomeRegions.create(contig, start, end);
-        return CompletableFuture.supplyAsync(() -> new QualityCounterFactory(config, bam, refGenome).regionCount(bounds),
+        return CompletableFuture.supplyAsync(() -> new QualityCounterFactory(config, bam, refGenome, samReaderPool).regionCount(bounds),
                 executorService);
     }
 
@@ -73,10 +128,9 @@ public class QualityRecalibration {
             int minPosition, int maxPosition) {
         final List<CompletableFuture<Collection<QualityCounter>>> result = Lists.newArrayList();
 
-        final int regionSliceSize = 100_000;
         for (int i = 0; ; i++) {
-            int start = minPosition + i * regionSliceSize;
-            int end = start + regionSliceSize - 1;
+            int start = minPosition + i * REGION_SLICE_SIZE;
+            int end = start + REGION_SLICE_SIZE - 1;
 
             if (end < minPosition) {
                 continue;
@@ -92,6 +146,22 @@ public class QualityRecalibration {
         return result;
     }
 
+    @VisibleForTesting
+    static int adaptiveSampleSize(long probeBases, int probeLength, int targetBases, int maxSampleSize) {
+        final double depth = Math.max(1, probeBases / (double) probeLength);
+        final long slices = (long) Math.ceil(targetBases / depth / REGION_SLICE_SIZE);
+        return (int) Math.max(Math.min(maxSampleSize, probeLength), Math.min(maxSampleSize, slices * REGION_SLICE_SIZE));
+    }
+
+    @NotNull
+    private static Map<QualityCounterKey, QualityCounter> withoutPositions(@NotNull final Collection<QualityCounter> counts) {
+        final Map<QualityCounterKey, QualityCounter> result = Maps.newHashMap();
+        for (QualityCounter count : counts) {
+            result.computeIfAbsent(withoutPosition(count), QualityCounter::new).increment(count.count());
+        }
+        return result;
+    }
+
     @NotNull
     private static QualityCounterKey withoutPosition(@NotNull final QualityCounter count) {
         return ImmutableQualityCounterKey.builder().from(count).position(0).build();
@@ -0,0 +1,87 @@
+package com.hartwig.hmftools.sage.quality;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.StringJoiner;
+
+import com.google.common.hash.Hashing;
+import com.hartwig.hmftools.sage.config.BaseQualityRecalibrationConfig;
+import com.hartwig.hmftools.sage.config.SageConfig;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Stores recalibration records in a directory shared between runs. Entries are keyed by the identity of the bam (canonical path,
+ * size and modification time), the reference genome, the BQR parameters and the SAGE version.
+ */
+public class QualityRecalibrationCache {
+
+    private final String directory;
+    private final String refGenome;
+    private final String version;
+    private final BaseQualityRecalibrationConfig bqrConfig;
+
+    public QualityRecalibrationCache(@NotNull final SageConfig config) {
+        this.directory = config.baseQualityRecalibrationConfig().cacheDirectory();
+        this.refGenome = config.refGenome();
+        this.version = config.version();
+        this.bqrConfig = config.baseQualityRecalibrationConfig();
+    }
+
+    public boolean isEnabled() {
+        return !directory.isEmpty();
+    }
+
+    @Nullable
+    public List<QualityRecalibrationRecord> read(@NotNull final String bam) throws IOException {
+        final File file = cacheFile(bam);
+        return file.exists() ? QualityRecalibrationFile.read(file.getPath()) : null;
+    }
+
+    public void write(@NotNull final String bam, @NotNull final List<QualityRecalibrationRecord> records) throws IOException {
+        final File file = cacheFile(bam);
+        final File parent = file.getParentFile();
+        if (!parent.exists() && !parent.mkdirs() && !parent.exists()) {
+            throw new IOException("Unable to write directory " + parent.toString());
+        }
+
+        // Write then rename so that concurrent runs never read a partial entry
+        final File temp = File.createTempFile(file.getName(), ".tmp", parent);
+        try {
+            QualityRecalibrationFile.writeExact(temp.getPath(), records);
+            Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp.toPath());
+        }
+    }
+
+    @NotNull
+    File cacheFile(@NotNull final String bam) throws IOException {
+        return new File(directory, key(bam) + ".sage.bqr.tsv");
+    }
+
+    @NotNull
+    String key(@NotNull final String bam) throws IOException {
+        final File bamFile = new File(bam).getCanonicalFile();
+        final File refGenomeFile = new File(refGenome).getCanonicalFile();
+
+        final String identity = new StringJoiner("\t").add(version)
+                .add(bamFile.getPath())
+                .add(String.valueOf(bamFile.length()))
+                .add(String.valueOf(bamFile.lastModified()))
+                .add(refGenomeFile.getPath())
+                .add(String.valueOf(refGenomeFile.length()))
+                .add(String.valueOf(bqrConfig.sampleSize()))
+                .add(String.valueOf(bqrConfig.sampleBases()))
+                .add(String.valueOf(bqrConfig.maxAltCount()))
+                .add(String.valueOf(bqrConfig.minMapQuality()))
+                .toString();
+
+        return Hashing.sha256().hashString(identity, StandardCharsets.UTF_8).toString();
+    }
+}
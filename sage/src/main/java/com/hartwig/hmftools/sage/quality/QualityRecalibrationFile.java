@@ -7,6 +7,7 @@ import java.text.DecimalFormat;
 import java.util.Collection;
 import java.util.List;
 import java.util.StringJoiner;
+import java.util.function.DoubleFunction;
 
 import com.google.common.collect.Lists;
 
@@ -19,21 +20,55 @@ public class QualityRecalibrationFile {
 
     public static void write(@NotNull final String filename, @NotNull final Collection<QualityRecalibrationRecord> counts)
             throws IOException {
-        Files.write(new File(filename).toPath(), toLines(counts));
+        Files.write(new File(filename).toPath(), toLines(counts, FORMAT::format));
+    }
+
+    // Recalibrated qualities are written without rounding so that records read back are identical to those written
+    static void writeExact(@NotNull final String filename, @NotNull final Collection<QualityRecalibrationRecord> counts)
+            throws IOException {
+        Files.write(new File(filename).toPath(), toLines(counts, Double::toString));
+    }
+
+    @NotNull
+    public static List<QualityRecalibrationRecord> read(@NotNull final String filename) throws IOException {
+        final List<QualityRecalibrationRecord> result = Lists.newArrayList();
+        final List<String> lines = Files.readAllLines(new File(filename).toPath());
+        for (String line : lines.subList(1, lines.size())) {
+            result.add(fromString(line));
+        }
+        return result;
     }
 
     @NotNull
-    private static List<String> toLines(@NotNull final Collection<QualityRecalibrationRecord> bafs) {
+    private static List<String> toLines(@NotNull final Collection<QualityRecalibrationRecord> bafs,
+            @NotNull final DoubleFunction<String> qualFormat) {
         final List<String> lines = Lists.newArrayList();
         lines.add(header());
-        bafs.stream().map(QualityRecalibrationFile::toString).forEach(lines::add);
+        bafs.stream().map(x -> toString(x, qualFormat)).forEach(lines::add);
         return lines;
     }
 
     @NotNull
-    private static String toString(@NotNull final QualityRecalibrationRecord baf) {
+    private static String toString(@NotNull final QualityRecalibrationRecord baf, @NotNull final DoubleFunction<String> qualFormat) {
         return (char) baf.key().alt() + DELIMITER + (char) baf.key().ref() + DELIMITER + new String(baf.key().trinucleotideContext())
-                + DELIMITER + baf.count() + DELIMITER + baf.key().qual() + DELIMITER + FORMAT.format(baf.recalibratedQual());
+                + DELIMITER + baf.count() + DELIMITER + baf.key().qual() + DELIMITER + qualFormat.apply(baf.recalibratedQual());
+    }
+
+    @NotNull
+    private static QualityRecalibrationRecord fromString(@NotNull final String line) {
+        final String[] values = line.split(DELIMITER);
+        final QualityRecalibrationKey key = ImmutableQualityRecalibrationKey.builder()
+                .alt((byte) values[0].charAt(0))
+                .ref((byte) values[1].charAt(0))
+                .trinucleotideContext(values[2].getBytes())
+                .qual(Byte.parseByte(values[4]))
+                .build();
+
+        return ImmutableQualityRecalibrationRecord.builder()
+                .key(key)
+                .count(Integer.parseInt(values[3]))
+                .recalibratedQual(Double.parseDouble(values[5]))
+                .build();
     }
 
     @NotNull
@@ -1,5 +1,6 @@
 package com.hartwig.hmftools.sage.quality;
 
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -9,17 +10,79 @@ import org.jetbrains.annotations.NotNull;
 
 public class QualityRecalibrationMap {
 
+    private static final int BASES = 4;
+    private static final int QUALITIES = 128;
+    private static final int[] BASE_INDEX = baseIndex();
+
     @NotNull
     private final Map<QualityRecalibrationKey, QualityRecalibrationRecord> map;
 
+    // Recalibrated quality indexed by ref, alt, trinucleotide context and qual. NaN where there is no record.
+    private final double[] table = new double[BASES * BASES * BASES * BASES * BASES * QUALITIES];
+
     public QualityRecalibrationMap(@NotNull final List<QualityRecalibrationRecord> records) {
         this.map = records.stream().collect(Collectors.toMap(QualityRecalibrationRecord::key, x -> x));
+
+        Arrays.fill(table, Double.NaN);
+        for (QualityRecalibrationRecord record : records) {
+            final QualityRecalibrationKey key = record.key();
+            final byte[] trinucleotideContext = key.trinucleotideContext();
+            if (trinucleotideContext.length == 3) {
+                int index = index(key.ref(), key.alt(), trinucleotideContext[0], trinucleotideContext[1], trinucleotideContext[2], key.qual());
+                if (index >= 0) {
+                    table[index] = record.recalibratedQual();
+                }
+            }
+        }
     }
 
     public double quality(byte ref, byte alt, byte[] trinucleotideContext, byte qual) {
+        if (trinucleotideContext.length == 3) {
+            return quality(ref, alt, trinucleotideContext[0], trinucleotideContext[1], trinucleotideContext[2], qual);
+        }
+
+        return mapQuality(ref, alt, trinucleotideContext, qual);
+    }
+
+    public double quality(byte ref, byte alt, byte previousBase, byte base, byte nextBase, byte qual) {
+        int index = index(ref, alt, previousBase, base, nextBase, qual);
+        if (index < 0) {
+            // Outside of the table (eg ambiguous bases) so fall back to the map
+            return mapQuality(ref, alt, new byte[] { previousBase, base, nextBase }, qual);
+        }
+
+        double recalibratedQual = table[index];
+        return Double.isNaN(recalibratedQual) ? qual : recalibratedQual;
+    }
+
+    private double mapQuality(byte ref, byte alt, byte[] trinucleotideContext, byte qual) {
         final QualityRecalibrationKey key =
                 ImmutableQualityRecalibrationKey.builder().ref(ref).alt(alt).qual(qual).trinucleotideContext(trinucleotideContext).build();
 
         return Optional.ofNullable(map.get(key)).map(QualityRecalibrationRecord::recalibratedQual).orElse(qual * 1d);
     }
+
+    private static int index(byte ref, byte alt, byte previousBase, byte base, byte nextBase, byte qual) {
+        final int refIndex = BASE_INDEX[ref & 0xFF];
+        final int altIndex = BASE_INDEX[alt & 0xFF];
+        final int previousIndex = BASE_INDEX[previousBase & 0xFF];
+        final int baseIndex = BASE_INDEX[base & 0xFF];
+        final int nextIndex = BASE_INDEX[nextBase & 0xFF];
+        if ((refIndex | altIndex | previousIndex | baseIndex | nextIndex | qual) < 0) {
+            return -1;
+        }
+
+        return ((((refIndex * BASES + altIndex) * BASES + previousIndex) * BASES + baseIndex) * BASES + nextIndex) * QUALITIES + qual;
+    }
+
+    @NotNull
+    private static int[] baseIndex() {
+        final int[] result = new int[256];
+        Arrays.fill(result, -1);
+        result['A'] = 0;
+        result['C'] = 1;
+        result['G'] = 2;
+        result['T'] = 3;
+        return result;
+    }
 }
@@ -7,6 +7,7 @@ import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
 import java.util.concurrent.ExecutorService;
 import java.util.function.BiFunction;
+import java.util.function.Function;
 import java.util.function.Supplier;
 
 import com.google.common.collect.Lists;
@@ -14,24 +15,28 @@ import com.google.common.collect.Maps;
 import com.hartwig.hmftools.common.utils.r.RExecutor;
 import com.hartwig.hmftools.sage.config.BaseQualityRecalibrationConfig;
 import com.hartwig.hmftools.sage.config.SageConfig;
+import com.hartwig.hmftools.sage.sam.SamReaderPool;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.jetbrains.annotations.NotNull;
 
-import htsjdk.samtools.reference.IndexedFastaSequenceFile;
+import htsjdk.samtools.reference.ReferenceSequenceFile;
 
 public class QualityRecalibrationSupplier implements Supplier<Map<String, QualityRecalibrationMap> > {
 
     private static final Logger LOGGER = LogManager.getLogger(QualityRecalibrationSupplier.class);
 
     private final ExecutorService executorService;
-    private final IndexedFastaSequenceFile refGenome;
+    private final ReferenceSequenceFile refGenome;
+    private final SamReaderPool samReaderPool;
     private final SageConfig config;
 
-    public QualityRecalibrationSupplier(final ExecutorService executorService, final IndexedFastaSequenceFile refGenome, final SageConfig config) {
+    public QualityRecalibrationSupplier(final ExecutorService executorService, final ReferenceSequenceFile refGenome,
+            final SamReaderPool samReaderPool, final SageConfig config) {
         this.executorService = executorService;
         this.refGenome = refGenome;
+        this.samReaderPool = samReaderPool;
         this.config = config;
     }
 
@@ -42,14 +47,17 @@ public class QualityRecalibrationSupplier implements Supplier<Map<String, Qualit
             return disableQualityRecalibration(config);
         }
 
-        final Map<String, QualityRecalibrationMap> result = Maps.newHashMap();
+        final Map<String, QualityRecalibrationMap> result = Maps.newConcurrentMap();
         LOGGER.info("Beginning quality recalibration");
 
-        final QualityRecalibration qualityRecalibration = new QualityRecalibration(config, executorService, refGenome);
+        final QualityRecalibration qualityRecalibration = new QualityRecalibration(config, executorService, refGenome, samReaderPool);
+        final QualityRecalibrationCache cache = new QualityRecalibrationCache(config);
+        final Function<String, CompletableFuture<List<QualityRecalibrationRecord>>> recalibrate =
+                qualityRecalibration::qualityRecalibrationRecords;
         final List<CompletableFuture<Void>> done = Lists.newArrayList();
 
         final BiFunction<String, String, CompletableFuture<Void>> processSample =
-                (sample, sampleBam) -> qualityRecalibration.qualityRecalibrationRecords(sampleBam).thenAccept(records -> {
+                (sample, sampleBam) -> records(recalibrate, cache, sample, sampleBam).thenAccept(records -> {
                     try {
 
                         final String tsvFile = config.baseQualityRecalibrationFile(sample);
@@ -78,6 +86,34 @@ public class QualityRecalibrationSupplier implements Supplier<Map<String, Qualit
         return result;
     }
 
+    @NotNull
+    static CompletableFuture<List<QualityRecalibrationRecord>> records(
+            @NotNull final Function<String, CompletableFuture<List<QualityRecalibrationRecord>>> qualityRecalibration,
+            @NotNull final QualityRecalibrationCache cache, @NotNull final String sample, @NotNull final String bam) {
+        if (!cache.isEnabled()) {
+            return qualityRecalibration.apply(bam);
+        }
+
+        try {
+            final List<QualityRecalibrationRecord> cached = cache.read(bam);
+            if (cached != null) {
+                LOGGER.info("Using cached base quality recalibration for {}", sample);
+                return CompletableFuture.completedFuture(cached);
+            }
+        } catch (Exception e) {
+            LOGGER.warn("Unable to read cached base quality recalibration for {}: {}", sample, e.getMessage());
+        }
+
+        return qualityRecalibration.apply(bam).thenApply(records -> {
+            try {
+                cache.write(bam, records);
+            } catch (Exception e) {
+                LOGGER.warn("Unable to cache base quality recalibration for {}: {}", sample, e.getMessage());
+            }
+            return records;
+        });
+    }
+
     private Map<String, QualityRecalibrationMap> disableQualityRecalibration(SageConfig config) {
         final Map<String, QualityRecalibrationMap> result = Maps.newHashMap();
 
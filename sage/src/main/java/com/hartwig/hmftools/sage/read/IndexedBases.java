@@ -148,11 +148,23 @@ public class IndexedBases {
             return false;
         }
 
-        for (int i = 0; i < centreLength(); i++) {
-            byte ourByte = bases[leftCoreIndex + i];
-            byte otherByte = otherBases[otherLeftCentreIndex + i];
-            if (!bytesMatch(wildcardAllowed, ourByte, otherByte)) {
-                return false;
+        // Most reads differ from the context at the variant itself so check there before scanning the core
+        if (index >= leftCoreIndex && index <= rightCoreIndex && !bytesMatch(wildcardAllowed, bases[index], otherBases[otherRefIndex])) {
+            return false;
+        }
+
+        final int centreLength = centreLength();
+        if (wildcardAllowed) {
+            for (int i = 0; i < centreLength; i++) {
+                if (!bytesMatch(true, bases[leftCoreIndex + i], otherBases[otherLeftCentreIndex + i])) {
+                    return false;
+                }
+            }
+        } else {
+            for (int i = 0; i < centreLength; i++) {
+                if (bases[leftCoreIndex + i] != otherBases[otherLeftCentreIndex + i]) {
+                    return false;
+                }
             }
         }
 
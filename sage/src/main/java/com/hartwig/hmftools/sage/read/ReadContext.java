@@ -254,6 +254,10 @@ public class ReadContext {
         return refBases.trinucleotideContext(position);
     }
 
+    public byte refBase(int position) {
+        return refBases.base(position);
+    }
+
     public int length() {
         return readBasesRightFlankIndex() - readBasesLeftFlankIndex() + 1;
     }
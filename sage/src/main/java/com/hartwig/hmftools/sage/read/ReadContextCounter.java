@@ -61,6 +61,8 @@ public class ReadContextCounter implements VariantHotspot {
     private int rawAltBaseQuality;
     private int rawRefBaseQuality;
 
+    private int realignments;
+
     public ReadContextCounter(@NotNull final String sample, @NotNull final VariantHotspot variant, @NotNull final ReadContext readContext,
             final QualityRecalibrationMap recalibrationMap, final SageVariantTier tier, final int maxCoverage, final int minNumberOfEvents,
             final int maxSkippedReferenceRegions, boolean realign) {
@@ -186,6 +188,10 @@ public class ReadContextCounter implements VariantHotspot {
         return minNumberOfEvents;
     }
 
+    public int realignments() {
+        return realignments;
+    }
+
     @NotNull
     public ReadContext readContext() {
         return readContext;
@@ -323,6 +329,7 @@ public class ReadContextCounter implements VariantHotspot {
         int rightOffset = rightIndex - index;
 
         int indelLength = indelLength(record);
+        realignments++;
         return Realigned.realignedAroundIndex(readContext,
                 readIndex,
                 record.getReadBases(),
@@ -355,9 +362,12 @@ public class ReadContextCounter implements VariantHotspot {
             int refPosition = (int) position() + i;
             int readIndex = startReadIndex + i;
             byte rawQuality = record.getBaseQualities()[readIndex];
-            byte[] trinucleotideContext = readContext.refTrinucleotideContext(refPosition);
-            double recalibratedQuality =
-                    qualityRecalibrationMap.quality((byte) ref().charAt(i), (byte) alt().charAt(i), trinucleotideContext, rawQuality);
+            double recalibratedQuality = qualityRecalibrationMap.quality((byte) ref().charAt(i),
+                    (byte) alt().charAt(i),
+                    readContext.refBase(refPosition - 1),
+                    readContext.refBase(refPosition),
+                    readContext.refBase(refPosition + 1),
+                    rawQuality);
             quality = Math.min(quality, recalibratedQuality);
         }
 
@@ -37,14 +37,18 @@ public class ReadContextCounters {
     @NotNull
     public List<ReadContextCounter> readContextCounters(@NotNull final VariantHotspot variant) {
         assert (map.containsKey(variant));
-        final List<ReadContextCounter> result = map.get(variant);
-        result.sort(comparator);
-        return result;
+        return map.get(variant);
     }
 
     public void addCounters(Collection<ReadContextCounter> counters) {
+        // Insert in sample order so lookups do not need to sort
         for (ReadContextCounter counter : counters) {
-            map.put(counter.variant(), counter);
+            final List<ReadContextCounter> variantCounters = map.get(counter.variant());
+            int index = variantCounters.size();
+            while (index > 0 && comparator.compare(variantCounters.get(index - 1), counter) > 0) {
+                index--;
+            }
+            variantCounters.add(index, counter);
         }
     }
 
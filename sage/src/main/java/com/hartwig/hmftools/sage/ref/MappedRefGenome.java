@@ -0,0 +1,139 @@
+package com.hartwig.hmftools.sage.ref;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.Map;
+
+import com.google.common.collect.Maps;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import htsjdk.samtools.SAMException;
+import htsjdk.samtools.SAMSequenceDictionary;
+import htsjdk.samtools.reference.FastaSequenceIndex;
+import htsjdk.samtools.reference.FastaSequenceIndexEntry;
+import htsjdk.samtools.reference.IndexedFastaSequenceFile;
+import htsjdk.samtools.reference.ReferenceSequence;
+import htsjdk.samtools.reference.ReferenceSequenceFile;
+import htsjdk.samtools.util.RuntimeIOException;
+
+/**
+ * Indexed FASTA shared by all threads. Each contig is memory mapped on first use so fetches no longer go through a file channel
+ * into intermediate buffers. Each window is still copied, skipping line breaks, into a new array of its own as RefSequence and
+ * IndexedBases work on arrays. The mappings live outside the heap and are shared by every region.
+ */
+public class MappedRefGenome implements ReferenceSequenceFile {
+
+    private final File fasta;
+    private final FastaSequenceIndex index;
+    @Nullable
+    private final SAMSequenceDictionary dictionary;
+    private final Map<String, ByteBuffer> contigs = Maps.newConcurrentMap();
+    private Iterator<FastaSequenceIndexEntry> sequentialEntries;
+
+    public MappedRefGenome(@NotNull final File fasta) throws IOException {
+        this.fasta = fasta;
+        this.index = new FastaSequenceIndex(new File(fasta.getPath() + ".fai"));
+
+        // Take the dictionary from htsjdk so that it is identical, including any attributes of the sequence dictionary file
+        try (IndexedFastaSequenceFile indexedFasta = new IndexedFastaSequenceFile(fasta, index)) {
+            this.dictionary = indexedFasta.getSequenceDictionary();
+        }
+        this.sequentialEntries = index.iterator();
+    }
+
+    @Override
+    public SAMSequenceDictionary getSequenceDictionary() {
+        return dictionary;
+    }
+
+    @Override
+    public ReferenceSequence getSequence(final String contig) {
+        return getSubsequenceAt(contig, 1, entry(contig).getSize());
+    }
+
+    @Override
+    public ReferenceSequence getSubsequenceAt(final String contig, final long start, final long stop) {
+        final FastaSequenceIndexEntry entry = entry(contig);
+        if (stop > entry.getSize()) {
+            throw new SAMException("Query asks for data past end of contig. Query contig " + contig + " start:" + start + " stop:" + stop
+                    + " contigLength:" + entry.getSize());
+        }
+        if (start > stop + 1) {
+            throw new SAMException(String.format("Malformed query; start point %d lies after end point %d", start, stop));
+        }
+
+        final int basesPerLine = entry.getBasesPerLine();
+        final int bytesPerLine = entry.getBytesPerLine();
+        final byte[] bases = new byte[Math.toIntExact(stop - start + 1)];
+
+        // Duplicate so that concurrent fetches do not share a position
+        final ByteBuffer buffer = contigs.computeIfAbsent(contig, x -> map(entry)).duplicate();
+        int copied = 0;
+        long position = start - 1;
+        while (copied < bases.length) {
+            final int lineOffset = (int) (position % basesPerLine);
+            final int length = Math.min(basesPerLine - lineOffset, bases.length - copied);
+            buffer.position(Math.toIntExact(position / basesPerLine * bytesPerLine + lineOffset));
+            buffer.get(bases, copied, length);
+            copied += length;
+            position += length;
+        }
+
+        return new ReferenceSequence(contig, entry.getSequenceIndex(), bases);
+    }
+
+    // Contigs in index order, or null once all have been returned
+    @Override
+    public synchronized ReferenceSequence nextSequence() {
+        return sequentialEntries.hasNext() ? getSequence(sequentialEntries.next().getContig()) : null;
+    }
+
+    @Override
+    public synchronized void reset() {
+        sequentialEntries = index.iterator();
+    }
+
+    @Override
+    public boolean isIndexed() {
+        return true;
+    }
+
+    @Override
+    public void close() {
+        // Mappings are released once unreachable
+        contigs.clear();
+    }
+
+    @Override
+    public String toString() {
+        return fasta.toString();
+    }
+
+    @NotNull
+    private FastaSequenceIndexEntry entry(@NotNull final String contig) {
+        if (!index.hasIndexEntry(contig)) {
+            throw new SAMException("Unable to find entry for contig: " + contig);
+        }
+        return index.getIndexEntry(contig);
+    }
+
+    @NotNull
+    private MappedByteBuffer map(@NotNull final FastaSequenceIndexEntry entry) {
+        // Stop at the last base as the final line may have no terminator at the end of the file
+        final long lastBase = entry.getSize() - 1;
+        final long lines = lastBase / entry.getBasesPerLine();
+        final long length = entry.getSize() == 0 ? 0 : lines * entry.getBytesPerLine() + lastBase % entry.getBasesPerLine() + 1;
+        try (FileChannel channel = FileChannel.open(fasta.toPath(), StandardOpenOption.READ)) {
+            return channel.map(FileChannel.MapMode.READ_ONLY, entry.getLocation(), length);
+        } catch (IOException e) {
+            throw new RuntimeIOException("Unable to map " + entry.getContig() + " of " + fasta, e);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.hartwig.hmftools.sage.sam;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Number of records that may be retained by all fused scan buffers together, shared by every region in flight.
+ */
+public class SamReadBudget {
+
+    private final AtomicLong available;
+
+    public SamReadBudget(final long maxReads) {
+        this.available = new AtomicLong(maxReads);
+    }
+
+    public boolean tryAcquire(final int reads) {
+        long current;
+        do {
+            current = available.get();
+            if (current < reads) {
+                return false;
+            }
+        } while (!available.compareAndSet(current, current - reads));
+
+        return true;
+    }
+
+    public void release(final int reads) {
+        available.addAndGet(reads);
+    }
+
+    public long available() {
+        return available.get();
+    }
+}
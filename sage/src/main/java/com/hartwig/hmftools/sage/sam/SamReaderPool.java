@@ -0,0 +1,97 @@
+package com.hartwig.hmftools.sage.sam;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.hartwig.hmftools.sage.config.SageConfig;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import htsjdk.samtools.BAMIndex;
+import htsjdk.samtools.SAMFileHeader;
+import htsjdk.samtools.SAMRecord;
+import htsjdk.samtools.SamReader;
+import htsjdk.samtools.SamReaderFactory;
+import htsjdk.samtools.cram.ref.ReferenceSource;
+import htsjdk.samtools.reference.ReferenceSequenceFile;
+
+/**
+ * Long lived readers shared by all stages. Each thread gets its own reader per bam which keeps its index in memory
+ * after first use, so the header and index are only parsed once per thread rather than once per region.
+ */
+public class SamReaderPool implements AutoCloseable {
+
+    private static final Logger LOGGER = LogManager.getLogger(SamReaderPool.class);
+
+    private final SamReaderFactory factory;
+    private final Map<String, ThreadLocal<SamReader>> readers = Maps.newConcurrentMap();
+    private final List<SamReader> openReaders = Lists.newArrayList();
+    private final LongAdder opens = new LongAdder();
+    private final LongAdder queries = new LongAdder();
+
+    public SamReaderPool(@NotNull final SageConfig config, @NotNull final ReferenceSequenceFile refGenome) {
+        this.factory = SamReaderFactory.makeDefault()
+                .validationStringency(config.validationStringency())
+                .referenceSource(new ReferenceSource(refGenome))
+                .enable(SamReaderFactory.Option.CACHE_FILE_BASED_INDEXES);
+    }
+
+    public void slice(@NotNull final String bam, @NotNull final SamSlicer slicer, @NotNull final Consumer<SAMRecord> consumer) {
+        queries.increment();
+        slicer.slice(reader(bam), consumer);
+    }
+
+    @NotNull
+    public SAMFileHeader header(@NotNull final String bam) {
+        return reader(bam).getFileHeader();
+    }
+
+    @Nullable
+    public BAMIndex index(@NotNull final String bam) {
+        final SamReader reader = reader(bam);
+        return reader.hasIndex() && reader.indexing().hasBrowseableIndex() ? reader.indexing().getIndex() : null;
+    }
+
+    public long opens() {
+        return opens.sum();
+    }
+
+    public long queries() {
+        return queries.sum();
+    }
+
+    @NotNull
+    private SamReader reader(@NotNull final String bam) {
+        return readers.computeIfAbsent(bam, x -> ThreadLocal.withInitial(() -> open(bam))).get();
+    }
+
+    @NotNull
+    private SamReader open(@NotNull final String bam) {
+        final SamReader reader = factory.open(new File(bam));
+        opens.increment();
+        synchronized (openReaders) {
+            openReaders.add(reader);
+        }
+        return reader;
+    }
+
+    @Override
+    public void close() throws IOException {
+        LOGGER.info("Opened {} sam readers for {} queries", opens(), queries());
+        synchronized (openReaders) {
+            for (SamReader reader : openReaders) {
+                reader.close();
+            }
+            openReaders.clear();
+        }
+    }
+}
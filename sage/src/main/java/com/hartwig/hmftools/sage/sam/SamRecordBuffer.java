@@ -0,0 +1,83 @@
+package com.hartwig.hmftools.sage.sam;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+import com.google.common.collect.Lists;
+import com.hartwig.hmftools.common.genome.region.GenomeRegion;
+
+import org.jetbrains.annotations.NotNull;
+
+import htsjdk.samtools.SAMRecord;
+
+/**
+ * Retains the records of a single slice (in slice order) so they can be replayed by a later stage without decoding them again.
+ * Space is reserved from a budget shared with the buffers of every other region in flight. Once the budget is exhausted the
+ * buffer is released and marked incomplete. The reservation must be returned with release once the buffer is no longer needed.
+ */
+public class SamRecordBuffer implements Consumer<SAMRecord> {
+
+    static final int RESERVATION = 1024;
+
+    private final SamReadBudget budget;
+    private List<SAMRecord> records = Lists.newArrayList();
+    private int reserved;
+
+    public SamRecordBuffer(@NotNull final SamReadBudget budget) {
+        this.budget = budget;
+    }
+
+    @Override
+    public void accept(@NotNull final SAMRecord record) {
+        if (records == null) {
+            return;
+        }
+
+        if (records.size() < reserved || reserve()) {
+            records.add(record);
+        } else {
+            release();
+        }
+    }
+
+    private boolean reserve() {
+        if (budget.tryAcquire(RESERVATION)) {
+            reserved += RESERVATION;
+            return true;
+        }
+
+        if (budget.tryAcquire(1)) {
+            reserved++;
+            return true;
+        }
+
+        return false;
+    }
+
+    public boolean isComplete() {
+        return records != null;
+    }
+
+    public int size() {
+        return records == null ? 0 : records.size();
+    }
+
+    public void replay(@NotNull final GenomeRegion bounds, @NotNull final Consumer<SAMRecord> consumer) {
+        if (records == null) {
+            throw new IllegalStateException("Unable to replay incomplete buffer");
+        }
+
+        for (SAMRecord record : records) {
+            if (SamSlicer.overlaps(bounds, record)) {
+                consumer.accept(record);
+            }
+        }
+    }
+
+    // Drops the records and returns the reservation, leaving the buffer incomplete
+    public void release() {
+        records = null;
+        budget.release(reserved);
+        reserved = 0;
+    }
+}
@@ -57,6 +57,22 @@ public class SamSlicer {
         }
     }
 
+    public boolean overlaps(@NotNull final SAMRecord record) {
+        for (final GenomeRegion region : regions) {
+            if (overlaps(region, record)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    static boolean overlaps(@NotNull final GenomeRegion region, @NotNull final SAMRecord record) {
+        // Mirrors the overlap test applied by queryOverlapping
+        final int alignmentStart = record.getAlignmentStart();
+        final int alignmentEnd = record.getReadUnmappedFlag() ? alignmentStart : record.getAlignmentEnd();
+        return alignmentStart <= region.end() && alignmentEnd >= region.start();
+    }
+
     @NotNull
     private static QueryInterval[] createIntervals(@NotNull final Collection<GenomeRegion> regions, @NotNull final SAMFileHeader header) {
         final List<QueryInterval> queryIntervals = Lists.newArrayList();
@@ -3,6 +3,8 @@ package com.hartwig.hmftools.sage.select;
 import java.util.List;
 import java.util.function.Consumer;
 
+import javax.annotation.concurrent.NotThreadSafe;
+
 import com.hartwig.hmftools.common.genome.position.GenomePosition;
 import com.hartwig.hmftools.common.utils.sam.SAMRecords;
 
@@ -10,16 +12,40 @@ import org.jetbrains.annotations.NotNull;
 
 import htsjdk.samtools.SAMRecord;
 
-public class SamRecordSelector<P extends GenomePosition> extends PositionSelector<P> {
+/**
+ * Hands each read the sorted positions it overlaps, including soft clips. The first overlapped position is carried from read to read
+ * so, with reads in alignment start order, each read only visits the positions it overlaps plus any step back over its left soft clip.
+ */
+@NotThreadSafe
+public class SamRecordSelector<P extends GenomePosition> {
+
+    @NotNull
+    private final List<P> positions;
+    private final long[] sortedPositions;
+    private int startIndex = 0;
 
     public SamRecordSelector(@NotNull final List<P> positions) {
-        super(positions);
+        this.positions = positions;
+        this.sortedPositions = new long[positions.size()];
+        for (int i = 0; i < sortedPositions.length; i++) {
+            sortedPositions[i] = positions.get(i).position();
+        }
     }
 
     public void select(final SAMRecord record, final Consumer<P> handler) {
         long startWithSoftClip = record.getAlignmentStart() - SAMRecords.leftSoftClip(record);
         long endWithSoftClip = record.getAlignmentEnd() + SAMRecords.rightSoftClip(record);
 
-        super.select(startWithSoftClip, endWithSoftClip, handler);
+        while (startIndex > 0 && sortedPositions[startIndex - 1] >= startWithSoftClip) {
+            startIndex--;
+        }
+
+        while (startIndex < sortedPositions.length && sortedPositions[startIndex] < startWithSoftClip) {
+            startIndex++;
+        }
+
+        for (int i = startIndex; i < sortedPositions.length && sortedPositions[i] <= endWithSoftClip; i++) {
+            handler.accept(positions.get(i));
+        }
     }
 }
@@ -0,0 +1,219 @@
+package com.hartwig.hmftools.sage.vcf;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import org.jetbrains.annotations.NotNull;
+
+import htsjdk.samtools.SAMSequenceDictionary;
+import htsjdk.samtools.util.BlockCompressedOutputStream;
+import htsjdk.samtools.util.BlockCompressedStreamConstants;
+import htsjdk.samtools.util.RuntimeIOException;
+import htsjdk.tribble.index.Index;
+import htsjdk.tribble.index.tabix.TabixFormat;
+import htsjdk.tribble.index.tabix.TabixIndexCreator;
+import htsjdk.variant.variantcontext.VariantContext;
+import htsjdk.variant.variantcontext.writer.VariantContextWriter;
+import htsjdk.variant.variantcontext.writer.VariantContextWriterBuilder;
+import htsjdk.variant.vcf.VCFEncoder;
+import htsjdk.variant.vcf.VCFHeader;
+
+/**
+ * Block compressed VCF writer that encodes and compresses batches of records on a pool of threads. Each batch is compressed into
+ * its own run of BGZF blocks so batches can be written to disk in order as they complete. Virtual offsets of each record relative to
+ * its batch are recorded during compression and resolved once the batch's position in the file is known, so the tabix index is
+ * built while streaming.
+ */
+public class ParallelVCFWriter implements VariantContextWriter {
+
+    private static final int RECORDS_PER_BATCH = 1000;
+
+    private final File file;
+    private final OutputStream output;
+    private final TabixIndexCreator indexer;
+    private final ExecutorService executorService;
+    private final int maxBatchesInFlight;
+    private final Deque<Future<CompressedBatch>> batches = new ArrayDeque<>();
+
+    private VCFHeader header;
+    private List<VariantContext> pending = Lists.newArrayListWithExpectedSize(RECORDS_PER_BATCH);
+    private long blockAddress;
+    private boolean error;
+
+    public ParallelVCFWriter(@NotNull final String file, @NotNull final SAMSequenceDictionary dictionary, int threads)
+            throws IOException {
+        this.file = new File(file);
+        this.output = new BufferedOutputStream(new FileOutputStream(this.file));
+        this.indexer = new TabixIndexCreator(dictionary, TabixFormat.VCF);
+        this.maxBatchesInFlight = 2 * threads;
+        this.executorService = Executors.newFixedThreadPool(threads,
+                new ThreadFactoryBuilder().setNameFormat("SAGE-VCF-%d").setDaemon(true).build());
+    }
+
+    @Override
+    public void writeHeader(@NotNull final VCFHeader header) {
+        setHeader(header);
+
+        // Let htsjdk produce the header text so that it is identical to that of the default writer
+        final ByteArrayOutputStream headerText = new ByteArrayOutputStream();
+        try (VariantContextWriter headerWriter = new VariantContextWriterBuilder().setOutputStream(headerText)
+                .clearOptions()
+                .build()) {
+            headerWriter.writeHeader(header);
+        }
+
+        final byte[] text = headerText.toByteArray();
+        submit(() -> compress(Collections.emptyList(), (stream, offsets) -> stream.write(text)));
+    }
+
+    @Override
+    public void setHeader(@NotNull final VCFHeader header) {
+        this.header = header;
+    }
+
+    @Override
+    public void add(@NotNull final VariantContext context) {
+        if (header == null) {
+            throw new IllegalStateException("Unable to write the VCF: header is missing, try to call writeHeader or setHeader first.");
+        }
+
+        pending.add(context);
+        if (pending.size() >= RECORDS_PER_BATCH) {
+            submitPending();
+        }
+    }
+
+    @Override
+    public boolean checkError() {
+        return error;
+    }
+
+    @Override
+    public void close() {
+        try {
+            submitPending();
+            while (!batches.isEmpty()) {
+                writeNext();
+            }
+
+            final Index index = indexer.finalizeIndex(blockAddress << 16);
+            output.write(BlockCompressedStreamConstants.EMPTY_GZIP_BLOCK);
+            output.close();
+            index.writeBasedOnFeatureFile(file);
+        } catch (IOException e) {
+            error = true;
+            throw new RuntimeIOException("Unable to write the VCF object to " + file, e);
+        } finally {
+            executorService.shutdown();
+        }
+    }
+
+    private void submitPending() {
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        final List<VariantContext> variants = pending;
+        final VCFEncoder encoder = new VCFEncoder(header, false, false);
+        pending = Lists.newArrayListWithExpectedSize(RECORDS_PER_BATCH);
+
+        submit(() -> compress(variants, (stream, offsets) -> {
+            final StringBuilder line = new StringBuilder();
+            for (int i = 0; i < variants.size(); i++) {
+                offsets[i] = stream.getFilePointer();
+                line.setLength(0);
+                encoder.write(line, variants.get(i));
+                line.append('\n');
+                stream.write(line.toString().getBytes(VCFEncoder.VCF_CHARSET));
+            }
+        }));
+    }
+
+    private void submit(@NotNull final Callable<CompressedBatch> batch) {
+        batches.add(executorService.submit(batch));
+
+        // Write out whatever is complete without waiting, then wait if too far ahead
+        while (!batches.isEmpty() && (batches.peekFirst().isDone() || batches.size() > maxBatchesInFlight)) {
+            writeNext();
+        }
+    }
+
+    private void writeNext() {
+        final CompressedBatch batch;
+        try {
+            batch = batches.removeFirst().get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            error = true;
+            throw new RuntimeIOException("Interrupted writing to " + file, e);
+        } catch (ExecutionException e) {
+            error = true;
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new RuntimeIOException("Unable to write the VCF object to " + file, e.getCause());
+        }
+
+        for (int i = 0; i < batch.variants.size(); i++) {
+            final long relativeOffset = batch.offsets[i];
+            final long virtualOffset = ((blockAddress + (relativeOffset >>> 16)) << 16) | (relativeOffset & 0xFFFF);
+            indexer.addFeature(batch.variants.get(i), virtualOffset);
+        }
+
+        try {
+            output.write(batch.compressed);
+        } catch (IOException e) {
+            error = true;
+            throw new RuntimeIOException("Unable to write the VCF object to " + file, e);
+        }
+        blockAddress += batch.compressed.length;
+    }
+
+    @NotNull
+    private static CompressedBatch compress(@NotNull final List<VariantContext> variants, @NotNull final BatchEncoder encoder)
+            throws IOException {
+        final long[] offsets = new long[variants.size()];
+        final ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+
+        // Flush rather than close so that no EOF block is written after each batch
+        final BlockCompressedOutputStream stream = new BlockCompressedOutputStream(compressed, (File) null);
+        encoder.encode(stream, offsets);
+        stream.flush();
+
+        return new CompressedBatch(variants, offsets, compressed.toByteArray());
+    }
+
+    private interface BatchEncoder {
+        void encode(@NotNull BlockCompressedOutputStream stream, @NotNull long[] offsets) throws IOException;
+    }
+
+    private static class CompressedBatch {
+
+        private final List<VariantContext> variants;
+        private final long[] offsets;
+        private final byte[] compressed;
+
+        private CompressedBatch(@NotNull final List<VariantContext> variants, @NotNull final long[] offsets,
+                @NotNull final byte[] compressed) {
+            this.variants = variants;
+            this.offsets = offsets;
+            this.compressed = compressed;
+        }
+    }
+}
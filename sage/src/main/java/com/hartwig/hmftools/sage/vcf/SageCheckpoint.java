@@ -0,0 +1,174 @@
+package com.hartwig.hmftools.sage.vcf;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Collection;
+import java.util.List;
+import java.util.StringJoiner;
+import java.util.function.Consumer;
+
+import com.google.common.hash.Hashing;
+import com.hartwig.hmftools.common.genome.region.HmfTranscriptRegion;
+import com.hartwig.hmftools.sage.config.BaseQualityRecalibrationConfig;
+import com.hartwig.hmftools.sage.config.QualityConfig;
+import com.hartwig.hmftools.sage.config.SageConfig;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.jetbrains.annotations.NotNull;
+
+import htsjdk.samtools.SAMSequenceDictionary;
+import htsjdk.variant.variantcontext.VariantContext;
+import htsjdk.variant.variantcontext.writer.VariantContextWriter;
+import htsjdk.variant.variantcontext.writer.VariantContextWriterBuilder;
+import htsjdk.variant.vcf.VCFFileReader;
+import htsjdk.variant.vcf.VCFHeader;
+import htsjdk.variant.vcf.VCFHeaderLine;
+
+/**
+ * Persists the output of each completed chromosome as a shard in the checkpoint directory. A shard only appears once it has been
+ * completely written, so a restarted run can skip any chromosome that has one and replay it into the final VCF instead.
+ * Each shard carries a fingerprint of the inputs and config that produced it (SAGE version, bams, reference genome, panel,
+ * hotspots and filter settings) in its header. Shards with a different fingerprint are ignored and overwritten.
+ */
+public class SageCheckpoint {
+
+    private static final Logger LOGGER = LogManager.getLogger(SageCheckpoint.class);
+
+    private static final String EXTENSION = ".sage.shard.vcf.gz";
+    private static final String TEMP_EXTENSION = ".tmp.vcf.gz";
+    static final String FINGERPRINT_HEADER = "sageCheckpointFingerprint";
+
+    private final File directory;
+    private final VCFHeader header;
+    private final String fingerprint;
+
+    public SageCheckpoint(@NotNull final SageConfig config, @NotNull final SAMSequenceDictionary dictionary) throws IOException {
+        this(config.checkpointDirectory(), header(config, dictionary), fingerprint(config));
+    }
+
+    SageCheckpoint(@NotNull final String directory, @NotNull final VCFHeader header, @NotNull final String fingerprint)
+            throws IOException {
+        this.directory = new File(directory);
+        this.header = new VCFHeader(header);
+        this.header.addMetaDataLine(new VCFHeaderLine(FINGERPRINT_HEADER, fingerprint));
+        this.fingerprint = fingerprint;
+
+        if (!this.directory.exists() && !this.directory.mkdirs() && !this.directory.exists()) {
+            throw new IOException("Unable to write directory " + directory);
+        }
+    }
+
+    public boolean isComplete(@NotNull final String contig) {
+        final File shard = shardFile(contig);
+        if (!shard.exists()) {
+            return false;
+        }
+
+        try (VCFFileReader reader = new VCFFileReader(shard, false)) {
+            final VCFHeaderLine line = reader.getFileHeader().getOtherHeaderLine(FINGERPRINT_HEADER);
+            if (line != null && line.getValue().equals(fingerprint)) {
+                return true;
+            }
+        }
+
+        LOGGER.warn("Ignoring checkpoint of chromosome {} produced by different inputs or config", contig);
+        return false;
+    }
+
+    public void write(@NotNull final String contig, @NotNull final Collection<VariantContext> variants) throws IOException {
+        // Unique temp file so that concurrent runs sharing the directory never write to the same file
+        final File temp = File.createTempFile(contig + ".sage.shard.", TEMP_EXTENSION, directory);
+        try {
+            try (VariantContextWriter writer = new VariantContextWriterBuilder().setOutputFile(temp).clearOptions().build()) {
+                writer.writeHeader(new VCFHeader(header));
+                variants.forEach(writer::add);
+            }
+
+            Files.move(temp.toPath(), shardFile(contig).toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp.toPath());
+        }
+    }
+
+    public void read(@NotNull final String contig, @NotNull final Consumer<VariantContext> consumer) {
+        try (VCFFileReader reader = new VCFFileReader(shardFile(contig), false)) {
+            reader.forEach(consumer);
+        }
+    }
+
+    @NotNull
+    private static VCFHeader header(@NotNull final SageConfig config, @NotNull final SAMSequenceDictionary dictionary) {
+        final VCFHeader header = SageVCF.header(config);
+        header.setSequenceDictionary(dictionary);
+        return header;
+    }
+
+    @NotNull
+    static String fingerprint(@NotNull final SageConfig config) throws IOException {
+        final StringJoiner identity = new StringJoiner("\t").add(config.version());
+        addSamples(identity, config.tumor(), config.tumorBam());
+        addSamples(identity, config.reference(), config.referenceBam());
+        addFile(identity, config.refGenome());
+        addFile(identity, config.panelBed());
+        addFile(identity, config.hotspots());
+        addFile(identity, config.highConfidenceBed());
+        addFile(identity, config.cobaltRatio());
+
+        identity.add(String.valueOf(config.panelOnly()))
+                .add(String.valueOf(config.mnvEnabled()))
+                .add(String.valueOf(config.adaptivePartition()))
+                .add(String.valueOf(config.regionSliceSize()))
+                .add(String.valueOf(config.minMapQuality()))
+                .add(String.valueOf(config.maxRealignmentDepth()))
+                .add(String.valueOf(config.maxReadDepth()))
+                .add(String.valueOf(config.maxReadDepthPanel()))
+                .add(String.valueOf(config.readContextFlankSize()))
+                .add(config.filter().toString());
+
+        final QualityConfig quality = config.qualityConfig();
+        identity.add(String.valueOf(quality.jitterPenalty()))
+                .add(String.valueOf(quality.jitterMinRepeatCount()))
+                .add(String.valueOf(quality.baseQualityFixedPenalty()))
+                .add(String.valueOf(quality.distanceFromReadEdgeFixedPenalty()))
+                .add(String.valueOf(quality.mapQualityFixedPenalty()))
+                .add(String.valueOf(quality.mapQualityReadEventsPenalty()))
+                .add(String.valueOf(quality.mapQualityImproperPairPenalty()));
+        quality.highlyPolymorphicGenes().stream().map(HmfTranscriptRegion::geneID).forEach(identity::add);
+
+        final BaseQualityRecalibrationConfig bqr = config.baseQualityRecalibrationConfig();
+        identity.add(String.valueOf(bqr.enabled()))
+                .add(String.valueOf(bqr.sampleSize()))
+                .add(String.valueOf(bqr.sampleBases()))
+                .add(String.valueOf(bqr.maxAltCount()))
+                .add(String.valueOf(bqr.minMapQuality()));
+
+        return Hashing.sha256().hashString(identity.toString(), StandardCharsets.UTF_8).toString();
+    }
+
+    private static void addSamples(@NotNull final StringJoiner identity, @NotNull final List<String> samples,
+            @NotNull final List<String> bams) throws IOException {
+        for (int i = 0; i < samples.size(); i++) {
+            identity.add(samples.get(i));
+            addFile(identity, bams.get(i));
+        }
+    }
+
+    private static void addFile(@NotNull final StringJoiner identity, @NotNull final String path) throws IOException {
+        if (path.isEmpty()) {
+            identity.add(path);
+            return;
+        }
+
+        final File file = new File(path).getCanonicalFile();
+        identity.add(file.getPath()).add(String.valueOf(file.length())).add(String.valueOf(file.lastModified()));
+    }
+
+    @NotNull
+    private File shardFile(@NotNull final String contig) {
+        return new File(directory, contig + EXTENSION);
+    }
+}
@@ -1,5 +1,6 @@
 package com.hartwig.hmftools.sage.vcf;
 
+import java.io.IOException;
 import java.util.Collections;
 import java.util.List;
 import java.util.Set;
@@ -17,7 +18,7 @@ import org.jetbrains.annotations.NotNull;
 
 import htsjdk.samtools.SAMSequenceDictionary;
 import htsjdk.samtools.SAMSequenceRecord;
-import htsjdk.samtools.reference.IndexedFastaSequenceFile;
+import htsjdk.samtools.reference.ReferenceSequenceFile;
 import htsjdk.variant.variantcontext.VariantContext;
 import htsjdk.variant.variantcontext.writer.Options;
 import htsjdk.variant.variantcontext.writer.VariantContextWriter;
@@ -76,14 +77,10 @@ public class SageVCF implements AutoCloseable {
     private final VariantContextWriter writer;
     private final Consumer<VariantContext> consumer;
 
-    public SageVCF(@NotNull final IndexedFastaSequenceFile reference, @NotNull final SageConfig config) {
+    public SageVCF(@NotNull final ReferenceSequenceFile reference, @NotNull final SageConfig config) throws IOException {
         final SAMSequenceDictionary sequenceDictionary = reference.getSequenceDictionary();
 
-        writer = new VariantContextWriterBuilder().setOutputFile(config.outputFile())
-                .modifyOption(Options.INDEX_ON_THE_FLY, true)
-                .modifyOption(Options.USE_ASYNC_IO, false)
-                .setReferenceDictionary(sequenceDictionary)
-                .build();
+        writer = writer(config, sequenceDictionary);
         SomaticRefContextEnrichment enrichment = new SomaticRefContextEnrichment(reference, writer::add);
         this.consumer = enrichment;
 
@@ -100,8 +97,8 @@ public class SageVCF implements AutoCloseable {
         writer.writeHeader(header);
     }
 
-    public SageVCF(@NotNull final IndexedFastaSequenceFile reference, @NotNull final SageConfig config,
-            @NotNull final VCFHeader existingHeader) {
+    public SageVCF(@NotNull final ReferenceSequenceFile reference, @NotNull final SageConfig config,
+            @NotNull final VCFHeader existingHeader) throws IOException {
 
         Set<VCFHeaderLine> headerLines = existingHeader.getMetaDataInInputOrder();
         List<String> samples = Lists.newArrayList(existingHeader.getGenotypeSamples());
@@ -109,13 +106,24 @@ public class SageVCF implements AutoCloseable {
 
         final VCFHeader newHeader = new VCFHeader(headerLines, samples);
 
-        writer = new VariantContextWriterBuilder().setOutputFile(config.outputFile())
+        writer = writer(config, reference.getSequenceDictionary());
+        this.consumer = writer::add;
+        writer.writeHeader(newHeader);
+    }
+
+    @NotNull
+    private static VariantContextWriter writer(@NotNull final SageConfig config, @NotNull final SAMSequenceDictionary dictionary)
+            throws IOException {
+        // Compression of block compressed output is spread across threads
+        if (config.outputFile().endsWith(".gz")) {
+            return new ParallelVCFWriter(config.outputFile(), dictionary, config.threads());
+        }
+
+        return new VariantContextWriterBuilder().setOutputFile(config.outputFile())
                 .modifyOption(Options.INDEX_ON_THE_FLY, true)
                 .modifyOption(Options.USE_ASYNC_IO, false)
-                .setReferenceDictionary(reference.getSequenceDictionary())
+                .setReferenceDictionary(dictionary)
                 .build();
-        this.consumer = writer::add;
-        writer.writeHeader(newHeader);
     }
 
     public void write(@NotNull final VariantContext context) {
@@ -0,0 +1,68 @@
+package com.hartwig.hmftools.sage.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.collect.Lists;
+import com.hartwig.hmftools.sage.candidate.Candidate;
+import com.hartwig.hmftools.sage.phase.Phase;
+import com.hartwig.hmftools.sage.read.ReadContextCounters;
+import com.hartwig.hmftools.sage.variant.SageVariant;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Phasing and de-duplication of the variants of a synthetic region. Phase updates the variants it is given so they are recreated
+ * before each invocation. Run with:
+ * mvn -pl sage test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=org.openjdk.jmh.Main -Dexec.args=PhaseBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PhaseBenchmark {
+
+    private SyntheticRegion region;
+    private List<Candidate> candidates;
+    private ReadContextCounters tumor;
+    private ReadContextCounters normal;
+    private List<SageVariant> variants;
+
+    @Setup
+    public void setup() {
+        // A longer region with lower depth gives more variants to phase
+        region = new SyntheticRegion(200_000, 30);
+        candidates = region.candidates(region.refSequence());
+
+        tumor = new ReadContextCounters(SyntheticRegion.TUMOR, candidates);
+        tumor.addCounters(region.evidence(SyntheticRegion.TUMOR, region.tumorReads(), candidates));
+        normal = new ReadContextCounters(SyntheticRegion.NORMAL, candidates);
+        normal.addCounters(region.evidence(SyntheticRegion.NORMAL, region.normalReads(), candidates));
+    }
+
+    @Setup(Level.Invocation)
+    public void createVariants() {
+        variants = SyntheticRegion.variants(region.config(), candidates, normal, tumor);
+    }
+
+    @Benchmark
+    public List<SageVariant> phase() {
+        final List<SageVariant> result = Lists.newArrayList();
+        final Phase phase = new Phase(region.config(), SyntheticRegion.CONTIG, result::add);
+        variants.forEach(phase);
+        phase.flush();
+        return result;
+    }
+}
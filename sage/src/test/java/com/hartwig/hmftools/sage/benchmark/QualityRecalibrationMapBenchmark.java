@@ -0,0 +1,138 @@
+package com.hartwig.hmftools.sage.benchmark;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import com.google.common.collect.Lists;
+import com.hartwig.hmftools.sage.quality.ImmutableQualityRecalibrationKey;
+import com.hartwig.hmftools.sage.quality.ImmutableQualityRecalibrationRecord;
+import com.hartwig.hmftools.sage.quality.QualityRecalibrationKey;
+import com.hartwig.hmftools.sage.quality.QualityRecalibrationMap;
+import com.hartwig.hmftools.sage.quality.QualityRecalibrationRecord;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Scores every base of a synthetic read stream against a full recalibration table, comparing the previous keyed map lookup
+ * with the dense table in QualityRecalibrationMap. Run with:
+ * mvn -pl sage test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=org.openjdk.jmh.Main -Dexec.args=QualityRecalibrationMap
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class QualityRecalibrationMapBenchmark {
+
+    private static final byte[] BASES = "ACGT".getBytes();
+    private static final byte[] QUALITIES = { 37, 37, 37, 37, 37, 37, 25, 25, 11, 2 };
+    private static final int READS = 1000;
+    private static final int READ_LENGTH = 151;
+
+    private byte[] ref;
+    private byte[][] readBases;
+    private byte[][] readQualities;
+    private int[] readPositions;
+
+    private QualityRecalibrationMap dense;
+    private Map<QualityRecalibrationKey, QualityRecalibrationRecord> keyed;
+
+    @Setup
+    public void setup() {
+        final Random random = new Random(0);
+
+        ref = new byte[100_000];
+        for (int i = 0; i < ref.length; i++) {
+            ref[i] = BASES[random.nextInt(4)];
+        }
+
+        readBases = new byte[READS][READ_LENGTH];
+        readQualities = new byte[READS][READ_LENGTH];
+        readPositions = new int[READS];
+        for (int i = 0; i < READS; i++) {
+            readPositions[i] = 1 + random.nextInt(ref.length - READ_LENGTH - 2);
+            for (int j = 0; j < READ_LENGTH; j++) {
+                final byte qual = QUALITIES[random.nextInt(QUALITIES.length)];
+                final boolean error = random.nextInt(100) < (qual < 20 ? 10 : 1);
+                readBases[i][j] = error ? BASES[random.nextInt(4)] : ref[readPositions[i] + j];
+                readQualities[i][j] = qual;
+            }
+        }
+
+        final List<QualityRecalibrationRecord> records = Lists.newArrayList();
+        for (byte refBase : BASES) {
+            for (byte altBase : BASES) {
+                for (byte previous : BASES) {
+                    for (byte next : BASES) {
+                        for (byte qual : new byte[] { 2, 11, 25, 37 }) {
+                            final QualityRecalibrationKey key = ImmutableQualityRecalibrationKey.builder()
+                                    .ref(refBase)
+                                    .alt(altBase)
+                                    .trinucleotideContext(new byte[] { previous, refBase, next })
+                                    .qual(qual)
+                                    .build();
+                            records.add(ImmutableQualityRecalibrationRecord.builder()
+                                    .key(key)
+                                    .count(1)
+                                    .recalibratedQual(refBase == altBase ? qual : qual - 1.5)
+                                    .build());
+                        }
+                    }
+                }
+            }
+        }
+
+        dense = new QualityRecalibrationMap(records);
+        keyed = records.stream().collect(Collectors.toMap(QualityRecalibrationRecord::key, x -> x));
+    }
+
+    @Benchmark
+    public double keyedLookup() {
+        double result = 0;
+        for (int i = 0; i < READS; i++) {
+            for (int j = 0; j < READ_LENGTH; j++) {
+                final int refIndex = readPositions[i] + j;
+                final QualityRecalibrationKey key = ImmutableQualityRecalibrationKey.builder()
+                        .ref(ref[refIndex])
+                        .alt(readBases[i][j])
+                        .qual(readQualities[i][j])
+                        .trinucleotideContext(new byte[] { ref[refIndex - 1], ref[refIndex], ref[refIndex + 1] })
+                        .build();
+                final byte qual = readQualities[i][j];
+                result += Optional.ofNullable(keyed.get(key)).map(QualityRecalibrationRecord::recalibratedQual).orElse(qual * 1d);
+            }
+        }
+        return result;
+    }
+
+    @Benchmark
+    public double denseLookup() {
+        double result = 0;
+        for (int i = 0; i < READS; i++) {
+            for (int j = 0; j < READ_LENGTH; j++) {
+                final int refIndex = readPositions[i] + j;
+                result += dense.quality(ref[refIndex],
+                        readBases[i][j],
+                        ref[refIndex - 1],
+                        ref[refIndex],
+                        ref[refIndex + 1],
+                        readQualities[i][j]);
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,55 @@
+package com.hartwig.hmftools.sage.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import com.hartwig.hmftools.sage.candidate.Candidate;
+import com.hartwig.hmftools.sage.read.ReadContextCounter;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Evidence collection over a synthetic region, ie every read through ReadContextCounter.accept of each overlapping candidate, for both
+ * the tumor (mostly matching reads) and normal (mostly reference reads). Run with:
+ * mvn -pl sage test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=org.openjdk.jmh.Main -Dexec.args=ReadContextCounter
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReadContextCounterBenchmark {
+
+    @Param({ "100" })
+    public int depth;
+
+    private SyntheticRegion region;
+    private List<Candidate> candidates;
+
+    @Setup
+    public void setup() {
+        region = new SyntheticRegion(20_000, depth);
+        candidates = region.candidates(region.refSequence());
+    }
+
+    @Benchmark
+    public List<ReadContextCounter> tumor() {
+        return region.evidence(SyntheticRegion.TUMOR, region.tumorReads(), candidates);
+    }
+
+    @Benchmark
+    public List<ReadContextCounter> normal() {
+        return region.evidence(SyntheticRegion.NORMAL, region.normalReads(), candidates);
+    }
+}
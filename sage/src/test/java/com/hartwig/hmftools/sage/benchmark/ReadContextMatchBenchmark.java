@@ -0,0 +1,95 @@
+package com.hartwig.hmftools.sage.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.collect.Lists;
+import com.hartwig.hmftools.sage.candidate.Candidate;
+import com.hartwig.hmftools.sage.read.ReadContext;
+import com.hartwig.hmftools.sage.read.ReadContextMatch;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import htsjdk.samtools.SAMRecord;
+
+/**
+ * Matches the read context of each candidate of a synthetic region against the bases of every tumor read aligned at its position,
+ * isolating ReadContext matching from the rest of evidence collection. Run with:
+ * mvn -pl sage test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=org.openjdk.jmh.Main -Dexec.args=ReadContextMatch
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReadContextMatchBenchmark {
+
+    private ReadContext[] readContexts;
+    private boolean[] wildcards;
+    private int[] readIndexes;
+    private byte[][] readBases;
+
+    @Setup
+    public void setup() {
+        final SyntheticRegion region = new SyntheticRegion(20_000, 100);
+        final List<Candidate> candidates = region.candidates(region.refSequence());
+
+        final List<ReadContext> contexts = Lists.newArrayList();
+        final List<Boolean> wildcard = Lists.newArrayList();
+        final List<Integer> indexes = Lists.newArrayList();
+        final List<byte[]> bases = Lists.newArrayList();
+        for (Candidate candidate : candidates) {
+            for (SAMRecord record : region.tumorReads()) {
+                if (record.getAlignmentStart() > candidate.position()) {
+                    break;
+                }
+
+                final int readPosition = record.getReadPositionAtReferencePosition((int) candidate.position());
+                if (readPosition > 0) {
+                    contexts.add(candidate.readContext());
+                    wildcard.add(candidate.variant().isSNV() && candidate.readContext().microhomology().isEmpty());
+                    indexes.add(readPosition - 1);
+                    bases.add(record.getReadBases());
+                }
+            }
+        }
+
+        readContexts = contexts.toArray(new ReadContext[0]);
+        wildcards = new boolean[wildcard.size()];
+        readIndexes = new int[indexes.size()];
+        readBases = bases.toArray(new byte[0][]);
+        for (int i = 0; i < readIndexes.length; i++) {
+            wildcards[i] = wildcard.get(i);
+            readIndexes[i] = indexes.get(i);
+        }
+    }
+
+    @Benchmark
+    public int isCentreCovered() {
+        int result = 0;
+        for (int i = 0; i < readContexts.length; i++) {
+            result += readContexts[i].isCentreCovered(readIndexes[i], readBases[i]) ? 1 : 0;
+        }
+        return result;
+    }
+
+    @Benchmark
+    public int matchAtPosition() {
+        int result = 0;
+        for (int i = 0; i < readContexts.length; i++) {
+            final ReadContextMatch match = readContexts[i].matchAtPosition(wildcards[i], readIndexes[i], readBases[i]);
+            result += match.ordinal();
+        }
+        return result;
+    }
+}
@@ -0,0 +1,56 @@
+package com.hartwig.hmftools.sage.benchmark;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import com.hartwig.hmftools.sage.context.AltContext;
+import com.hartwig.hmftools.sage.context.RefContextConsumer;
+import com.hartwig.hmftools.sage.context.RefContextFactory;
+import com.hartwig.hmftools.sage.ref.RefSequence;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Candidate discovery over the tumor reads of a synthetic region, ie every read through RefContextConsumer.accept. Run with:
+ * mvn -pl sage test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=org.openjdk.jmh.Main -Dexec.args=RefContextConsumer
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RefContextConsumerBenchmark {
+
+    @Param({ "100" })
+    public int depth;
+
+    private SyntheticRegion region;
+    private RefSequence refSequence;
+
+    @Setup
+    public void setup() {
+        region = new SyntheticRegion(20_000, depth);
+        refSequence = region.refSequence();
+    }
+
+    @Benchmark
+    public List<AltContext> accept() {
+        final RefContextFactory factory =
+                new RefContextFactory(region.config(), SyntheticRegion.TUMOR, Collections.emptyList(), Collections.emptyList());
+        final RefContextConsumer consumer = new RefContextConsumer(region.config(), region.region(), refSequence, factory);
+        region.tumorReads().forEach(consumer);
+        return factory.altContexts();
+    }
+}
@@ -0,0 +1,66 @@
+package com.hartwig.hmftools.sage.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.collect.Lists;
+import com.hartwig.hmftools.sage.candidate.Candidate;
+import com.hartwig.hmftools.sage.phase.Phase;
+import com.hartwig.hmftools.sage.read.ReadContextCounters;
+import com.hartwig.hmftools.sage.ref.RefSequence;
+import com.hartwig.hmftools.sage.variant.SageVariant;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * All of the read processing of a synthetic region on a single thread in the same order as the somatic pipeline: candidates, tumor
+ * evidence, filtering, normal evidence, variant creation and phasing. Run with:
+ * mvn -pl sage test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=org.openjdk.jmh.Main -Dexec.args=RegionBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class RegionBenchmark {
+
+    @Param({ "100" })
+    public int depth;
+
+    private SyntheticRegion region;
+
+    @Setup
+    public void setup() {
+        region = new SyntheticRegion(50_000, depth);
+    }
+
+    @Benchmark
+    public List<SageVariant> region() {
+        final RefSequence refSequence = region.refSequence();
+        final List<Candidate> initialCandidates = region.candidates(refSequence);
+
+        final ReadContextCounters tumor = new ReadContextCounters(SyntheticRegion.TUMOR, initialCandidates);
+        tumor.addCounters(region.evidence(SyntheticRegion.TUMOR, region.tumorReads(), initialCandidates));
+
+        final List<Candidate> candidates = tumor.candidates(region.config().filter().readContextFilter());
+        final ReadContextCounters normal = new ReadContextCounters(SyntheticRegion.NORMAL, candidates);
+        normal.addCounters(region.evidence(SyntheticRegion.NORMAL, region.normalReads(), candidates));
+
+        final List<SageVariant> result = Lists.newArrayList();
+        final Phase phase = new Phase(region.config(), SyntheticRegion.CONTIG, result::add);
+        SyntheticRegion.variants(region.config(), candidates, normal, tumor).forEach(phase);
+        phase.flush();
+        return result;
+    }
+}
@@ -0,0 +1,332 @@
+package com.hartwig.hmftools.sage.benchmark;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.hartwig.hmftools.common.genome.region.GenomeRegion;
+import com.hartwig.hmftools.common.genome.region.GenomeRegions;
+import com.hartwig.hmftools.sage.candidate.Candidate;
+import com.hartwig.hmftools.sage.candidate.Candidates;
+import com.hartwig.hmftools.sage.config.SageConfig;
+import com.hartwig.hmftools.sage.config.SageConfigTest;
+import com.hartwig.hmftools.sage.context.RefContextConsumer;
+import com.hartwig.hmftools.sage.context.RefContextFactory;
+import com.hartwig.hmftools.sage.quality.QualityRecalibrationMap;
+import com.hartwig.hmftools.sage.read.ReadContextCounter;
+import com.hartwig.hmftools.sage.read.ReadContextCounterFactory;
+import com.hartwig.hmftools.sage.read.ReadContextCounters;
+import com.hartwig.hmftools.sage.ref.RefSequence;
+import com.hartwig.hmftools.sage.samtools.NumberEvents;
+import com.hartwig.hmftools.sage.select.SamRecordSelector;
+import com.hartwig.hmftools.sage.variant.SageVariant;
+import com.hartwig.hmftools.sage.variant.SageVariantFactory;
+
+import org.jetbrains.annotations.NotNull;
+
+import htsjdk.samtools.Cigar;
+import htsjdk.samtools.CigarElement;
+import htsjdk.samtools.CigarOperator;
+import htsjdk.samtools.SAMRecord;
+import htsjdk.samtools.SAMSequenceDictionary;
+import htsjdk.samtools.SAMSequenceRecord;
+import htsjdk.samtools.reference.ReferenceSequence;
+import htsjdk.samtools.reference.ReferenceSequenceFile;
+
+/**
+ * Deterministic reference, variants and tumor and normal reads of a single region, generated in memory so that the benchmarks need no
+ * input data. The tumor carries a mix of SNVs, MNVs, inserts and deletes (some close enough to phase) on a fraction of its reads,
+ * and all reads carry sequencing errors at a rate dependent on base quality.
+ */
+public class SyntheticRegion {
+
+    public static final String CONTIG = "1";
+    public static final String TUMOR = "TUMOR";
+    public static final String NORMAL = "NORMAL";
+
+    private static final byte[] BASES = "ACGT".getBytes();
+    private static final byte[] QUALITIES = { 37, 37, 37, 37, 37, 37, 25, 25, 11, 2 };
+    private static final int CONTIG_LENGTH = 500_000;
+    private static final int READ_LENGTH = 151;
+    private static final int VARIANT_SPACING = 400;
+    private static final double TUMOR_VAF = 0.3;
+
+    private final SageConfig config;
+    private final GenomeRegion region;
+    private final byte[] ref;
+    private final ReferenceSequenceFile refGenome;
+    private final List<SyntheticVariant> variants = Lists.newArrayList();
+    private final List<SAMRecord> tumorReads = Lists.newArrayList();
+    private final List<SAMRecord> normalReads = Lists.newArrayList();
+    private final Map<String, QualityRecalibrationMap> qualityRecalibration = Maps.newHashMap();
+
+    public SyntheticRegion(int regionLength, int depth) {
+        final Random random = new Random(0);
+        config = SageConfigTest.testConfig(Collections.emptyList());
+        region = GenomeRegions.create(CONTIG, 50_000, 50_000 + regionLength - 1);
+
+        ref = new byte[CONTIG_LENGTH];
+        for (int i = 0; i < ref.length; i++) {
+            // Sprinkle short homopolymers so that repeats and jitter are exercised
+            ref[i] = i > 0 && random.nextInt(8) == 0 ? ref[i - 1] : BASES[random.nextInt(4)];
+        }
+        refGenome = new InMemoryReferenceSequenceFile(ref);
+
+        for (int position = (int) region.start() + 100; position < region.end() - 100; position += VARIANT_SPACING) {
+            variants.add(randomVariant(random, position));
+            if (random.nextInt(4) == 0) {
+                // Phased neighbour within the same read
+                variants.add(randomVariant(random, position + 20 + random.nextInt(30)));
+            }
+        }
+
+        final int readCount = (int) (depth * (region.bases() + READ_LENGTH) / READ_LENGTH);
+        final int[] starts = new int[readCount];
+        for (int i = 0; i < readCount; i++) {
+            starts[i] = (int) region.start() - READ_LENGTH + random.nextInt((int) region.bases() + READ_LENGTH);
+        }
+        Arrays.sort(starts);
+        for (int i = 0; i < readCount; i++) {
+            tumorReads.add(read(random, "tumor" + i, starts[i], random.nextDouble() < TUMOR_VAF));
+            normalReads.add(read(random, "normal" + i, starts[i], false));
+        }
+
+        qualityRecalibration.put(TUMOR, new QualityRecalibrationMap(Collections.emptyList()));
+        qualityRecalibration.put(NORMAL, new QualityRecalibrationMap(Collections.emptyList()));
+    }
+
+    @NotNull
+    public SageConfig config() {
+        return config;
+    }
+
+    @NotNull
+    public GenomeRegion region() {
+        return region;
+    }
+
+    @NotNull
+    public ReferenceSequenceFile refGenome() {
+        return refGenome;
+    }
+
+    @NotNull
+    public RefSequence refSequence() {
+        return new RefSequence(region, refGenome);
+    }
+
+    @NotNull
+    public List<SAMRecord> tumorReads() {
+        return tumorReads;
+    }
+
+    @NotNull
+    public List<SAMRecord> normalReads() {
+        return normalReads;
+    }
+
+    @NotNull
+    public List<Candidate> candidates(@NotNull final RefSequence refSequence) {
+        final RefContextFactory factory = new RefContextFactory(config, TUMOR, Collections.emptyList(), Collections.emptyList());
+        final RefContextConsumer consumer = new RefContextConsumer(config, region, refSequence, factory);
+        tumorReads.forEach(consumer);
+
+        final Candidates candidates = new Candidates(Collections.emptyList(), Collections.emptyList(), Collections.emptyList());
+        candidates.add(factory.altContexts());
+        return candidates.candidates();
+    }
+
+    @NotNull
+    public List<ReadContextCounter> evidence(@NotNull final String sample, @NotNull final List<SAMRecord> reads,
+            @NotNull final List<Candidate> candidates) {
+        final List<ReadContextCounter> counters = new ReadContextCounterFactory(config, qualityRecalibration).create(sample, candidates);
+        final SamRecordSelector<ReadContextCounter> selector = new SamRecordSelector<>(counters);
+        for (SAMRecord record : reads) {
+            final int numberOfEvents = NumberEvents.numberOfEvents(record);
+            selector.select(record, x -> x.accept(record, config, numberOfEvents));
+        }
+        return counters;
+    }
+
+    @NotNull
+    public static List<SageVariant> variants(@NotNull final SageConfig config, @NotNull final List<Candidate> candidates,
+            @NotNull final ReadContextCounters normal, @NotNull final ReadContextCounters tumor) {
+        final SageVariantFactory factory = new SageVariantFactory(config.filter());
+        final List<SageVariant> result = Lists.newArrayListWithExpectedSize(candidates.size());
+        for (Candidate candidate : candidates) {
+            result.add(factory.create(candidate,
+                    normal.readContextCounters(candidate.variant()),
+                    tumor.readContextCounters(candidate.variant())));
+        }
+        return result;
+    }
+
+    @NotNull
+    private SyntheticVariant randomVariant(@NotNull final Random random, int position) {
+        final int type = random.nextInt(10);
+        if (type < 6) {
+            return new SyntheticVariant(position, 1, new byte[] { otherBase(random, ref[position - 1]) });
+        } else if (type < 7) {
+            return new SyntheticVariant(position, 2, new byte[] { otherBase(random, ref[position - 1]), otherBase(random, ref[position]) });
+        } else if (type < 9) {
+            final byte[] alt = new byte[2 + random.nextInt(4)];
+            alt[0] = ref[position - 1];
+            for (int i = 1; i < alt.length; i++) {
+                alt[i] = BASES[random.nextInt(4)];
+            }
+            return new SyntheticVariant(position, 1, alt);
+        }
+        return new SyntheticVariant(position, 2 + random.nextInt(4), new byte[] { ref[position - 1] });
+    }
+
+    @NotNull
+    private SAMRecord read(@NotNull final Random random, @NotNull final String name, int alignmentStart, boolean alt) {
+        final byte[] bases = new byte[READ_LENGTH];
+        final byte[] qualities = new byte[READ_LENGTH];
+        final List<CigarElement> elements = Lists.newArrayList();
+
+        int readIndex = 0;
+        int position = alignmentStart;
+        while (readIndex < READ_LENGTH) {
+            final SyntheticVariant variant = alt ? variantAt(position) : null;
+            if (variant == null) {
+                bases[readIndex++] = ref[position - 1];
+                add(elements, CigarOperator.M, 1);
+                position++;
+                continue;
+            }
+
+            final int altLength = Math.min(variant.alt.length, READ_LENGTH - readIndex);
+            System.arraycopy(variant.alt, 0, bases, readIndex, altLength);
+            readIndex += altLength;
+
+            final int common = Math.min(variant.refLength, altLength);
+            add(elements, CigarOperator.M, common);
+            if (altLength > common) {
+                add(elements, CigarOperator.I, altLength - common);
+            } else if (variant.refLength > common && readIndex < READ_LENGTH) {
+                add(elements, CigarOperator.D, variant.refLength - common);
+            }
+            position += variant.refLength;
+        }
+
+        for (int i = 0; i < READ_LENGTH; i++) {
+            qualities[i] = QUALITIES[random.nextInt(QUALITIES.length)];
+            if (random.nextInt(1000) < (qualities[i] < 20 ? 20 : 1)) {
+                bases[i] = otherBase(random, bases[i]);
+            }
+        }
+
+        final SAMRecord record = new SAMRecord(null);
+        record.setReadName(name);
+        record.setReferenceName(CONTIG);
+        record.setAlignmentStart(alignmentStart);
+        record.setCigar(new Cigar(elements));
+        record.setReadBases(bases);
+        record.setBaseQualities(qualities);
+        record.setReadNegativeStrandFlag(random.nextBoolean());
+        record.setMappingQuality(60);
+        record.setReadPairedFlag(true);
+        record.setProperPairFlag(true);
+        return record;
+    }
+
+    private SyntheticVariant variantAt(int position) {
+        int low = 0;
+        int high = variants.size() - 1;
+        while (low <= high) {
+            final int mid = (low + high) >>> 1;
+            final int midPosition = variants.get(mid).position;
+            if (midPosition < position) {
+                low = mid + 1;
+            } else if (midPosition > position) {
+                high = mid - 1;
+            } else {
+                return variants.get(mid);
+            }
+        }
+        return null;
+    }
+
+    private static void add(@NotNull final List<CigarElement> elements, @NotNull final CigarOperator operator, int length) {
+        if (length <= 0) {
+            return;
+        }
+
+        if (!elements.isEmpty() && elements.get(elements.size() - 1).getOperator() == operator) {
+            final CigarElement last = elements.remove(elements.size() - 1);
+            elements.add(new CigarElement(last.getLength() + length, operator));
+        } else {
+            elements.add(new CigarElement(length, operator));
+        }
+    }
+
+    private static byte otherBase(@NotNull final Random random, byte base) {
+        byte result;
+        do {
+            result = BASES[random.nextInt(4)];
+        } while (result == base);
+        return result;
+    }
+
+    private static class SyntheticVariant {
+
+        private final int position;
+        private final int refLength;
+        private final byte[] alt;
+
+        private SyntheticVariant(int position, int refLength, @NotNull final byte[] alt) {
+            this.position = position;
+            this.refLength = refLength;
+            this.alt = alt;
+        }
+    }
+
+    private static class InMemoryReferenceSequenceFile implements ReferenceSequenceFile {
+
+        private final byte[] bases;
+        private final SAMSequenceDictionary dictionary;
+
+        private InMemoryReferenceSequenceFile(@NotNull final byte[] bases) {
+            this.bases = bases;
+            this.dictionary = new SAMSequenceDictionary(Collections.singletonList(new SAMSequenceRecord(CONTIG, bases.length)));
+        }
+
+        @Override
+        public SAMSequenceDictionary getSequenceDictionary() {
+            return dictionary;
+        }
+
+        @Override
+        public ReferenceSequence nextSequence() {
+            return null;
+        }
+
+        @Override
+        public void reset() {
+        }
+
+        @Override
+        public boolean isIndexed() {
+            return true;
+        }
+
+        @Override
+        public ReferenceSequence getSequence(final String contig) {
+            return getSubsequenceAt(contig, 1, bases.length);
+        }
+
+        @Override
+        public ReferenceSequence getSubsequenceAt(final String contig, final long start, final long stop) {
+            return new ReferenceSequence(contig, 0, Arrays.copyOfRange(bases, (int) start - 1, (int) stop));
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
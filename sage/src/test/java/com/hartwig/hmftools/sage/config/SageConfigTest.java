@@ -2,6 +2,7 @@ package com.hartwig.hmftools.sage.config;
 
 import static com.hartwig.hmftools.sage.config.BaseQualityRecalibrationConfig.DEFAULT_BQR_MAX_ALT_COUNT;
 import static com.hartwig.hmftools.sage.config.BaseQualityRecalibrationConfig.DEFAULT_BQR_MIN_MAP_QUAL;
+import static com.hartwig.hmftools.sage.config.BaseQualityRecalibrationConfig.DEFAULT_BQR_SAMPLE_BASES;
 import static com.hartwig.hmftools.sage.config.BaseQualityRecalibrationConfig.DEFAULT_BQR_SAMPLE_SIZE;
 import static com.hartwig.hmftools.sage.config.FilterConfig.DEFAULT_HARD_MIN_TUMOR_ALT_SUPPORT;
 import static com.hartwig.hmftools.sage.config.FilterConfig.DEFAULT_HARD_MIN_TUMOR_BASE_QUALITY;
@@ -26,8 +27,11 @@ import static com.hartwig.hmftools.sage.config.SageConfig.DEFAULT_THREADS;
 
 import static org.junit.Assert.assertEquals;
 
+import java.util.List;
+
 import com.google.common.collect.Lists;
 import com.hartwig.hmftools.common.genome.genepanel.HmfGenePanelSupplier;
+import com.hartwig.hmftools.common.genome.region.HmfTranscriptRegion;
 
 import org.jetbrains.annotations.NotNull;
 import org.junit.Test;
@@ -45,14 +49,28 @@ public class SageConfigTest {
         assertEquals("./SAMPLE.sage.bqr.tsv", config.baseQualityRecalibrationFile("SAMPLE"));
     }
 
+    @Test
+    public void testMetricsFile() {
+        SageConfig config = ImmutableSageConfig.builder().from(testConfig(Lists.newArrayList())).outputFile("/out/TUMOR.sage.vcf.gz").build();
+        assertEquals("/out/TUMOR.sage.metrics.tsv", config.metricsFile());
+
+        config = ImmutableSageConfig.builder().from(config).outputFile("TUMOR.vcf").build();
+        assertEquals("TUMOR.metrics.tsv", config.metricsFile());
+    }
+
     @NotNull
     public static SageConfig testConfig() {
+        return testConfig(HmfGenePanelSupplier.allGeneList37());
+    }
+
+    @NotNull
+    public static SageConfig testConfig(@NotNull final List<HmfTranscriptRegion> transcripts) {
         return ImmutableSageConfig.builder()
                 .panelOnly(false)
                 .version("2.2")
                 .inputFile("in.vcf")
                 .outputFile("out.vcf")
-                .transcriptRegions(HmfGenePanelSupplier.allGeneList37())
+                .transcriptRegions(transcripts)
                 .reference(Lists.newArrayList("reference"))
                 .referenceBam(Lists.newArrayList("referenceBam"))
                 .tumor(Lists.newArrayList("tumorList"))
@@ -74,6 +92,13 @@ public class SageConfigTest {
                 .readContextFlankSize(SageConfig.DEFAULT_READ_CONTEXT_FLANK_SIZE)
                 .baseQualityRecalibrationConfig(defaultQualityRecalibrationConfig())
                 .validationStringency(ValidationStringency.DEFAULT_STRINGENCY)
+                .fusedScan(false)
+                .fusedScanMaxReads(SageConfig.DEFAULT_FUSED_SCAN_MAX_READS)
+                .maxRegionsInFlight(2 * DEFAULT_THREADS)
+                .maxBufferedVariants(SageConfig.DEFAULT_MAX_BUFFERED_VARIANTS)
+                .adaptivePartition(false)
+                .cobaltRatio("")
+                .checkpointDirectory("")
                 .build();
     }
 
@@ -111,7 +136,10 @@ public class SageConfigTest {
                 .plot(false)
                 .maxAltCount(DEFAULT_BQR_MAX_ALT_COUNT)
                 .sampleSize(DEFAULT_BQR_SAMPLE_SIZE)
+                .sampleBases(DEFAULT_BQR_SAMPLE_BASES)
                 .minMapQuality(DEFAULT_BQR_MIN_MAP_QUAL)
+                .cacheDirectory("")
+                .bqrOnly(false)
                 .build();
     }
 }
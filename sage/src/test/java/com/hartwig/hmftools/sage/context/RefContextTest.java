@@ -0,0 +1,62 @@
+package com.hartwig.hmftools.sage.context;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Collection;
+
+import org.junit.Test;
+
+public class RefContextTest {
+
+    @Test
+    public void testSnvAndIndelAlts() {
+        final RefContext victim = new RefContext("SAMPLE", "1", 1000, 1000);
+        assertFalse(victim.hasAlts());
+        assertTrue(victim.alts().isEmpty());
+
+        victim.altRead("C", "T", 30, true, 1, null);
+        victim.altRead("C", "T", 30, true, 1, null);
+        victim.altRead("C", "A", 30, false, 1, null);
+        victim.altRead("C", "CA", 30, true, 1, null);
+        victim.altRead("CA", "TG", 30, true, 1, null);
+        victim.refRead(true);
+
+        final Collection<AltContext> alts = victim.alts();
+        assertEquals(4, alts.size());
+        assertEquals(5, victim.rawDepth());
+
+        for (AltContext alt : alts) {
+            assertEquals(1000, alt.position());
+            assertEquals(alt.alt().equals("T") ? 2 : 1, alt.rawAltSupport());
+        }
+    }
+
+    @Test
+    public void testSnvAltsAreSharedByAltBase() {
+        final RefContext victim = new RefContext("SAMPLE", "1", 1000, 1000);
+        victim.altRead("C", "T", 30, true, 1, null);
+        final AltContext first = victim.alts().iterator().next();
+        victim.altRead("C", "T", 20, true, 1, null);
+
+        assertEquals(1, victim.alts().size());
+        assertSame(first, victim.alts().iterator().next());
+        assertEquals(50, first.rawAltBaseQuality());
+    }
+
+    @Test
+    public void testReset() {
+        final RefContext victim = new RefContext("SAMPLE", "1", 1000, 1);
+        victim.altRead("C", "T", 30, true, 1, null);
+        victim.altRead("C", "CA", 30, true, 1, null);
+        assertTrue(victim.reachedLimit());
+
+        victim.reset(2000, 1000);
+        assertEquals(2000, victim.position());
+        assertEquals(0, victim.rawDepth());
+        assertFalse(victim.hasAlts());
+        assertFalse(victim.reachedLimit());
+    }
+}
@@ -1,7 +1,11 @@
 package com.hartwig.hmftools.sage.coverage;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 
+import java.util.Random;
+import java.util.stream.IntStream;
+
 import com.hartwig.hmftools.common.genome.bed.ImmutableNamedBed;
 import com.hartwig.hmftools.common.genome.bed.NamedBed;
 import com.hartwig.hmftools.common.genome.region.GenomeRegion;
@@ -69,6 +73,25 @@ public class ExonCoverageTest {
         assertCoverage(victim, 0, 0, 0, 0, 0);
     }
 
+    @Test
+    public void testConcurrentAlignmentsMatchSequential() {
+        final Random random = new Random(0);
+        final GenomeRegion[] alignments = new GenomeRegion[10_000];
+        for (int i = 0; i < alignments.length; i++) {
+            long start = 50 + random.nextInt(200);
+            alignments[i] = alignment(start, start + random.nextInt(151));
+        }
+
+        final ExonCoverage expected = exon("Gene", 100, 200);
+        for (GenomeRegion alignment : alignments) {
+            expected.accept(alignment);
+        }
+
+        final ExonCoverage victim = exon("Gene", 100, 200);
+        IntStream.range(0, alignments.length).parallel().forEach(i -> victim.accept(alignments[i]));
+        assertArrayEquals(expected.coverage(), victim.coverage());
+    }
+
     private void assertCoverage(ExonCoverage victim, int... values) {
         for (int i = 0; i < values.length; i++) {
             int value = values[i];
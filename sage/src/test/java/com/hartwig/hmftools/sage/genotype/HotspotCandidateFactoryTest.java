@@ -0,0 +1,121 @@
+package com.hartwig.hmftools.sage.genotype;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.Collections;
+import java.util.Random;
+
+import com.hartwig.hmftools.common.variant.hotspot.ImmutableVariantHotspotImpl;
+import com.hartwig.hmftools.common.variant.hotspot.VariantHotspot;
+import com.hartwig.hmftools.sage.candidate.Candidate;
+import com.hartwig.hmftools.sage.config.SageConfig;
+import com.hartwig.hmftools.sage.config.SageConfigTest;
+import com.hartwig.hmftools.sage.quality.QualityRecalibrationMap;
+import com.hartwig.hmftools.sage.read.IndexedBases;
+import com.hartwig.hmftools.sage.read.ReadContextCounter;
+import com.hartwig.hmftools.sage.read.ReadContextCounterFactory;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.Test;
+
+import htsjdk.samtools.SAMRecord;
+
+public class HotspotCandidateFactoryTest {
+
+    private static final String SAMPLE = "sample";
+    private static final int REF_START = 1001;
+    private static final int READ_START = 1051;
+    private static final int READ_LENGTH = 100;
+    private static final SageConfig CONFIG = SageConfigTest.testConfig(Collections.emptyList());
+
+    private final String ref = randomBases(300);
+    private final IndexedBases refBases = new IndexedBases(REF_START, 0, ref.getBytes());
+    private final HotspotCandidateFactory victim = new HotspotCandidateFactory(CONFIG.readContextFlankSize());
+
+    @Test
+    public void testSnv() {
+        final int position = 1100;
+        final String refBase = refAt(position, 1);
+        final String altBase = refBase.equals("A") ? "C" : "A";
+        final Candidate candidate = victim.create(hotspot(position, refBase, altBase), refBases);
+
+        final String altRead = refAt(READ_START, position - READ_START) + altBase + refAt(position + 1, READ_LENGTH - position + READ_START - 1);
+        assertSupport(candidate, read(altRead, READ_LENGTH + "M"), 1, 1);
+        assertSupport(candidate, read(refAt(READ_START, READ_LENGTH), READ_LENGTH + "M"), 0, 1);
+    }
+
+    @Test
+    public void testInsert() {
+        final int position = 1100;
+        final String anchor = refAt(position, 1);
+        final Candidate candidate = victim.create(hotspot(position, anchor, anchor + "TTG"), refBases);
+
+        final int leftLength = position - READ_START + 1;
+        final String altRead = refAt(READ_START, leftLength) + "TTG" + refAt(position + 1, READ_LENGTH - leftLength - 3);
+        assertSupport(candidate, read(altRead, leftLength + "M3I" + (READ_LENGTH - leftLength - 3) + "M"), 1, 1);
+    }
+
+    @Test
+    public void testDelete() {
+        final int position = 1100;
+        final String deleted = refAt(position, 4);
+        final Candidate candidate = victim.create(hotspot(position, deleted, deleted.substring(0, 1)), refBases);
+
+        final int leftLength = position - READ_START + 1;
+        final String altRead = refAt(READ_START, leftLength) + refAt(position + 4, READ_LENGTH - leftLength);
+        assertSupport(candidate, read(altRead, leftLength + "M3D" + (READ_LENGTH - leftLength) + "M"), 1, 1);
+    }
+
+    @Test
+    public void testSkipMismatchedOrComplexHotspot() {
+        final int position = 1100;
+        final String refBase = refAt(position, 1);
+        final String otherBase = refBase.equals("A") ? "C" : "A";
+        assertNull(victim.create(hotspot(position, otherBase, refBase), refBases));
+        assertNull(victim.create(hotspot(position, refAt(position, 2), otherBase + "GT"), refBases));
+    }
+
+    private static void assertSupport(@NotNull final Candidate candidate, @NotNull final SAMRecord record, int altSupport, int depth) {
+        final ReadContextCounter counter = new ReadContextCounterFactory(CONFIG,
+                Collections.singletonMap(SAMPLE, new QualityRecalibrationMap(Collections.emptyList()))).create(SAMPLE,
+                Collections.singletonList(candidate)).get(0);
+        counter.accept(record, CONFIG, 1);
+        assertEquals(altSupport, counter.altSupport());
+        assertEquals(depth, counter.depth());
+    }
+
+    @NotNull
+    private String refAt(int position, int length) {
+        return ref.substring(position - REF_START, position - REF_START + length);
+    }
+
+    @NotNull
+    private static VariantHotspot hotspot(int position, @NotNull final String ref, @NotNull final String alt) {
+        return ImmutableVariantHotspotImpl.builder().chromosome("1").position(position).ref(ref).alt(alt).build();
+    }
+
+    @NotNull
+    private static SAMRecord read(@NotNull final String bases, @NotNull final String cigar) {
+        final SAMRecord record = new SAMRecord(null);
+        record.setReferenceName("1");
+        record.setAlignmentStart(READ_START);
+        record.setCigarString(cigar);
+        record.setReadString(bases);
+        record.setBaseQualityString(new String(new char[bases.length()]).replace('\0', 'F'));
+        record.setMappingQuality(60);
+        record.setReadPairedFlag(true);
+        record.setProperPairFlag(true);
+        return record;
+    }
+
+    @NotNull
+    private static String randomBases(int length) {
+        final Random random = new Random(0);
+        final StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            builder.append("ACGT".charAt(random.nextInt(4)));
+        }
+        return builder.toString();
+    }
+}
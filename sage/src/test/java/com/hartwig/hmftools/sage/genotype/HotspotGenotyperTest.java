@@ -0,0 +1,186 @@
+package com.hartwig.hmftools.sage.genotype;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import com.google.common.collect.Lists;
+import com.hartwig.hmftools.common.variant.hotspot.ImmutableVariantHotspotImpl;
+import com.hartwig.hmftools.common.variant.hotspot.VariantHotspot;
+import com.hartwig.hmftools.sage.candidate.Candidate;
+import com.hartwig.hmftools.sage.config.SageConfig;
+import com.hartwig.hmftools.sage.config.SageConfigTest;
+import com.hartwig.hmftools.sage.read.IndexedBases;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.Test;
+
+import htsjdk.samtools.SAMFileHeader;
+import htsjdk.samtools.SAMFileWriter;
+import htsjdk.samtools.SAMFileWriterFactory;
+import htsjdk.samtools.SAMRecord;
+import htsjdk.samtools.SAMSequenceRecord;
+import htsjdk.samtools.reference.ReferenceSequenceFile;
+import htsjdk.samtools.reference.ReferenceSequenceFileFactory;
+
+public class HotspotGenotyperTest {
+
+    private static final String CONTIG = "1";
+    private static final int CONTIG_LENGTH = 3000;
+    private static final int READ_LENGTH = 100;
+    private static final int SNV_POSITION = 1100;
+    private static final int DEL_POSITION = 2000;
+    private static final SageConfig CONFIG = SageConfigTest.testConfig(Collections.emptyList());
+
+    private final String ref = randomBases(CONTIG_LENGTH);
+
+    @Test
+    public void testGenotypeAndWrite() throws IOException {
+        final String refBase = refAt(SNV_POSITION, 1);
+        final String altBase = refBase.equals("A") ? "C" : "A";
+        final String deleted = refAt(DEL_POSITION, 4);
+        final List<VariantHotspot> hotspots = Lists.newArrayList(hotspot(SNV_POSITION, refBase, altBase),
+                hotspot(DEL_POSITION, deleted, deleted.substring(0, 1)));
+
+        final IndexedBases refBases = new IndexedBases(1, 0, ref.getBytes());
+        final HotspotCandidateFactory candidateFactory = new HotspotCandidateFactory(CONFIG.readContextFlankSize());
+        final List<Candidate> candidates = Lists.newArrayList();
+        for (VariantHotspot hotspot : hotspots) {
+            candidates.add(candidateFactory.create(hotspot, refBases));
+        }
+
+        final List<SAMRecord> tumorReads = Lists.newArrayList();
+        final int snvStart = SNV_POSITION - 49;
+        final String snvRead = refAt(snvStart, 49) + altBase + refAt(SNV_POSITION + 1, READ_LENGTH - 50);
+        for (int i = 0; i < 3; i++) {
+            tumorReads.add(read("snvAlt" + i, snvStart, snvRead, READ_LENGTH + "M"));
+        }
+        for (int i = 0; i < 2; i++) {
+            tumorReads.add(read("snvRef" + i, snvStart, refAt(snvStart, READ_LENGTH), READ_LENGTH + "M"));
+        }
+
+        final int delStart = DEL_POSITION - 49;
+        final String delRead = refAt(delStart, 50) + refAt(DEL_POSITION + 4, READ_LENGTH - 50);
+        for (int i = 0; i < 2; i++) {
+            tumorReads.add(read("delAlt" + i, delStart, delRead, "50M3D50M"));
+        }
+        tumorReads.add(read("delRef", delStart, refAt(delStart, READ_LENGTH), READ_LENGTH + "M"));
+
+        final List<SAMRecord> normalReads = Lists.newArrayList();
+        normalReads.add(read("snvRef", snvStart, refAt(snvStart, READ_LENGTH), READ_LENGTH + "M"));
+        normalReads.add(read("delRef", delStart, refAt(delStart, READ_LENGTH), READ_LENGTH + "M"));
+
+        final File tumorBam = writeBam(tumorReads);
+        final File normalBam = writeBam(normalReads);
+        final File fasta = writeFasta();
+        final File output = File.createTempFile("sage.hotspot.", ".tsv");
+        try (ReferenceSequenceFile refGenome = ReferenceSequenceFileFactory.getReferenceSequenceFile(fasta)) {
+            // The empty contig ahead of the hotspots must not shift their index
+            final HotspotGenotyper victim = new HotspotGenotyper(CONFIG, refGenome, Arrays.asList(Collections.emptyList(), candidates));
+            final HotspotEvidence tumor = victim.genotype("TUMOR", tumorBam.getPath());
+            final HotspotEvidence normal = victim.genotype("NORMAL", normalBam.getPath());
+
+            assertEquals(3, tumor.altSupport(0));
+            assertEquals(5, tumor.depth(0));
+            assertEquals(2, tumor.altSupport(1));
+            assertEquals(3, tumor.depth(1));
+            assertTrue(tumor.quality(0) > 0);
+            assertTrue(tumor.quality(1) > 0);
+
+            assertEquals(0, normal.altSupport(0));
+            assertEquals(1, normal.depth(0));
+            assertEquals(0, normal.altSupport(1));
+            assertEquals(1, normal.depth(1));
+            assertEquals(0, normal.quality(0));
+
+            HotspotEvidenceFile.write(output.getPath(), hotspots, Lists.newArrayList(tumor, normal));
+            final List<String> lines = Files.readAllLines(output.toPath());
+            assertEquals(3, lines.size());
+            assertEquals("chromosome\tposition\tref\talt\tTUMOR\tNORMAL", lines.get(0));
+            assertEquals(String.join("\t", CONTIG, String.valueOf(SNV_POSITION), refBase, altBase, "3,5," + tumor.quality(0), "0,1,0"),
+                    lines.get(1));
+            assertEquals(String.join("\t",
+                    CONTIG,
+                    String.valueOf(DEL_POSITION),
+                    deleted,
+                    deleted.substring(0, 1),
+                    "2,3," + tumor.quality(1),
+                    "0,1," + normal.quality(1)), lines.get(2));
+        } finally {
+            for (File file : Arrays.asList(tumorBam, normalBam, fasta, output)) {
+                file.delete();
+            }
+            new File(tumorBam.getPath().replace(".bam", ".bai")).delete();
+            new File(normalBam.getPath().replace(".bam", ".bai")).delete();
+        }
+    }
+
+    @NotNull
+    private File writeBam(@NotNull final List<SAMRecord> reads) throws IOException {
+        final File bam = File.createTempFile("sage.hotspot.", ".bam");
+        final SAMFileHeader header = new SAMFileHeader();
+        header.setSortOrder(SAMFileHeader.SortOrder.coordinate);
+        header.addSequence(new SAMSequenceRecord(CONTIG, CONTIG_LENGTH));
+
+        try (SAMFileWriter writer = new SAMFileWriterFactory().setCreateIndex(true).makeBAMWriter(header, false, bam)) {
+            for (SAMRecord read : reads) {
+                read.setHeader(header);
+                writer.addAlignment(read);
+            }
+        }
+        return bam;
+    }
+
+    @NotNull
+    private File writeFasta() throws IOException {
+        final File fasta = File.createTempFile("sage.hotspot.", ".fasta");
+        Files.write(fasta.toPath(), Arrays.asList(">" + CONTIG, ref));
+        return fasta;
+    }
+
+    @NotNull
+    private String refAt(int position, int length) {
+        return ref.substring(position - 1, position - 1 + length);
+    }
+
+    @NotNull
+    private static VariantHotspot hotspot(int position, @NotNull final String ref, @NotNull final String alt) {
+        return ImmutableVariantHotspotImpl.builder().chromosome(CONTIG).position(position).ref(ref).alt(alt).build();
+    }
+
+    @NotNull
+    private static SAMRecord read(@NotNull final String name, int alignmentStart, @NotNull final String bases,
+            @NotNull final String cigar) {
+        final SAMRecord record = new SAMRecord(null);
+        record.setReadName(name);
+        record.setReferenceName(CONTIG);
+        record.setAlignmentStart(alignmentStart);
+        record.setCigarString(cigar);
+        record.setReadString(bases);
+        record.setBaseQualityString(new String(new char[bases.length()]).replace('\0', 'F'));
+        record.setMappingQuality(60);
+        record.setReadPairedFlag(true);
+        record.setProperPairFlag(true);
+        record.setMateReferenceName(CONTIG);
+        record.setMateAlignmentStart(alignmentStart);
+        record.setFirstOfPairFlag(true);
+        return record;
+    }
+
+    @NotNull
+    private static String randomBases(int length) {
+        final Random random = new Random(0);
+        final StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            builder.append("ACGT".charAt(random.nextInt(4)));
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,60 @@
+package com.hartwig.hmftools.sage.metrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+
+import com.hartwig.hmftools.common.genome.region.GenomeRegion;
+import com.hartwig.hmftools.common.genome.region.GenomeRegions;
+
+import org.junit.Test;
+
+public class SageMetricsTest {
+
+    @Test
+    public void testStageTotals() {
+        final SageMetrics victim = new SageMetrics();
+        final GenomeRegion region = GenomeRegions.create("1", 1, 1000);
+        victim.record(SageMetrics.Stage.CANDIDATES, region, 100, 10, 5, 2);
+        victim.record(SageMetrics.Stage.CANDIDATES, region, 200, 20, 7, 3);
+        victim.record(SageMetrics.Stage.EVIDENCE, region, 1000, 0, 12, 5);
+        victim.completeRegion(region, 5);
+
+        final SageMetrics.StageMetrics candidates = victim.stages().get(SageMetrics.Stage.CANDIDATES.ordinal());
+        assertEquals(2, candidates.calls());
+        assertEquals(300, candidates.nanos());
+        assertEquals(30, candidates.allocatedBytes());
+        assertEquals(12, candidates.reads());
+        assertEquals(5, candidates.items());
+
+        final List<SageMetrics.RegionMetrics> regions = victim.slowestRegions();
+        assertEquals(1, regions.size());
+        assertEquals(1300, regions.get(0).nanos());
+        assertEquals(24, regions.get(0).reads());
+        assertEquals(5, regions.get(0).candidates());
+    }
+
+    @Test
+    public void testRetainSlowestRegions() {
+        final SageMetrics victim = new SageMetrics();
+        for (int i = 0; i < 2 * SageMetrics.SLOWEST_REGIONS; i++) {
+            final GenomeRegion region = GenomeRegions.create("1", 1000 * i + 1, 1000 * i + 1000);
+            victim.record(SageMetrics.Stage.EVIDENCE, region, (i * 7) % 40, 0, 1, 1);
+            victim.completeRegion(region, 1);
+        }
+
+        final List<SageMetrics.RegionMetrics> regions = victim.slowestRegions();
+        assertEquals(SageMetrics.SLOWEST_REGIONS, regions.size());
+        assertEquals(39, regions.get(0).nanos());
+        assertEquals(20, regions.get(regions.size() - 1).nanos());
+        for (int i = 1; i < regions.size(); i++) {
+            assertTrue(regions.get(i - 1).nanos() >= regions.get(i).nanos());
+        }
+
+        final List<String> lines = SageMetricsFile.toLines(victim);
+        assertEquals(2 + SageMetrics.Stage.values().length + SageMetrics.SLOWEST_REGIONS, lines.size());
+        assertEquals(SageMetricsFile.header(), lines.get(0));
+        assertTrue(lines.get(lines.size() - 1).startsWith("REGION\t1:"));
+    }
+}
@@ -0,0 +1,78 @@
+package com.hartwig.hmftools.sage.pipeline;
+
+import static com.hartwig.hmftools.sage.pipeline.AdaptivePartition.BIN_SIZE;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+import com.google.common.collect.Lists;
+import com.hartwig.hmftools.common.genome.region.GenomeRegion;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.Test;
+
+public class AdaptivePartitionTest {
+
+    private static final int LENGTH = 100 * BIN_SIZE - 123;
+
+    @Test
+    public void testUniformWeights() {
+        final double[] weights = new double[100];
+        Arrays.fill(weights, 1);
+
+        final List<GenomeRegion> regions = AdaptivePartition.partition("1", 1, LENGTH, weights, 10, Integer.MAX_VALUE);
+        assertEquals(10, regions.size());
+        assertContiguous(regions, 1, LENGTH);
+        for (GenomeRegion region : regions) {
+            assertTrue(region.bases() <= 10 * BIN_SIZE);
+        }
+    }
+
+    @Test
+    public void testHeavyBinsAreSplitAndScheduledFirst() {
+        final double[] weights = new double[100];
+        Arrays.fill(weights, 1);
+        weights[50] = 10_000;
+
+        final List<GenomeRegion> regions = AdaptivePartition.partition("1", 1, LENGTH, weights, 10, Integer.MAX_VALUE);
+        assertContiguous(regions, 1, LENGTH);
+
+        final long pieces = regions.stream().filter(AdaptivePartitionTest::inHeavyBin).count();
+        assertTrue(pieces > 1);
+        for (int i = 0; i < pieces; i++) {
+            assertTrue(inHeavyBin(regions.get(i)));
+        }
+    }
+
+    @Test
+    public void testMaxRegionSize() {
+        final double[] weights = new double[100];
+        Arrays.fill(weights, 1);
+
+        final List<GenomeRegion> regions = AdaptivePartition.partition("1", 1, LENGTH, weights, 1, 4 * BIN_SIZE);
+        assertContiguous(regions, 1, LENGTH);
+        for (GenomeRegion region : regions) {
+            assertTrue(region.bases() <= 4 * BIN_SIZE);
+        }
+    }
+
+    private static boolean inHeavyBin(@NotNull final GenomeRegion region) {
+        return region.start() > 50 * BIN_SIZE && region.end() <= 51 * BIN_SIZE;
+    }
+
+    private static void assertContiguous(@NotNull final List<GenomeRegion> regions, long start, long end) {
+        final List<GenomeRegion> sorted = Lists.newArrayList(regions);
+        sorted.sort(Comparator.comparingLong(GenomeRegion::start));
+
+        long expectedStart = start;
+        for (GenomeRegion region : sorted) {
+            assertEquals(expectedStart, region.start());
+            expectedStart = region.end() + 1;
+        }
+        assertEquals(end + 1, expectedStart);
+    }
+}
@@ -0,0 +1,56 @@
+package com.hartwig.hmftools.sage.pipeline;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Test;
+
+public class BufferedVariantLimitTest {
+
+    @Test
+    public void testSubmittingChromosomeIsExcluded() throws InterruptedException {
+        final BufferedVariantLimit victim = new BufferedVariantLimit(10);
+        final AtomicLong submitting = new AtomicLong(100);
+        victim.add(100);
+        victim.add(10);
+
+        // Returns without waiting as only 10 variants belong to other chromosomes
+        victim.await(submitting, new CompletableFuture<Void>());
+    }
+
+    @Test
+    public void testWaitsUntilOtherChromosomesWritten() throws InterruptedException {
+        final BufferedVariantLimit victim = new BufferedVariantLimit(10);
+        victim.add(11);
+
+        final CountDownLatch released = new CountDownLatch(1);
+        final Thread submitter = new Thread(() -> {
+            try {
+                victim.await(new AtomicLong(), new CompletableFuture<Void>());
+                released.countDown();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        submitter.start();
+
+        assertFalse(released.await(100, TimeUnit.MILLISECONDS));
+        victim.remove(11);
+        assertTrue(released.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testStopsWaitingWhenWritesFail() throws InterruptedException {
+        final BufferedVariantLimit victim = new BufferedVariantLimit(10);
+        victim.add(11);
+
+        final CompletableFuture<Void> written = new CompletableFuture<>();
+        written.completeExceptionally(new IllegalStateException());
+        victim.await(new AtomicLong(), written);
+    }
+}
@@ -0,0 +1,132 @@
+package com.hartwig.hmftools.sage.pipeline;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+import com.hartwig.hmftools.sage.benchmark.SyntheticRegion;
+import com.hartwig.hmftools.sage.candidate.Candidate;
+import com.hartwig.hmftools.sage.config.ImmutableSageConfig;
+import com.hartwig.hmftools.sage.config.SageConfig;
+import com.hartwig.hmftools.sage.metrics.SageMetrics;
+import com.hartwig.hmftools.sage.quality.QualityRecalibrationMap;
+import com.hartwig.hmftools.sage.read.ReadContextCounter;
+import com.hartwig.hmftools.sage.read.ReadContextCounters;
+import com.hartwig.hmftools.sage.sam.SamReadBudget;
+import com.hartwig.hmftools.sage.sam.SamReaderPool;
+import com.hartwig.hmftools.sage.sam.SamRecordBuffer;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.Test;
+
+import htsjdk.samtools.SAMFileHeader;
+import htsjdk.samtools.SAMFileWriter;
+import htsjdk.samtools.SAMFileWriterFactory;
+import htsjdk.samtools.SAMRecord;
+import htsjdk.samtools.ValidationStringency;
+
+public class EvidenceStageTest {
+
+    private static final Executor DIRECT = Runnable::run;
+
+    @Test
+    public void testFallBackToBamWhenBudgetExceeded() throws IOException {
+        final SyntheticRegion region = new SyntheticRegion(2_000, 20);
+        final SageConfig config = ImmutableSageConfig.builder()
+                .from(region.config())
+                .validationStringency(ValidationStringency.SILENT)
+                .build();
+        final List<SAMRecord> reads = region.tumorReads();
+        final List<Candidate> candidates = region.candidates(region.refSequence());
+        assertFalse(candidates.isEmpty());
+
+        final File bam = writeBam(region, reads);
+        try (SamReaderPool samReaderPool = new SamReaderPool(config, region.refGenome())) {
+            final Map<String, QualityRecalibrationMap> qualityRecalibration = Collections.singletonMap(SyntheticRegion.TUMOR,
+                    new QualityRecalibrationMap(Collections.emptyList()));
+            final EvidenceStage victim = new EvidenceStage(config, DIRECT, samReaderPool, qualityRecalibration, new SageMetrics());
+            final ReadContextCounters expected = evidence(victim, region, bam, candidates, Collections.emptyMap());
+            assertEquals(1, samReaderPool.queries());
+
+            // Budget exhausted part way through the region so evidence must re-read the bam rather than replay
+            final SamReadBudget budget = new SamReadBudget(reads.size() / 2);
+            final SamRecordBuffer exceeded = fill(budget, reads);
+            assertFalse(exceeded.isComplete());
+            assertEquals(reads.size() / 2, budget.available());
+
+            final ReadContextCounters fallback =
+                    evidence(victim, region, bam, candidates, Collections.singletonMap(SyntheticRegion.TUMOR, exceeded));
+            assertEquals(2, samReaderPool.queries());
+            assertCountersEqual(expected, fallback, candidates);
+
+            // Within budget the buffer is replayed without another query
+            final SamReadBudget sufficient = new SamReadBudget(reads.size());
+            final SamRecordBuffer complete = fill(sufficient, reads);
+            assertTrue(complete.isComplete());
+
+            final ReadContextCounters replayed =
+                    evidence(victim, region, bam, candidates, Collections.singletonMap(SyntheticRegion.TUMOR, complete));
+            assertEquals(2, samReaderPool.queries());
+            assertCountersEqual(expected, replayed, candidates);
+
+            complete.release();
+            assertEquals(reads.size(), sufficient.available());
+        } finally {
+            bam.delete();
+            new File(bam.getPath().replace(".bam", ".bai")).delete();
+        }
+    }
+
+    @NotNull
+    private static SamRecordBuffer fill(@NotNull final SamReadBudget budget, @NotNull final List<SAMRecord> reads) {
+        final SamRecordBuffer buffer = new SamRecordBuffer(budget);
+        reads.forEach(buffer);
+        return buffer;
+    }
+
+    @NotNull
+    private static ReadContextCounters evidence(@NotNull final EvidenceStage victim, @NotNull final SyntheticRegion region,
+            @NotNull final File bam, @NotNull final List<Candidate> candidates, @NotNull final Map<String, SamRecordBuffer> buffers) {
+        return victim.evidence(region.region(),
+                Collections.singletonList(SyntheticRegion.TUMOR),
+                Collections.singletonList(bam.getPath()),
+                CompletableFuture.completedFuture(candidates),
+                buffers).join();
+    }
+
+    private static void assertCountersEqual(@NotNull final ReadContextCounters expected, @NotNull final ReadContextCounters actual,
+            @NotNull final List<Candidate> candidates) {
+        for (Candidate candidate : candidates) {
+            final ReadContextCounter expectedCounter = expected.readContextCounters(candidate.variant()).get(0);
+            final ReadContextCounter actualCounter = actual.readContextCounters(candidate.variant()).get(0);
+            assertEquals(expectedCounter.toString(), actualCounter.toString());
+            assertEquals(expectedCounter.depth(), actualCounter.depth());
+            assertEquals(expectedCounter.altSupport(), actualCounter.altSupport());
+            assertEquals(expectedCounter.refSupport(), actualCounter.refSupport());
+            assertEquals(expectedCounter.tumorQuality(), actualCounter.tumorQuality());
+        }
+    }
+
+    @NotNull
+    private static File writeBam(@NotNull final SyntheticRegion region, @NotNull final List<SAMRecord> reads) throws IOException {
+        final File bam = File.createTempFile("sage.evidence.", ".bam");
+        final SAMFileHeader header = new SAMFileHeader(region.refGenome().getSequenceDictionary());
+        header.setSortOrder(SAMFileHeader.SortOrder.coordinate);
+
+        try (SAMFileWriter writer = new SAMFileWriterFactory().setCreateIndex(true).makeBAMWriter(header, true, bam)) {
+            for (SAMRecord read : reads) {
+                read.setHeader(header);
+                writer.addAlignment(read);
+            }
+        }
+        return bam;
+    }
+}
@@ -0,0 +1,79 @@
+package com.hartwig.hmftools.sage.pipeline;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.collect.Lists;
+
+import org.junit.Test;
+
+public class OrderedRegionWriterTest {
+
+    @Test
+    public void testWriteInSubmissionOrder() throws Exception {
+        final List<Integer> output = Lists.newArrayList();
+        final OrderedRegionWriter<Integer> victim = new OrderedRegionWriter<>(3, output::addAll);
+
+        final List<CompletableFuture<List<Integer>>> regions = Lists.newArrayList();
+        for (int i = 0; i < 3; i++) {
+            final CompletableFuture<List<Integer>> region = new CompletableFuture<>();
+            regions.add(region);
+            victim.submit(() -> region);
+        }
+
+        regions.get(2).complete(Lists.newArrayList(4, 5));
+        regions.get(1).complete(Collections.singletonList(3));
+        assertTrue(output.isEmpty());
+
+        regions.get(0).complete(Lists.newArrayList(1, 2));
+        victim.await();
+        assertEquals(Lists.newArrayList(1, 2, 3, 4, 5), output);
+    }
+
+    @Test
+    public void testSubmitWaitsForRegionsInFlight() throws Exception {
+        final OrderedRegionWriter<Integer> victim = new OrderedRegionWriter<>(1, x -> {
+        });
+        final CompletableFuture<List<Integer>> first = new CompletableFuture<>();
+        victim.submit(() -> first);
+
+        final CountDownLatch submitted = new CountDownLatch(1);
+        final Thread submitter = new Thread(() -> {
+            try {
+                victim.submit(() -> CompletableFuture.completedFuture(Collections.singletonList(2)));
+                submitted.countDown();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        submitter.start();
+
+        assertFalse(submitted.await(100, TimeUnit.MILLISECONDS));
+        first.complete(Collections.singletonList(1));
+        assertTrue(submitted.await(5, TimeUnit.SECONDS));
+        victim.await();
+    }
+
+    @Test(expected = ExecutionException.class)
+    public void testFailedRegionFailsLaterWrites() throws Exception {
+        final List<Integer> output = Lists.newArrayList();
+        final OrderedRegionWriter<Integer> victim = new OrderedRegionWriter<>(2, output::addAll);
+
+        final CompletableFuture<List<Integer>> failed = new CompletableFuture<>();
+        failed.completeExceptionally(new IllegalStateException());
+        victim.submit(() -> failed);
+        victim.submit(() -> CompletableFuture.completedFuture(Collections.singletonList(2)));
+
+        assertTrue(victim.isFailed());
+        assertTrue(output.isEmpty());
+        victim.await();
+    }
+}
@@ -0,0 +1,90 @@
+package com.hartwig.hmftools.sage.pipeline;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+
+import com.google.common.collect.Lists;
+import com.hartwig.hmftools.common.genome.region.GenomeRegion;
+import com.hartwig.hmftools.common.genome.region.GenomeRegions;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.Test;
+
+import htsjdk.variant.variantcontext.VariantContext;
+import htsjdk.variant.variantcontext.VariantContextBuilder;
+
+public class VariantRegionGrouperTest {
+
+    private static final int REGION_SIZE = 1000;
+
+    private final VariantRegionGrouper victim = new VariantRegionGrouper(VariantRegionGrouperTest::partition);
+
+    @Test
+    public void testVariantCrossingBoundaryStaysInStartRegion() {
+        assertNull(victim.add(create("1", 500, "A")));
+        assertNull(victim.add(create("1", 998, "ACGTA")));
+
+        final VariantRegionGrouper.RegionVariants first = victim.add(create("1", 1001, "A"));
+        assertRegion(first, "1", 1, 2);
+        assertEquals(998, first.variants().get(1).getStart());
+
+        assertRegion(victim.complete(), "1", 1001, 1);
+        assertNull(victim.complete());
+    }
+
+    @Test
+    public void testSkipsRegionsWithoutVariants() {
+        assertNull(victim.add(create("1", 100, "A")));
+        assertRegion(victim.add(create("1", 3500, "A")), "1", 1, 1);
+        assertNull(victim.add(create("1", 3600, "A")));
+        assertRegion(victim.add(create("2", 10, "A")), "1", 3001, 2);
+        assertRegion(victim.complete(), "2", 1, 1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRejectReappearingContig() {
+        victim.add(create("1", 100, "A"));
+        victim.add(create("2", 100, "A"));
+        victim.add(create("1", 200, "A"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRejectEarlierRegion() {
+        victim.add(create("1", 1500, "A"));
+        victim.add(create("1", 500, "A"));
+    }
+
+    private static void assertRegion(final VariantRegionGrouper.RegionVariants regionVariants, @NotNull final String contig,
+            long start, int variants) {
+        assertNotNull(regionVariants);
+        assertEquals(contig, regionVariants.region().chromosome());
+        assertEquals(start, regionVariants.region().start());
+        assertEquals(variants, regionVariants.variants().size());
+        for (VariantContext variant : regionVariants.variants()) {
+            assertEquals(contig, variant.getContig());
+            assertTrue(variant.getStart() >= regionVariants.region().start() && variant.getStart() <= regionVariants.region().end());
+        }
+    }
+
+    @NotNull
+    private static List<GenomeRegion> partition(@NotNull final String contig) {
+        final List<GenomeRegion> result = Lists.newArrayList();
+        for (int start = 1; start < 5 * REGION_SIZE; start += REGION_SIZE) {
+            result.add(GenomeRegions.create(contig, start, start + REGION_SIZE - 1));
+        }
+        return result;
+    }
+
+    @NotNull
+    private static VariantContext create(@NotNull final String contig, int position, @NotNull final String ref) {
+        return new VariantContextBuilder().chr(contig)
+                .start(position)
+                .stop(position + ref.length() - 1)
+                .alleles(ref, ref.equals("A") ? "C" : "A")
+                .make();
+    }
+}
@@ -0,0 +1,110 @@
+package com.hartwig.hmftools.sage.pon;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+import com.hartwig.hmftools.sage.vcf.SageVCF;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.Test;
+
+import htsjdk.samtools.SAMSequenceDictionary;
+import htsjdk.samtools.SAMSequenceRecord;
+import htsjdk.variant.variantcontext.Allele;
+import htsjdk.variant.variantcontext.GenotypeBuilder;
+import htsjdk.variant.variantcontext.VariantContext;
+import htsjdk.variant.variantcontext.VariantContextBuilder;
+import htsjdk.variant.variantcontext.writer.Options;
+import htsjdk.variant.variantcontext.writer.VariantContextWriter;
+import htsjdk.variant.variantcontext.writer.VariantContextWriterBuilder;
+import htsjdk.variant.vcf.VCFConstants;
+import htsjdk.variant.vcf.VCFFormatHeaderLine;
+import htsjdk.variant.vcf.VCFHeader;
+import htsjdk.variant.vcf.VCFHeaderLineCount;
+import htsjdk.variant.vcf.VCFHeaderLineType;
+import htsjdk.variant.vcf.VCFStandardHeaderLines;
+
+public class PonMergeTest {
+
+    private static final String[] ALTS = { "A", "C", "T", "GA", "GT" };
+
+    @Test
+    public void testMergeMatchesInMemoryBuilder() throws IOException, ExecutionException, InterruptedException {
+        final SAMSequenceDictionary dictionary = new SAMSequenceDictionary();
+        dictionary.addSequence(new SAMSequenceRecord("1", 100_000));
+        dictionary.addSequence(new SAMSequenceRecord("2", 100_000));
+
+        final File directory = Files.createTempDirectory("pon").toFile();
+        directory.deleteOnExit();
+
+        final Random random = new Random(0);
+        final PonBuilder expected = new PonBuilder();
+        final List<File> files = Lists.newArrayList();
+        for (int i = 0; i < 7; i++) {
+            final List<VariantContext> variants = Lists.newArrayList();
+            for (String contig : new String[] { "1", "2" }) {
+                for (int position = 1; position < 2000; position += 1 + random.nextInt(20)) {
+                    variants.add(create(contig, position, ALTS[random.nextInt(ALTS.length)], random.nextInt(10)));
+                    if (random.nextInt(5) == 0) {
+                        variants.add(create(contig, position, ALTS[random.nextInt(ALTS.length)], random.nextInt(10)));
+                    }
+                }
+            }
+
+            final File file = new File(directory, "sample" + i + ".vcf");
+            file.deleteOnExit();
+            write(file, dictionary, variants);
+            variants.forEach(expected::add);
+            files.add(file);
+        }
+
+        final ExecutorService executorService = Executors.newFixedThreadPool(3);
+        final List<VariantContext> victim = Lists.newArrayList();
+        new PonMerge(dictionary, executorService, 3).run(files, victim::add);
+        executorService.shutdown();
+
+        final List<VariantContext> expectedContexts = expected.build();
+        assertTrue(expectedContexts.size() > 100);
+        assertEquals(expectedContexts.size(), victim.size());
+        for (int i = 0; i < victim.size(); i++) {
+            assertEquals(expectedContexts.get(i).toStringDecodeGenotypes(), victim.get(i).toStringDecodeGenotypes());
+        }
+    }
+
+    private static void write(@NotNull final File file, @NotNull final SAMSequenceDictionary dictionary,
+            @NotNull final List<VariantContext> variants) {
+        final VCFHeader header = new VCFHeader(Sets.newHashSet(VCFStandardHeaderLines.getFormatLine(VCFConstants.GENOTYPE_KEY),
+                new VCFFormatHeaderLine(SageVCF.RAW_ALLELIC_DEPTH, VCFHeaderLineCount.R, VCFHeaderLineType.Integer, "Raw allelic depth")),
+                Lists.newArrayList("SAMPLE"));
+        header.setSequenceDictionary(dictionary);
+
+        try (VariantContextWriter writer = new VariantContextWriterBuilder().setOutputFile(file)
+                .unsetOption(Options.INDEX_ON_THE_FLY)
+                .build()) {
+            writer.writeHeader(header);
+            variants.forEach(writer::add);
+        }
+    }
+
+    @NotNull
+    private static VariantContext create(@NotNull final String contig, int position, @NotNull final String alt, int depth) {
+        final List<Allele> alleles = Lists.newArrayList(Allele.create("G", true), Allele.create(alt));
+        return new VariantContextBuilder().chr(contig)
+                .start(position)
+                .computeEndFromAlleles(alleles, position)
+                .alleles(alleles)
+                .genotypes(new GenotypeBuilder("SAMPLE", alleles).attribute(SageVCF.RAW_ALLELIC_DEPTH, "10," + depth).make())
+                .make();
+    }
+}
@@ -0,0 +1,37 @@
+package com.hartwig.hmftools.sage.quality;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+
+import com.google.common.collect.Lists;
+
+import org.junit.Test;
+
+public class QualityRecalibrationFileTest {
+
+    @Test
+    public void testExactRoundTrip() throws IOException {
+        final QualityRecalibrationKey key = ImmutableQualityRecalibrationKey.builder()
+                .ref((byte) 'A')
+                .alt((byte) 'G')
+                .trinucleotideContext("CAT".getBytes())
+                .qual((byte) 37)
+                .build();
+        final QualityRecalibrationRecord record = ImmutableQualityRecalibrationRecord.builder()
+                .key(key)
+                .count(12)
+                .recalibratedQual(QualityRecalibrationFactory.recalibratedQual(9999, 3))
+                .build();
+
+        final File file = File.createTempFile("bqr", ".tsv");
+        file.deleteOnExit();
+        QualityRecalibrationFile.writeExact(file.getPath(), Lists.newArrayList(record));
+
+        final List<QualityRecalibrationRecord> victim = QualityRecalibrationFile.read(file.getPath());
+        assertEquals(1, victim.size());
+        assertEquals(record, victim.get(0));
+    }
+}
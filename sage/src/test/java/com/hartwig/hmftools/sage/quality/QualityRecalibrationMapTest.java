@@ -0,0 +1,74 @@
+package com.hartwig.hmftools.sage.quality;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.List;
+
+import com.google.common.collect.Lists;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.Test;
+
+public class QualityRecalibrationMapTest {
+
+    private static final double EPSILON = 1e-9;
+
+    @Test
+    public void testRecalibratedQuality() {
+        final QualityRecalibrationMap victim = new QualityRecalibrationMap(Lists.newArrayList(record("A", "G", "CAT", 37, 25.5)));
+
+        assertEquals(25.5, victim.quality((byte) 'A', (byte) 'G', "CAT".getBytes(), (byte) 37), EPSILON);
+        assertEquals(25.5, victim.quality((byte) 'A', (byte) 'G', (byte) 'C', (byte) 'A', (byte) 'T', (byte) 37), EPSILON);
+    }
+
+    @Test
+    public void testMissingRecordDefaultsToRawQuality() {
+        final QualityRecalibrationMap victim = new QualityRecalibrationMap(Lists.newArrayList(record("A", "G", "CAT", 37, 25.5)));
+
+        assertEquals(36, victim.quality((byte) 'A', (byte) 'G', (byte) 'C', (byte) 'A', (byte) 'T', (byte) 36), EPSILON);
+        assertEquals(37, victim.quality((byte) 'A', (byte) 'T', (byte) 'C', (byte) 'A', (byte) 'T', (byte) 37), EPSILON);
+        assertEquals(37, victim.quality((byte) 'A', (byte) 'G', (byte) 'C', (byte) 'A', (byte) 'G', (byte) 37), EPSILON);
+    }
+
+    @Test
+    public void testAmbiguousBasesFallBackToRecords() {
+        final QualityRecalibrationMap victim = new QualityRecalibrationMap(Lists.newArrayList(record("A", "G", "NAT", 37, 20)));
+
+        assertEquals(20, victim.quality((byte) 'A', (byte) 'G', (byte) 'N', (byte) 'A', (byte) 'T', (byte) 37), EPSILON);
+        assertEquals(30, victim.quality((byte) 'A', (byte) 'N', (byte) 'C', (byte) 'A', (byte) 'T', (byte) 30), EPSILON);
+        assertEquals(-1, victim.quality((byte) 'A', (byte) 'G', (byte) 'C', (byte) 'A', (byte) 'T', (byte) -1), EPSILON);
+    }
+
+    @Test
+    public void testAllRecordsMatchKeyLookup() {
+        final List<QualityRecalibrationRecord> records = Lists.newArrayList();
+        final String bases = "ACGT";
+        for (int i = 0; i < 200; i++) {
+            final char ref = bases.charAt(i % 4);
+            final char alt = bases.charAt((i / 4) % 4);
+            final String context = "" + bases.charAt((i / 16) % 4) + ref + bases.charAt((i / 64) % 4);
+            records.add(record(String.valueOf(ref), String.valueOf(alt), context, i % 41, i / 7d));
+        }
+
+        final QualityRecalibrationMap victim = new QualityRecalibrationMap(records);
+        for (QualityRecalibrationRecord record : records) {
+            final QualityRecalibrationKey key = record.key();
+            final byte[] context = key.trinucleotideContext();
+            assertEquals(record.recalibratedQual(),
+                    victim.quality(key.ref(), key.alt(), context[0], context[1], context[2], key.qual()),
+                    EPSILON);
+        }
+    }
+
+    @NotNull
+    private static QualityRecalibrationRecord record(@NotNull final String ref, @NotNull final String alt,
+            @NotNull final String trinucleotideContext, int qual, double recalibratedQual) {
+        final QualityRecalibrationKey key = ImmutableQualityRecalibrationKey.builder()
+                .ref((byte) ref.charAt(0))
+                .alt((byte) alt.charAt(0))
+                .trinucleotideContext(trinucleotideContext.getBytes())
+                .qual((byte) qual)
+                .build();
+        return ImmutableQualityRecalibrationRecord.builder().key(key).count(1).recalibratedQual(recalibratedQual).build();
+    }
+}
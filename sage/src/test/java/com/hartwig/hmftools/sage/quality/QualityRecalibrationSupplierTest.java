@@ -0,0 +1,59 @@
+package com.hartwig.hmftools.sage.quality;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import com.google.common.collect.Lists;
+import com.hartwig.hmftools.sage.config.ImmutableBaseQualityRecalibrationConfig;
+import com.hartwig.hmftools.sage.config.ImmutableSageConfig;
+import com.hartwig.hmftools.sage.config.SageConfig;
+import com.hartwig.hmftools.sage.config.SageConfigTest;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.Test;
+
+public class QualityRecalibrationSupplierTest {
+
+    @Test
+    public void testUnwritableCacheDoesNotFailRecalibration() throws IOException {
+        // A regular file in place of the directory can not be written, even as root
+        final File notDirectory = File.createTempFile("bqr", ".cache");
+        notDirectory.deleteOnExit();
+
+        final SageConfig config = SageConfigTest.testConfig(Collections.emptyList());
+        final SageConfig cachedConfig = ImmutableSageConfig.builder()
+                .from(config)
+                .baseQualityRecalibrationConfig(ImmutableBaseQualityRecalibrationConfig.builder()
+                        .from(config.baseQualityRecalibrationConfig())
+                        .cacheDirectory(new File(notDirectory, "cache").getPath())
+                        .build())
+                .build();
+        final QualityRecalibrationCache cache = new QualityRecalibrationCache(cachedConfig);
+        assertTrue(cache.isEnabled());
+
+        final List<QualityRecalibrationRecord> expected = Lists.newArrayList(record());
+        final List<QualityRecalibrationRecord> victim =
+                QualityRecalibrationSupplier.records(bam -> CompletableFuture.completedFuture(expected), cache, "SAMPLE", "sample.bam")
+                        .join();
+
+        assertEquals(expected, victim);
+        assertTrue(notDirectory.isFile());
+    }
+
+    @NotNull
+    private static QualityRecalibrationRecord record() {
+        final QualityRecalibrationKey key = ImmutableQualityRecalibrationKey.builder()
+                .ref((byte) 'A')
+                .alt((byte) 'G')
+                .trinucleotideContext("CAT".getBytes())
+                .qual((byte) 37)
+                .build();
+        return ImmutableQualityRecalibrationRecord.builder().key(key).count(12).recalibratedQual(37).build();
+    }
+}
@@ -0,0 +1,23 @@
+package com.hartwig.hmftools.sage.quality;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+public class QualityRecalibrationTest {
+
+    @Test
+    public void testAdaptiveSampleSize() {
+        // 100x needs 1M positions for 100M bases, 50x needs 2M
+        assertEquals(1_000_000, QualityRecalibration.adaptiveSampleSize(10_000_000, 100_000, 100_000_000, 2_000_000));
+        assertEquals(2_000_000, QualityRecalibration.adaptiveSampleSize(5_000_000, 100_000, 100_000_000, 2_000_000));
+
+        // Rounded up to whole slices
+        assertEquals(1_100_000, QualityRecalibration.adaptiveSampleSize(9_500_000, 100_000, 100_000_000, 2_000_000));
+
+        // Never more than the configured sample size or less than the probe
+        assertEquals(2_000_000, QualityRecalibration.adaptiveSampleSize(0, 100_000, 100_000_000, 2_000_000));
+        assertEquals(100_000, QualityRecalibration.adaptiveSampleSize(1_000_000_000, 100_000, 100_000_000, 2_000_000));
+        assertEquals(50_000, QualityRecalibration.adaptiveSampleSize(1_000_000_000, 50_000, 100_000_000, 50_000));
+    }
+}
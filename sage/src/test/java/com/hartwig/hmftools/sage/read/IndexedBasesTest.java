@@ -1,15 +1,26 @@
 package com.hartwig.hmftools.sage.read;
 
+import static com.hartwig.hmftools.sage.read.ReadContextMatch.CORE;
+import static com.hartwig.hmftools.sage.read.ReadContextMatch.FULL;
+import static com.hartwig.hmftools.sage.read.ReadContextMatch.NONE;
+import static com.hartwig.hmftools.sage.read.ReadContextMatch.PARTIAL;
+
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
+import java.util.Random;
+
 import org.apache.logging.log4j.util.Strings;
+import org.jetbrains.annotations.NotNull;
 import org.junit.Assert;
 import org.junit.Test;
 
 public class IndexedBasesTest {
 
+    private static final byte[] BASES = "ACGT".getBytes();
+    private static final byte[] RARE_BASES = { 'N', IndexedBases.MATCH_WILDCARD, 'a' };
+
     private final IndexedBases victim = new IndexedBases(1000, 5, 4, 6, 3, "GATCTCCTCA".getBytes());
 
     @Test
@@ -165,4 +176,92 @@ public class IndexedBasesTest {
                 bases);
     }
 
+    @Test
+    public void testMatchAtPositionMatchesBaseByBaseComparison() {
+        final Random random = new Random(1);
+        int[] matches = new int[ReadContextMatch.values().length];
+        for (int i = 0; i < 100_000; i++) {
+            final int flankSize = random.nextInt(12);
+            final int coreLength = 1 + random.nextInt(40);
+            final int leftFlank = random.nextInt(flankSize + 1);
+            final int rightFlank = random.nextInt(flankSize + 1);
+            final byte[] contextBases = randomBases(random, leftFlank + coreLength + rightFlank, 0.02);
+            final int index = leftFlank + random.nextInt(coreLength);
+            final IndexedBases context =
+                    new IndexedBases(1000, index, leftFlank, leftFlank + coreLength - 1, flankSize, contextBases);
+
+            // Reads usually carry the context with occasional errors, Ns and wildcards
+            final byte[] readBases = randomBases(random, 50 + random.nextInt(150), 0.02);
+            final int readIndex = random.nextInt(readBases.length);
+            for (int j = 0; j < contextBases.length; j++) {
+                final int readPosition = readIndex - index + j;
+                if (readPosition >= 0 && readPosition < readBases.length && random.nextInt(50) != 0) {
+                    readBases[readPosition] = contextBases[j];
+                }
+            }
+
+            final boolean wildcardAllowed = random.nextBoolean();
+            final ReadContextMatch expected = expectedMatch(context, wildcardAllowed, readIndex, readBases);
+            assertEquals(expected, context.matchAtPosition(wildcardAllowed, readIndex, readBases));
+            matches[expected.ordinal()]++;
+        }
+
+        for (int count : matches) {
+            assertTrue(count > 100);
+        }
+    }
+
+    @NotNull
+    private static ReadContextMatch expectedMatch(@NotNull final IndexedBases context, boolean wildcardAllowed, int otherIndex,
+            @NotNull final byte[] other) {
+        final byte[] bases = context.bases();
+        final int leftCore = context.leftCentreIndex();
+        final int rightCore = context.rightCentreIndex();
+        final int otherLeftCore = otherIndex + leftCore - context.index();
+        final int otherRightCore = otherIndex + rightCore - context.index();
+        if (otherLeftCore < 0 || otherRightCore >= other.length) {
+            return NONE;
+        }
+
+        for (int i = leftCore; i <= rightCore; i++) {
+            final byte otherByte = other[otherLeftCore + i - leftCore];
+            if (!(wildcardAllowed && otherByte == IndexedBases.MATCH_WILDCARD) && bases[i] != otherByte) {
+                return NONE;
+            }
+        }
+
+        final int leftFlankLength = leftCore - context.leftFlankIndex();
+        final int leftMatch = Math.min(leftFlankLength, otherLeftCore - Math.max(0, otherLeftCore - context.flankSize()));
+        for (int i = 1; i <= leftMatch; i++) {
+            final byte otherByte = other[otherLeftCore - i];
+            if (bases[leftCore - i] != otherByte && otherByte != IndexedBases.MATCH_WILDCARD) {
+                return CORE;
+            }
+        }
+
+        final int rightFlankLength = context.rightFlankIndex() - rightCore;
+        final int rightMatch =
+                Math.min(rightFlankLength, Math.min(other.length - 1, otherRightCore + context.flankSize()) - otherRightCore);
+        for (int i = 1; i <= rightMatch; i++) {
+            final byte otherByte = other[otherRightCore + i];
+            if (bases[rightCore + i] != otherByte && otherByte != IndexedBases.MATCH_WILDCARD) {
+                return CORE;
+            }
+        }
+
+        if (leftMatch != leftFlankLength && rightMatch != rightFlankLength) {
+            return CORE;
+        }
+
+        return leftMatch == leftFlankLength && rightMatch == rightFlankLength ? FULL : PARTIAL;
+    }
+
+    @NotNull
+    private static byte[] randomBases(@NotNull final Random random, int length, double rareRate) {
+        final byte[] result = new byte[length];
+        for (int i = 0; i < length; i++) {
+            result[i] = random.nextDouble() < rareRate ? RARE_BASES[random.nextInt(RARE_BASES.length)] : BASES[random.nextInt(4)];
+        }
+        return result;
+    }
 }
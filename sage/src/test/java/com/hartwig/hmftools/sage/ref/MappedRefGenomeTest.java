@@ -0,0 +1,138 @@
+package com.hartwig.hmftools.sage.ref;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.RandomAccessFile;
+import java.util.Random;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.Test;
+
+import htsjdk.samtools.SAMException;
+import htsjdk.samtools.reference.FastaSequenceIndexCreator;
+import htsjdk.samtools.reference.IndexedFastaSequenceFile;
+import htsjdk.samtools.reference.ReferenceSequence;
+
+public class MappedRefGenomeTest {
+
+    private static final String[] CONTIGS = { "1", "2", "3" };
+    private static final int[] LENGTHS = { 1000, 123, 120 };
+    private static final int[] LINE_LENGTHS = { 60, 50, 60 };
+
+    @Test
+    public void testMatchesIndexedFasta() throws IOException {
+        final File fasta = createFasta();
+        final Random random = new Random(0);
+        try (IndexedFastaSequenceFile expected = new IndexedFastaSequenceFile(fasta);
+                MappedRefGenome victim = new MappedRefGenome(fasta)) {
+            for (int i = 0; i < CONTIGS.length; i++) {
+                final String contig = CONTIGS[i];
+                assertSequence(expected.getSequence(contig), victim.getSequence(contig));
+
+                // Every window touching the first line boundary
+                final int lineLength = LINE_LENGTHS[i];
+                for (int start = lineLength - 2; start <= lineLength + 2; start++) {
+                    for (int stop = start - 1; stop <= Math.min(LENGTHS[i], start + lineLength + 2); stop++) {
+                        assertSequence(expected.getSubsequenceAt(contig, start, stop), victim.getSubsequenceAt(contig, start, stop));
+                    }
+                }
+
+                for (int j = 0; j < 200; j++) {
+                    final int start = 1 + random.nextInt(LENGTHS[i]);
+                    final int stop = start + random.nextInt(LENGTHS[i] - start + 1);
+                    assertSequence(expected.getSubsequenceAt(contig, start, stop), victim.getSubsequenceAt(contig, start, stop));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testNoTrailingNewline() throws IOException {
+        // The last contig is an exact number of lines so would otherwise map past the end of the file
+        final File fasta = createFasta(false);
+        try (IndexedFastaSequenceFile expected = new IndexedFastaSequenceFile(fasta);
+                MappedRefGenome victim = new MappedRefGenome(fasta)) {
+            for (String contig : CONTIGS) {
+                assertSequence(expected.getSequence(contig), victim.getSequence(contig));
+            }
+            assertSequence(expected.getSubsequenceAt("3", 61, 120), victim.getSubsequenceAt("3", 61, 120));
+        }
+    }
+
+    @Test
+    public void testSequentialAccess() throws IOException {
+        final File fasta = createFasta();
+        try (IndexedFastaSequenceFile expected = new IndexedFastaSequenceFile(fasta);
+                MappedRefGenome victim = new MappedRefGenome(fasta)) {
+            for (int pass = 0; pass < 2; pass++) {
+                for (String ignored : CONTIGS) {
+                    assertSequence(expected.nextSequence(), victim.nextSequence());
+                }
+                assertNull(expected.nextSequence());
+                assertNull(victim.nextSequence());
+
+                expected.reset();
+                victim.reset();
+            }
+        }
+    }
+
+    @Test(expected = SAMException.class)
+    public void testPastEndOfContig() throws IOException {
+        try (MappedRefGenome victim = new MappedRefGenome(createFasta())) {
+            victim.getSubsequenceAt("2", 100, 124);
+        }
+    }
+
+    @Test(expected = SAMException.class)
+    public void testUnknownContig() throws IOException {
+        try (MappedRefGenome victim = new MappedRefGenome(createFasta())) {
+            victim.getSubsequenceAt("X", 1, 10);
+        }
+    }
+
+    private static void assertSequence(@NotNull final ReferenceSequence expected, @NotNull final ReferenceSequence victim) {
+        assertEquals(expected.getName(), victim.getName());
+        assertEquals(expected.getContigIndex(), victim.getContigIndex());
+        assertEquals(expected.getBaseString(), victim.getBaseString());
+    }
+
+    @NotNull
+    private static File createFasta() throws IOException {
+        return createFasta(true);
+    }
+
+    @NotNull
+    private static File createFasta(boolean trailingNewline) throws IOException {
+        final File fasta = File.createTempFile("ref", ".fasta");
+        fasta.deleteOnExit();
+
+        final Random random = new Random(0);
+        try (PrintWriter writer = new PrintWriter(fasta)) {
+            for (int i = 0; i < CONTIGS.length; i++) {
+                writer.print(">" + CONTIGS[i] + "\n");
+                for (int j = 0; j < LENGTHS[i]; j++) {
+                    writer.print("ACGTN".charAt(random.nextInt(5)));
+                    if ((j + 1) % LINE_LENGTHS[i] == 0 || j == LENGTHS[i] - 1) {
+                        writer.print("\n");
+                    }
+                }
+            }
+        }
+
+        FastaSequenceIndexCreator.create(fasta.toPath(), true);
+        new File(fasta.getPath() + ".fai").deleteOnExit();
+
+        // The index creator rejects a file without a trailing newline but the index is unchanged by dropping it
+        if (!trailingNewline) {
+            try (RandomAccessFile file = new RandomAccessFile(fasta, "rw")) {
+                file.setLength(file.length() - 1);
+            }
+        }
+        return fasta;
+    }
+}
@@ -0,0 +1,99 @@
+package com.hartwig.hmftools.sage.sam;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+
+import com.google.common.collect.Lists;
+import com.hartwig.hmftools.common.genome.region.GenomeRegions;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.Test;
+
+import htsjdk.samtools.SAMRecord;
+
+public class SamRecordBufferTest {
+
+    @Test
+    public void testReplayOnlyOverlappingRecords() {
+        final SamRecordBuffer victim = new SamRecordBuffer(new SamReadBudget(10));
+        victim.accept(buildSamRecord(100, "10M"));
+        victim.accept(buildSamRecord(110, "5S10M"));
+        victim.accept(buildSamRecord(120, "10M"));
+        victim.accept(buildSamRecord(130, "10M"));
+
+        final List<SAMRecord> replayed = Lists.newArrayList();
+        victim.replay(GenomeRegions.create("1", 110, 129), replayed::add);
+
+        assertEquals(2, replayed.size());
+        assertEquals(110, replayed.get(0).getAlignmentStart());
+        assertEquals(120, replayed.get(1).getAlignmentStart());
+    }
+
+    @Test
+    public void testBoundaryOverlap() {
+        final SamRecordBuffer victim = new SamRecordBuffer(new SamReadBudget(10));
+        victim.accept(buildSamRecord(100, "10M"));
+
+        final List<SAMRecord> replayed = Lists.newArrayList();
+        victim.replay(GenomeRegions.create("1", 109, 200), replayed::add);
+        victim.replay(GenomeRegions.create("1", 110, 200), replayed::add);
+        victim.replay(GenomeRegions.create("1", 1, 100), replayed::add);
+        assertEquals(2, replayed.size());
+    }
+
+    @Test
+    public void testExceedingLimitReleasesBuffer() {
+        final SamReadBudget budget = new SamReadBudget(2);
+        final SamRecordBuffer victim = new SamRecordBuffer(budget);
+        victim.accept(buildSamRecord(100, "10M"));
+        victim.accept(buildSamRecord(100, "10M"));
+        assertTrue(victim.isComplete());
+        assertEquals(2, victim.size());
+        assertEquals(0, budget.available());
+
+        victim.accept(buildSamRecord(100, "10M"));
+        assertFalse(victim.isComplete());
+        assertEquals(0, victim.size());
+        assertEquals(2, budget.available());
+    }
+
+    @Test
+    public void testBudgetSharedBetweenBuffers() {
+        final SamReadBudget budget = new SamReadBudget(SamRecordBuffer.RESERVATION + 1);
+        final SamRecordBuffer first = new SamRecordBuffer(budget);
+        final SamRecordBuffer second = new SamRecordBuffer(budget);
+
+        first.accept(buildSamRecord(100, "10M"));
+        second.accept(buildSamRecord(100, "10M"));
+        second.accept(buildSamRecord(100, "10M"));
+        assertTrue(first.isComplete());
+        assertFalse(second.isComplete());
+
+        first.release();
+        assertEquals(SamRecordBuffer.RESERVATION + 1, budget.available());
+
+        final SamRecordBuffer third = new SamRecordBuffer(budget);
+        for (int i = 0; i <= SamRecordBuffer.RESERVATION; i++) {
+            third.accept(buildSamRecord(100, "10M"));
+        }
+        assertTrue(third.isComplete());
+        assertEquals(0, budget.available());
+
+        third.accept(buildSamRecord(100, "10M"));
+        assertFalse(third.isComplete());
+        assertEquals(SamRecordBuffer.RESERVATION + 1, budget.available());
+    }
+
+    @NotNull
+    private static SAMRecord buildSamRecord(final int alignmentStart, @NotNull final String cigar) {
+        final SAMRecord record = new SAMRecord(null);
+        record.setReferenceName("1");
+        record.setAlignmentStart(alignmentStart);
+        record.setCigarString(cigar);
+        record.setReadUnmappedFlag(false);
+        return record;
+    }
+}
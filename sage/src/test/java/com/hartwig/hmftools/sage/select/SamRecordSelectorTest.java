@@ -0,0 +1,69 @@
+package com.hartwig.hmftools.sage.select;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.List;
+import java.util.Random;
+
+import com.google.common.collect.Lists;
+import com.hartwig.hmftools.common.genome.position.GenomePosition;
+import com.hartwig.hmftools.common.genome.position.GenomePositions;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.Test;
+
+import htsjdk.samtools.SAMRecord;
+
+public class SamRecordSelectorTest {
+
+    @Test
+    public void testSelectsOverlappingPositionsIncludingSoftClips() {
+        final Random random = new Random(0);
+        final List<GenomePosition> positions = Lists.newArrayList();
+        long position = 1000;
+        for (int i = 0; i < 500; i++) {
+            position += random.nextInt(4);
+            positions.add(GenomePositions.create("1", position));
+        }
+
+        final SamRecordSelector<GenomePosition> victim = new SamRecordSelector<>(positions);
+        int alignmentStart = 900;
+        for (int i = 0; i < 2000; i++) {
+            alignmentStart += random.nextInt(3);
+            final SAMRecord record = record(alignmentStart, random.nextInt(20), 10 + random.nextInt(100), random.nextInt(20));
+            final long start = record.getUnclippedStart();
+            final long end = record.getUnclippedEnd();
+
+            final List<GenomePosition> expected = Lists.newArrayList();
+            for (GenomePosition candidate : positions) {
+                if (candidate.position() >= start && candidate.position() <= end) {
+                    expected.add(candidate);
+                }
+            }
+
+            final List<GenomePosition> selected = Lists.newArrayList();
+            victim.select(record, selected::add);
+            assertEquals(expected, selected);
+        }
+    }
+
+    @NotNull
+    private static SAMRecord record(int alignmentStart, int leftSoftClip, int matched, int rightSoftClip) {
+        final int length = leftSoftClip + matched + rightSoftClip;
+        final StringBuilder cigar = new StringBuilder();
+        if (leftSoftClip > 0) {
+            cigar.append(leftSoftClip).append("S");
+        }
+        cigar.append(matched).append("M");
+        if (rightSoftClip > 0) {
+            cigar.append(rightSoftClip).append("S");
+        }
+
+        final SAMRecord record = new SAMRecord(null);
+        record.setReferenceName("1");
+        record.setAlignmentStart(alignmentStart);
+        record.setCigarString(cigar.toString());
+        record.setReadString(new String(new char[length]).replace('\0', 'A'));
+        return record;
+    }
+}
@@ -0,0 +1,106 @@
+package com.hartwig.hmftools.sage.vcf;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.List;
+
+import com.google.common.collect.Lists;
+import com.google.common.io.ByteStreams;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.Test;
+
+import htsjdk.samtools.SAMSequenceDictionary;
+import htsjdk.samtools.SAMSequenceRecord;
+import htsjdk.samtools.util.BlockCompressedInputStream;
+import htsjdk.samtools.util.CloseableIterator;
+import htsjdk.variant.variantcontext.VariantContext;
+import htsjdk.variant.variantcontext.VariantContextBuilder;
+import htsjdk.variant.variantcontext.writer.Options;
+import htsjdk.variant.variantcontext.writer.VariantContextWriter;
+import htsjdk.variant.variantcontext.writer.VariantContextWriterBuilder;
+import htsjdk.variant.vcf.VCFFileReader;
+import htsjdk.variant.vcf.VCFHeader;
+
+public class ParallelVCFWriterTest {
+
+    @Test
+    public void testOutputAndIndexMatchDefaultWriter() throws IOException {
+        final SAMSequenceDictionary dictionary = new SAMSequenceDictionary();
+        dictionary.addSequence(new SAMSequenceRecord("1", 10_000_000));
+        dictionary.addSequence(new SAMSequenceRecord("2", 10_000_000));
+
+        final List<VariantContext> variants = Lists.newArrayList();
+        for (int i = 1; i <= 5000; i++) {
+            variants.add(create("1", 1000 * i));
+        }
+        for (int i = 1; i <= 2500; i++) {
+            variants.add(create("2", 3000 * i));
+        }
+
+        final File directory = Files.createTempDirectory("sage").toFile();
+        final File expectedFile = new File(directory, "expected.vcf.gz");
+        final File victimFile = new File(directory, "victim.vcf.gz");
+
+        try (VariantContextWriter expected = new VariantContextWriterBuilder().setOutputFile(expectedFile)
+                .modifyOption(Options.INDEX_ON_THE_FLY, true)
+                .modifyOption(Options.USE_ASYNC_IO, false)
+                .setReferenceDictionary(dictionary)
+                .build()) {
+            expected.writeHeader(header(dictionary));
+            variants.forEach(expected::add);
+        }
+
+        try (VariantContextWriter victim = new ParallelVCFWriter(victimFile.getPath(), dictionary, 4)) {
+            victim.writeHeader(header(dictionary));
+            variants.forEach(victim::add);
+        }
+
+        assertEquals(new String(decompress(expectedFile)), new String(decompress(victimFile)));
+
+        try (VCFFileReader expected = new VCFFileReader(expectedFile); VCFFileReader victim = new VCFFileReader(victimFile)) {
+            assertEquals(query(expected, "1", 1, 10_000_000), query(victim, "1", 1, 10_000_000));
+            assertEquals(query(expected, "1", 2_500_000, 2_600_000), query(victim, "1", 2_500_000, 2_600_000));
+            assertEquals(query(expected, "2", 7_000_000, 7_500_000), query(victim, "2", 7_000_000, 7_500_000));
+            assertEquals(101, query(victim, "1", 2_500_000, 2_600_000).size());
+        }
+
+        for (File file : directory.listFiles()) {
+            file.deleteOnExit();
+        }
+        directory.deleteOnExit();
+    }
+
+    @NotNull
+    private static List<Integer> query(@NotNull final VCFFileReader reader, @NotNull final String contig, int start, int end) {
+        final List<Integer> result = Lists.newArrayList();
+        try (CloseableIterator<VariantContext> iterator = reader.query(contig, start, end)) {
+            iterator.forEachRemaining(x -> result.add(x.getStart()));
+        }
+        return result;
+    }
+
+    @NotNull
+    private static byte[] decompress(@NotNull final File file) throws IOException {
+        try (InputStream inputStream = new BlockCompressedInputStream(file)) {
+            return ByteStreams.toByteArray(inputStream);
+        }
+    }
+
+    @NotNull
+    private static VCFHeader header(@NotNull final SAMSequenceDictionary dictionary) {
+        final VCFHeader header = new VCFHeader(Collections.emptySet());
+        header.setSequenceDictionary(dictionary);
+        return header;
+    }
+
+    @NotNull
+    private static VariantContext create(@NotNull final String contig, int position) {
+        return new VariantContextBuilder().chr(contig).start(position).stop(position).alleles("A", "T").id("var" + position).make();
+    }
+}
@@ -0,0 +1,99 @@
+package com.hartwig.hmftools.sage.vcf;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.List;
+
+import com.google.common.collect.Lists;
+import com.hartwig.hmftools.sage.config.ImmutableSageConfig;
+import com.hartwig.hmftools.sage.config.SageConfig;
+import com.hartwig.hmftools.sage.config.SageConfigTest;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.Test;
+
+import htsjdk.variant.variantcontext.Allele;
+import htsjdk.variant.variantcontext.VariantContext;
+import htsjdk.variant.variantcontext.VariantContextBuilder;
+import htsjdk.variant.vcf.VCFHeader;
+
+public class SageCheckpointTest {
+
+    @Test
+    public void testShardRoundTrip() throws IOException {
+        final File directory = Files.createTempDirectory("sage").toFile();
+        directory.deleteOnExit();
+
+        final SageCheckpoint victim = new SageCheckpoint(directory.getPath(), new VCFHeader(Collections.emptySet()), "A");
+        assertFalse(victim.isComplete("1"));
+
+        victim.write("1", Lists.newArrayList(create(100, "A", "T"), create(200, "C", "CA")));
+        assertTrue(victim.isComplete("1"));
+        assertFalse(victim.isComplete("2"));
+
+        final List<VariantContext> restored = Lists.newArrayList();
+        victim.read("1", restored::add);
+        assertEquals(2, restored.size());
+        assertEquals(100, restored.get(0).getStart());
+        assertEquals("CA", restored.get(1).getAlternateAllele(0).getBaseString());
+
+        assertEquals(1, directory.listFiles().length);
+        for (File file : directory.listFiles()) {
+            file.deleteOnExit();
+        }
+    }
+
+    @Test
+    public void testIgnoreShardWithDifferentFingerprint() throws IOException {
+        final File directory = Files.createTempDirectory("sage").toFile();
+        directory.deleteOnExit();
+
+        final SageCheckpoint original = new SageCheckpoint(directory.getPath(), new VCFHeader(Collections.emptySet()), "A");
+        original.write("1", Lists.newArrayList(create(100, "A", "T")));
+
+        final SageCheckpoint rerun = new SageCheckpoint(directory.getPath(), new VCFHeader(Collections.emptySet()), "B");
+        assertFalse(rerun.isComplete("1"));
+
+        rerun.write("1", Lists.newArrayList(create(200, "C", "G")));
+        assertTrue(rerun.isComplete("1"));
+        assertFalse(original.isComplete("1"));
+
+        final List<VariantContext> restored = Lists.newArrayList();
+        rerun.read("1", restored::add);
+        assertEquals(1, restored.size());
+        assertEquals(200, restored.get(0).getStart());
+
+        for (File file : directory.listFiles()) {
+            file.deleteOnExit();
+        }
+    }
+
+    @Test
+    public void testFingerprintChangesWithInputs() throws IOException {
+        final SageConfig config = SageConfigTest.testConfig(Collections.emptyList());
+        final String fingerprint = SageCheckpoint.fingerprint(config);
+        assertEquals(fingerprint, SageCheckpoint.fingerprint(config));
+
+        final SageConfig otherHotspots = ImmutableSageConfig.builder().from(config).hotspots("other.vcf.gz").build();
+        assertNotEquals(fingerprint, SageCheckpoint.fingerprint(otherHotspots));
+
+        final SageConfig otherThreads = ImmutableSageConfig.builder().from(config).threads(config.threads() + 1).build();
+        assertEquals(fingerprint, SageCheckpoint.fingerprint(otherThreads));
+    }
+
+    @NotNull
+    private static VariantContext create(int position, @NotNull final String ref, @NotNull final String alt) {
+        return new VariantContextBuilder().chr("1")
+                .start(position)
+                .computeEndFromAlleles(Lists.newArrayList(Allele.create(ref, true), Allele.create(alt)), position)
+                .alleles(ref, alt)
+                .make();
+    }
+}